@@ -20,14 +20,30 @@
 
 package com.github.ydespreaux.testcontainers.cassandra;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
 import com.github.ydespreaux.testcontainers.cassandra.cmd.CassandraReadyCmd;
 import com.github.ydespreaux.testcontainers.cassandra.cmd.CqlScriptCmd;
+import com.github.ydespreaux.testcontainers.common.HealthCheckedContainer;
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.ResettableContainer;
+import com.github.ydespreaux.testcontainers.common.ReusableContainer;
 import com.github.ydespreaux.testcontainers.common.checks.AbstractCommandWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.checks.HealthCheck;
+import com.github.ydespreaux.testcontainers.common.checks.HealthStatusWaitStrategy;
 import com.github.ydespreaux.testcontainers.common.cmd.Command;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.docker.HealthCheckImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.ContainerReuse;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerArchive;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.testcontainers.containers.BindMode;
+import org.springframework.lang.Nullable;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.shaded.org.apache.commons.io.FilenameUtils;
 import org.testcontainers.utility.MountableFile;
@@ -50,7 +66,7 @@ import static org.springframework.util.CollectionUtils.isEmpty;
  *
  */
 @Slf4j
-public class CassandraContainer extends GenericContainer<CassandraContainer> implements IContainer<CassandraContainer> {
+public class CassandraContainer extends GenericContainer<CassandraContainer> implements IContainer<CassandraContainer>, ResettableContainer<CassandraContainer>, ReusableContainer<CassandraContainer>, HealthCheckedContainer<CassandraContainer> {
 
     private static final String CASSANDRA_DEFAULT_VERSION = "3.11";
     private static final String CASSANDRA_DEFAULT_BASE_URL = "cassandra";
@@ -66,6 +82,32 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
     @Getter
     private final List<CqlScriptCmd> cqlScripts = new ArrayList<>();
 
+    /**
+     * Archive of the cql scripts copied in the container.
+     */
+    private final ContainerArchive scriptFiles = new ContainerArchive();
+
+    /**
+     * Ledger of the cql scripts applied in the container.
+     */
+    private final ScriptLedger scriptLedger = new ScriptLedger();
+
+    /**
+     * Reuse of the container across JVM runs.
+     */
+    private final ContainerReuse reuse = new ContainerReuse(this);
+
+    /**
+     * Strategy used to reset the data.
+     */
+    private ResetStrategy<CassandraContainer> resetStrategy = new CassandraResetStrategy();
+
+    /**
+     * Health check run by the docker daemon, null if the startup is checked with commands executed in the container.
+     */
+    @Nullable
+    private HealthCheck healthCheck;
+
     /**
      * Register springboot properties in environment
      */
@@ -104,7 +146,7 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
      * @param version the version of the image
      */
     public CassandraContainer(String baseUrl, String version) {
-        super(baseUrl + ":" + version);
+        super(new CachedDockerImage(baseUrl + ":" + version));
     }
 
     /**
@@ -115,6 +157,13 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
         this.withLogConsumer(containerLogsConsumer(log))
                 .withExposedPorts(CASSANDRA_DEFAULT_PORT)
                 .withCreateContainerCmdModifier(createContainerCmd -> createContainerCmd.withName("testcontainsers-cassandra-" + UUID.randomUUID()));
+        if (this.healthCheck != null) {
+            if (!(this.getImage() instanceof HealthCheckImage)) {
+                this.setImage(new HealthCheckImage(this.getImage(), this.healthCheck));
+            }
+            this.waitingFor(new HealthStatusWaitStrategy()).withStartupTimeout(Duration.ofSeconds(this.getStartupTimeoutSeconds()));
+            return;
+        }
         this.waitingFor(new AbstractCommandWaitStrategy(this) {
             /**
              * Returns the schell command that must be executed.
@@ -147,20 +196,36 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
         return STARTER_TIMOUT_SECONDS;
     }
 
+    /**
+     * Copy the cql scripts in the container.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+        this.scriptFiles.copyTo(this.dockerClient, containerId);
+    }
+
     /**
      * Start the container.
      */
     @Override
     public void start() {
-        super.start();
-        // Execute all cql scripts
-        if (!isEmpty(this.cqlScripts)) {
-            this.cqlScripts.forEach(cmd -> cmd.execute(this));
-        }
-        if (registerSpringbootProperties()) {
-            // Register cassandra environment
-            registerCassandraEnvironment();
-        }
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            // Execute all cql scripts
+            if (!isEmpty(this.cqlScripts)) {
+                this.scriptLedger.apply(this, this.reuse.getReattachedContainerInfo() != null, this.cqlScripts, CqlScriptCmd::getContentHash, cmd -> cmd.execute(this));
+            }
+            if (registerSpringbootProperties()) {
+                // Register cassandra environment
+                registerCassandraEnvironment();
+            }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
     /**
@@ -206,8 +271,9 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
         if (scriptFile.isFile()) {
             throw new IllegalArgumentException(format("Resource with path %s must be a directory", scriptsDir.toString()));
         }
-        // Create the volume that will be need for scripts
-        this.addFileSystemBind(scriptsDir.toString(), DB_SCHEMA_DIRECTORY + '/' + scriptsDir.getFileName(), BindMode.READ_ONLY);
+        // Copy the scripts in the container once it is created
+        this.scriptFiles.withDirectory(scriptsDir, DB_SCHEMA_DIRECTORY + '/' + scriptsDir.getFileName(),
+                path -> FilenameUtils.getExtension(path.toFile().getName()).equals("cql"));
         // Add all scripts in cqlScripts attribute
         scanScripts(scriptsDir);
         return this.self();
@@ -232,7 +298,7 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
                     .forEach(path -> {
                         if (path.toFile().isFile()) {
                             String subPath = path.subpath(rootDirectory.getNameCount(), path.getNameCount()).toString().replaceAll("\\\\", "/");
-                            this.cqlScripts.add(new CqlScriptCmd(DB_SCHEMA_DIRECTORY + "/" + rootDirectory.getFileName() + "/" + subPath));
+                            this.cqlScripts.add(new CqlScriptCmd(DB_SCHEMA_DIRECTORY + "/" + rootDirectory.getFileName() + "/" + subPath, ScriptLedger.hash(path)));
                         } else {
                             scanScriptsImpl(rootDirectory, path);
                         }
@@ -247,10 +313,10 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
      */
     protected void registerCassandraEnvironment() {
         if (this.contactPointsSystemProperty != null) {
-            System.setProperty(this.contactPointsSystemProperty, this.getContainerIpAddress());
+            SpringbootProperties.register(this, this.contactPointsSystemProperty, this.getContainerIpAddress());
         }
         if (this.cassandraPortSystemProperty != null) {
-            System.setProperty(this.cassandraPortSystemProperty, String.valueOf(this.getMappedPort(CASSANDRA_DEFAULT_PORT)));
+            SpringbootProperties.register(this, this.cassandraPortSystemProperty, String.valueOf(this.getMappedPort(CASSANDRA_DEFAULT_PORT)));
         }
     }
 
@@ -310,6 +376,109 @@ public class CassandraContainer extends GenericContainer<CassandraContainer> imp
         return CASSANDRA_DEFAULT_PORT;
     }
 
+    /**
+     * Wait for the health status of the container computed by the docker daemon with a cqlsh query.
+     *
+     * @param healthCheck
+     * @return
+     */
+    @Override
+    public CassandraContainer withHealthCheck(boolean healthCheck) {
+        return this.withHealthCheck(healthCheck
+                ? new HealthCheck("cqlsh -e 'SELECT release_version FROM system.local' || exit 1")
+                .withInterval(Duration.ofSeconds(2))
+                .withTimeout(Duration.ofSeconds(10))
+                .withStartPeriod(Duration.ofSeconds(this.getStartupTimeoutSeconds()))
+                .withRetries(3)
+                : null);
+    }
+
+    /**
+     * Wait for the health status of the container computed by the docker daemon with a specific check.
+     *
+     * @param healthCheck the check, null to check the startup with commands executed in the container
+     * @return
+     */
+    @Override
+    public CassandraContainer withHealthCheck(@Nullable HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+        return this.self();
+    }
+
+    /**
+     * Enable the reuse of a running container with the same configuration.
+     * By default, the reuse is enabled by the system property testcontainers.reuse.enable.
+     *
+     * @param reuse
+     * @return
+     */
+    @Override
+    public CassandraContainer withReuse(boolean reuse) {
+        this.reuse.setEnabled(reuse);
+        return this.self();
+    }
+
+    /**
+     * Reattach a running container with the same configuration, or create a new container.
+     */
+    @Override
+    protected void doStart() {
+        String reusedContainerId = this.reuse.find(this::configure, this.scriptFiles.getFingerprint());
+        if (reusedContainerId == null) {
+            super.doStart();
+            return;
+        }
+        this.containerId = reusedContainerId;
+        this.containerName = this.reuse.getReattachedContainerInfo().getName();
+    }
+
+    /**
+     * Get the description of the container, the reattached container if the container is reused.
+     *
+     * @return
+     */
+    @Override
+    public InspectContainerResponse getContainerInfo() {
+        InspectContainerResponse reattachedContainerInfo = this.reuse.getReattachedContainerInfo();
+        return reattachedContainerInfo != null ? reattachedContainerInfo : super.getContainerInfo();
+    }
+
+    /**
+     * Stop the container. A reused container is left running.
+     */
+    @Override
+    public void stop() {
+        if (this.containerId != null && ContainerReuse.isReused(this)) {
+            log.info("Container {} is reused and left running", this.containerId);
+            this.containerId = null;
+            return;
+        }
+        super.stop();
+    }
+
+    /**
+     * Set the strategy used to reset the data.
+     *
+     * @param resetStrategy
+     * @return
+     */
+    @Override
+    public CassandraContainer withResetStrategy(ResetStrategy<CassandraContainer> resetStrategy) {
+        this.resetStrategy = Objects.requireNonNull(resetStrategy, "resetStrategy must be provided");
+        return this.self();
+    }
+
+    /**
+     * Truncate the tables of the user keyspaces.
+     */
+    @Override
+    public void reset() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Container must be running");
+        }
+        this.resetStrategy.reset(this);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.cassandra;
+
+import com.github.ydespreaux.testcontainers.common.environment.ContainerDescriptor;
+import com.github.ydespreaux.testcontainers.common.environment.ContainerFactory;
+import com.github.ydespreaux.testcontainers.common.environment.Environment;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Create the Cassandra containers of an environment.
+ * <p>
+ * Properties: cqlScriptDirectory (one or more).
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class CassandraContainerFactory implements ContainerFactory {
+
+    public static final String TYPE = "cassandra";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Startable create(ContainerDescriptor descriptor, Environment environment) {
+        CassandraContainer container = descriptor.getVersion() == null ? new CassandraContainer() : new CassandraContainer(descriptor.getVersion());
+        container.withRegisterSpringbootProperties(descriptor.isRegisterSpringbootProperties());
+        descriptor.getStringList("cqlScriptDirectory").forEach(container::withCqlScriptDirectory);
+        return container;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.cassandra;
+
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Reset the data of a Cassandra container.
+ * <p>
+ * All the tables of the user keyspaces are truncated with a single cqlsh call.
+ * The system keyspaces and the excluded keyspaces are never truncated.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class CassandraResetStrategy implements ResetStrategy<CassandraContainer> {
+
+    private static final String TABLES_QUERY = "SELECT keyspace_name, table_name FROM system_schema.tables";
+    private static final String SYSTEM_KEYSPACE_PREFIX = "system";
+
+    /**
+     * Keyspaces never truncated.
+     */
+    private final Set<String> excludedKeyspaces = new HashSet<>();
+
+    /**
+     * Exclude keyspaces from the reset.
+     *
+     * @param keyspaces
+     * @return
+     */
+    public CassandraResetStrategy withExcludedKeyspaces(String... keyspaces) {
+        excludedKeyspaces.addAll(Arrays.asList(keyspaces));
+        return this;
+    }
+
+    @Override
+    public void reset(CassandraContainer container) {
+        long start = System.currentTimeMillis();
+        List<String> tables = findTables(container);
+        if (!tables.isEmpty()) {
+            String statements = tables.stream()
+                    .map(table -> format("TRUNCATE %s;", table))
+                    .collect(Collectors.joining(" "));
+            cqlsh(container, statements);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} tables truncated in {} ms", tables.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Find the tables of the user keyspaces.
+     *
+     * @param container
+     * @return
+     */
+    private List<String> findTables(CassandraContainer container) {
+        List<String> tables = new ArrayList<>();
+        boolean rows = false;
+        for (String line : cqlsh(container, TABLES_QUERY).split("\\r?\\n")) {
+            if (line.trim().startsWith("---")) {
+                rows = true;
+                continue;
+            }
+            String[] columns = line.split("\\|");
+            if (!rows || columns.length != 2) {
+                continue;
+            }
+            String keyspace = columns[0].trim();
+            if (!keyspace.startsWith(SYSTEM_KEYSPACE_PREFIX) && !excludedKeyspaces.contains(keyspace)) {
+                tables.add(keyspace + "." + columns[1].trim());
+            }
+        }
+        return tables;
+    }
+
+    private String cqlsh(CassandraContainer container, String statements) {
+        ContainerUtils.ExecCmdResult result = ContainerUtils.execCmd(container.getContainerId(), new String[]{"cqlsh", "-e", statements});
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException(format("Reset of container %s failed: %s", container.getContainerId(), result.getOutput()));
+        }
+        return result.getOutput();
+    }
+}
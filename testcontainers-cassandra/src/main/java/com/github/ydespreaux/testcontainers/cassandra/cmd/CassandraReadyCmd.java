@@ -23,6 +23,7 @@ package com.github.ydespreaux.testcontainers.cassandra.cmd;
 import com.github.ydespreaux.testcontainers.cassandra.CassandraContainer;
 import com.github.ydespreaux.testcontainers.common.cmd.AbstractCommand;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -34,5 +35,9 @@ public class CassandraReadyCmd extends AbstractCommand<CassandraContainer> {
                 "cqlsh", "-e", "SELECT release_version FROM system.local"
         );
     }
-}
 
+    @Override
+    protected Duration getDefaultTimeout() {
+        return Duration.ofSeconds(30);
+    }
+}
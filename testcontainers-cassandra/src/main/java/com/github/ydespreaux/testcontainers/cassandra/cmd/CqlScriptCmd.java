@@ -22,8 +22,10 @@ package com.github.ydespreaux.testcontainers.cassandra.cmd;
 
 import com.github.ydespreaux.testcontainers.cassandra.CassandraContainer;
 import com.github.ydespreaux.testcontainers.common.cmd.AbstractCommand;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -32,12 +34,33 @@ public class CqlScriptCmd extends AbstractCommand<CassandraContainer> {
     @Getter
     private String script;
 
+    /**
+     * Hash identifying the script in the ledger: the hash of the script content when known, of its path otherwise.
+     */
+    @Getter
+    private String contentHash;
+
     public CqlScriptCmd(String script) {
+        this(script, ScriptLedger.hash(script));
+    }
+
+    public CqlScriptCmd(String script, String contentHash) {
         this.script = script;
+        this.contentHash = contentHash;
     }
 
     @Override
     protected List<String> buildParameters(CassandraContainer container) {
         return Arrays.asList("cqlsh", "-f", script);
     }
-}
\ No newline at end of file
+
+    /**
+     * A script may create a large schema or insert a large data set.
+     *
+     * @return
+     */
+    @Override
+    protected Duration getDefaultTimeout() {
+        return Duration.ofMinutes(5);
+    }
+}
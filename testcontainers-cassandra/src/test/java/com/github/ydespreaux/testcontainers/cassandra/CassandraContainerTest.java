@@ -114,5 +114,19 @@ public class CassandraContainerTest {
         assertThat(result.size(), is(equalTo(4)));
     }
 
+    @Test
+    void reset() {
+        session.execute("CREATE KEYSPACE IF NOT EXISTS testcontainers_reset WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+        session.execute("CREATE TABLE IF NOT EXISTS testcontainers_reset.event (id text PRIMARY KEY, name text)");
+        session.execute("INSERT INTO testcontainers_reset.event (id, name) VALUES ('1', 'first')");
+        session.execute("INSERT INTO testcontainers_reset.event (id, name) VALUES ('2', 'second')");
+
+        // The keyspace of the other tests is kept
+        cassandraContainer.withResetStrategy(new CassandraResetStrategy().withExcludedKeyspaces(KEYSPACE)).reset();
+
+        assertThat(session.execute("select * from testcontainers_reset.event").all(), is(empty()));
+        assertThat(session.execute("select * from model").all().size(), is(equalTo(4)));
+    }
+
 
 }
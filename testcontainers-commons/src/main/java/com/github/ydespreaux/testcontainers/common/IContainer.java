@@ -20,6 +20,7 @@
 
 package com.github.ydespreaux.testcontainers.common;
 
+import com.github.ydespreaux.testcontainers.common.proxy.NetworkProxy;
 import org.testcontainers.containers.Container;
 
 /**
@@ -50,4 +51,15 @@ public interface IContainer<S extends IContainer<S>> extends Container<S> {
      * @return
      */
     String getInternalURL();
+
+    /**
+     * Create a proxy between the test JVM and a port of the container, shaping the traffic.
+     * The url of the container through the proxy is given by {@link NetworkProxy#getProxiedUrl(String)}.
+     *
+     * @param containerPort the port of the container
+     * @return the started proxy
+     */
+    default NetworkProxy createProxy(int containerPort) {
+        return new NetworkProxy(getContainerIpAddress(), getMappedPort(containerPort)).start();
+    }
 }
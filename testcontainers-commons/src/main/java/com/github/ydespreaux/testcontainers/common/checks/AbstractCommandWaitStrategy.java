@@ -22,15 +22,25 @@ package com.github.ydespreaux.testcontainers.common.checks;
 
 import com.github.ydespreaux.testcontainers.common.cmd.Command;
 import com.github.ydespreaux.testcontainers.common.cmd.CommandExecutionException;
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.Container;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 /**
  * Define a waiting strategy.
  * This policy allows you to execute a shell command in the docker container to verify
  * that the container is started.
+ * <p>
+ * The check commands are independent: they are executed concurrently, and a command that succeeded
+ * is not executed again on the next attempts of the same wait.
  *
  * @author Yoann Despréaux
  * @since 1.0.0
@@ -38,6 +48,16 @@ import java.util.List;
 @Slf4j
 public abstract class AbstractCommandWaitStrategy<T extends Container> extends AbstractRetryingWaitStrategy<T> {
 
+    /**
+     * Executor of the check commands.
+     */
+    private static final ExecutorService CHECK_EXECUTOR = ProvisioningExecutors.newExecutor("testcontainers-check");
+
+    /**
+     * Commands that already succeeded during the current wait.
+     */
+    private final Set<Command> passedCommands = ConcurrentHashMap.newKeySet();
+
     public AbstractCommandWaitStrategy(T container) {
         super(container);
     }
@@ -49,15 +69,43 @@ public abstract class AbstractCommandWaitStrategy<T extends Container> extends A
      */
     public abstract List<Command> getCheckCommands();
 
+    /**
+     * Wait until all the commands succeeded. The commands are checked again on each start of the container.
+     */
+    @Override
+    protected void waitUntilReady() {
+        passedCommands.clear();
+        super.waitUntilReady();
+    }
 
     @Override
     protected boolean isReady() {
-        for (Command command : getCheckCommands()) {
-            if (!isReady(command)) {
-                return false;
-            }
+        List<Command> pendingCommands = getCheckCommands().stream()
+                .filter(command -> !passedCommands.contains(command))
+                .collect(Collectors.toList());
+        if (pendingCommands.size() == 1) {
+            return checkCommand(pendingCommands.get(0));
         }
-        return true;
+        List<CompletableFuture<Boolean>> checks = pendingCommands.stream()
+                .map(command -> CompletableFuture.supplyAsync(Tracing.getInstance().wrap(() -> checkCommand(command)), CHECK_EXECUTOR))
+                .collect(Collectors.toList());
+        return checks.stream()
+                .map(CompletableFuture::join)
+                .reduce(true, Boolean::logicalAnd);
+    }
+
+    /**
+     * Execute a command and remember it when it succeeded.
+     *
+     * @param command
+     * @return
+     */
+    private boolean checkCommand(Command command) {
+        boolean ready = isReady(command);
+        if (ready) {
+            passedCommands.add(command);
+        }
+        return ready;
     }
 
     /**
@@ -20,6 +20,8 @@
 
 package com.github.ydespreaux.testcontainers.common.checks;
 
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import lombok.extern.slf4j.Slf4j;
 import org.rnorth.ducttape.TimeoutException;
 import org.rnorth.ducttape.unreliables.Unreliables;
@@ -28,6 +30,9 @@ import org.testcontainers.containers.ContainerLaunchException;
 import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
@@ -66,14 +71,45 @@ public abstract class AbstractRetryingWaitStrategy<T extends Container> extends
     @Override
     protected void waitUntilReady() {
         long seconds = startupTimeout.getSeconds();
+        AtomicReference<ContainerLaunchException> failure = new AtomicReference<>();
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<Boolean> attempt = Tracing.getInstance().wrap(() -> {
+            try (TraceSpan span = Tracing.getInstance().startSpan("wait attempt " + getContainerType())
+                    .withAttribute("container.id", container.getContainerId())
+                    .withAttribute("attempt", attempts.incrementAndGet())) {
+                boolean done = !isRunning(failure) || isReady();
+                span.withAttribute("ready", done && failure.get() == null);
+                return done;
+            }
+        });
         try {
             Unreliables.retryUntilTrue((int) seconds, TimeUnit.SECONDS,
-                    () -> getRateLimiter().getWhenReady(this::isReady));
+                    () -> getRateLimiter().getWhenReady(attempt::get));
         } catch (TimeoutException e) {
             throw new ContainerLaunchException(
                     format("[%s] notifies that container[%s] is not ready after [%d] seconds, container cannot be started.",
                             getContainerType(), container.getContainerId(), seconds));
         }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Check that the container is still running.
+     * When the container has stopped, the failure is kept to be thrown once the retries are ended.
+     *
+     * @param failure
+     * @return
+     */
+    private boolean isRunning(AtomicReference<ContainerLaunchException> failure) {
+        try {
+            ContainerStateMonitor.checkRunning(container.getContainerId(), getContainerType());
+            return true;
+        } catch (ContainerLaunchException e) {
+            failure.set(e);
+            return false;
+        }
     }
 
     /**
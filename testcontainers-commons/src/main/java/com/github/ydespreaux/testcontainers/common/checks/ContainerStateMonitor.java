@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
+import org.testcontainers.containers.ContainerLaunchException;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static java.lang.String.format;
+
+/**
+ * Monitor the state of a container while it is starting.
+ * The startup is aborted as soon as the container stops, with the last lines of its logs.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public final class ContainerStateMonitor {
+
+    /**
+     * Number of log lines reported when the container stops.
+     */
+    public static final int LOGS_TAIL_LINES = 50;
+
+    /**
+     * Interval between two checks of the container state.
+     */
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private ContainerStateMonitor() {
+        // Nothing to do
+    }
+
+    /**
+     * Check that the container is still running.
+     *
+     * @param containerId   the container id
+     * @param containerType the container type used in the error message
+     * @throws ContainerLaunchException if the container is not running
+     */
+    public static void checkRunning(String containerId, String containerType) {
+        InspectContainerResponse.ContainerState state;
+        try {
+            state = DockerClientProvider.getInstance().executeWithRetry(client -> client.inspectContainerCmd(containerId).exec()).getState();
+        } catch (NotFoundException e) {
+            throw new ContainerLaunchException(format("[%s] notifies that container[%s] has been removed, container cannot be started.",
+                    containerType, containerId));
+        }
+        if (Boolean.TRUE.equals(state.getRunning())) {
+            return;
+        }
+        String logs = ContainerUtils.getLogsTail(containerId, LOGS_TAIL_LINES);
+        throw new ContainerLaunchException(
+                format("[%s] notifies that container[%s] has stopped (status: %s, exit code: %s%s), container cannot be started.%nLast logs:%n%s",
+                        containerType, containerId, state.getStatus(), state.getExitCode(),
+                        Boolean.TRUE.equals(state.getOOMKilled()) ? ", out of memory" : "", logs));
+    }
+
+    /**
+     * Run a wait task and abort it as soon as the container stops.
+     *
+     * @param containerId   the container id
+     * @param containerType the container type used in the error message
+     * @param waitTask      the task waiting for the container
+     * @throws ContainerLaunchException if the container stops before the end of the task
+     */
+    public static void runMonitored(String containerId, String containerType, Runnable waitTask) {
+        ExecutorService executor = ProvisioningExecutors.newExecutor("testcontainers-wait-" + containerType, 1);
+        Future<?> future = executor.submit(Tracing.getInstance().wrap(waitTask));
+        try {
+            while (true) {
+                try {
+                    future.get(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    checkRunning(containerId, containerType);
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ContainerLaunchException(format("[%s] wait for container[%s] failed", containerType, containerId), (Exception) cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException(format("[%s] wait for container[%s] interrupted", containerType, containerId), e);
+        } finally {
+            future.cancel(true);
+            executor.shutdownNow();
+        }
+    }
+}
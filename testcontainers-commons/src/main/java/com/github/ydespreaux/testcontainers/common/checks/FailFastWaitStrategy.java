@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategyTarget;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Wait strategy aborting the wrapped strategy as soon as the container stops.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class FailFastWaitStrategy implements WaitStrategy {
+
+    /**
+     * The wrapped strategy.
+     */
+    private final WaitStrategy delegate;
+
+    /**
+     * @param delegate the wrapped strategy
+     */
+    public FailFastWaitStrategy(WaitStrategy delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must be provided");
+    }
+
+    @Override
+    public void waitUntilReady(WaitStrategyTarget waitStrategyTarget) {
+        ContainerStateMonitor.runMonitored(waitStrategyTarget.getContainerId(), delegate.getClass().getSimpleName(),
+                () -> delegate.waitUntilReady(waitStrategyTarget));
+    }
+
+    @Override
+    public WaitStrategy withStartupTimeout(Duration startupTimeout) {
+        delegate.withStartupTimeout(startupTimeout);
+        return this;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * Definition of a docker HEALTHCHECK run by the docker daemon inside the container.
+ * The check is a shell command: the container is healthy as soon as the command exits with the code 0.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Getter
+public class HealthCheck {
+
+    /**
+     * The shell command of the check.
+     */
+    private final String command;
+    /**
+     * Interval between two checks.
+     */
+    private Duration interval = Duration.ofSeconds(1);
+    /**
+     * Timeout of a check.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+    /**
+     * Period during which the failures are not counted.
+     */
+    private Duration startPeriod = Duration.ZERO;
+    /**
+     * Number of consecutive failures before the container is unhealthy.
+     */
+    private int retries = 120;
+
+    /**
+     * @param command the shell command of the check
+     */
+    public HealthCheck(String command) {
+        Objects.requireNonNull(command, "command must be provided");
+        if (command.trim().isEmpty() || command.contains("\n")) {
+            throw new IllegalArgumentException("The health check command must be a non empty single line");
+        }
+        this.command = command;
+    }
+
+    /**
+     * @param interval the interval between two checks
+     * @return this instance
+     */
+    public HealthCheck withInterval(Duration interval) {
+        this.interval = requirePositive(interval, "interval");
+        return this;
+    }
+
+    /**
+     * @param timeout the timeout of a check
+     * @return this instance
+     */
+    public HealthCheck withTimeout(Duration timeout) {
+        this.timeout = requirePositive(timeout, "timeout");
+        return this;
+    }
+
+    /**
+     * @param startPeriod the period during which the failures are not counted
+     * @return this instance
+     */
+    public HealthCheck withStartPeriod(Duration startPeriod) {
+        Objects.requireNonNull(startPeriod, "startPeriod must be provided");
+        if (startPeriod.isNegative()) {
+            throw new IllegalArgumentException("startPeriod must not be negative");
+        }
+        this.startPeriod = startPeriod;
+        return this;
+    }
+
+    /**
+     * @param retries the number of consecutive failures before the container is unhealthy
+     * @return this instance
+     */
+    public HealthCheck withRetries(int retries) {
+        if (retries < 1) {
+            throw new IllegalArgumentException("retries must be greater than 0");
+        }
+        this.retries = retries;
+        return this;
+    }
+
+    /**
+     * Get the dockerfile instruction of the check.
+     *
+     * @return the HEALTHCHECK instruction
+     */
+    public String toInstruction() {
+        return format("HEALTHCHECK --interval=%s --timeout=%s --start-period=%s --retries=%d CMD %s",
+                toDockerDuration(interval), toDockerDuration(timeout), toDockerDuration(startPeriod), retries, command);
+    }
+
+    @Override
+    public String toString() {
+        return toInstruction();
+    }
+
+    private static Duration requirePositive(Duration duration, String name) {
+        Objects.requireNonNull(duration, name + " must be provided");
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+
+    private static String toDockerDuration(Duration duration) {
+        long millis = duration.toMillis();
+        return millis % 1000 == 0 ? (millis / 1000) + "s" : millis + "ms";
+    }
+}
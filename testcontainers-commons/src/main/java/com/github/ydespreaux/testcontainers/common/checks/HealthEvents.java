@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.core.async.ResultCallbackTemplate;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single subscription to the docker events notifying the health status changes of the containers of the session.
+ * All the containers awaited by a {@link HealthStatusWaitStrategy} share this subscription.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+final class HealthEvents {
+
+    private static final String HEALTH_STATUS_PREFIX = "health_status: ";
+
+    private static final HealthEvents INSTANCE = new HealthEvents();
+
+    /**
+     * Health status notified for each awaited container.
+     */
+    private final Map<String, CompletableFuture<String>> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * The current subscription.
+     */
+    @Nullable
+    private ResultCallbackTemplate<?, Event> subscription;
+
+    private HealthEvents() {
+        // Nothing to do
+    }
+
+    static HealthEvents getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a container and get the future completed with its next health status (healthy or unhealthy).
+     *
+     * @param containerId the container id
+     * @return the future of the health status
+     */
+    CompletableFuture<String> register(String containerId) {
+        CompletableFuture<String> status = statuses.computeIfAbsent(containerId, id -> new CompletableFuture<>());
+        subscribe();
+        return status;
+    }
+
+    /**
+     * Stop waiting for a container.
+     *
+     * @param containerId the container id
+     */
+    void unregister(String containerId) {
+        statuses.remove(containerId);
+    }
+
+    private synchronized void subscribe() {
+        if (subscription != null) {
+            return;
+        }
+        ResultCallbackTemplate<?, Event> callback = new ResultCallbackTemplate<ResultCallbackTemplate<?, Event>, Event>() {
+            @Override
+            public void onNext(Event event) {
+                onEvent(event);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                log.debug("Subscription to the health events interrupted: {}", throwable.getMessage());
+                reset(this);
+            }
+
+            @Override
+            public void onComplete() {
+                reset(this);
+            }
+        };
+        try {
+            DockerClientProvider.getInstance().execute(client -> client.eventsCmd()
+                    .withLabelFilter(Collections.singletonMap(DockerClientFactory.TESTCONTAINERS_SESSION_ID_LABEL, DockerClientFactory.SESSION_ID))
+                    .exec(callback));
+            subscription = callback;
+        } catch (RuntimeException e) {
+            // The strategy falls back on the inspection of the containers
+            log.debug("Subscription to the health events failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void reset(ResultCallbackTemplate<?, Event> callback) {
+        if (subscription == callback) {
+            subscription = null;
+        }
+    }
+
+    private void onEvent(Event event) {
+        String status = event.getStatus();
+        if (event.getId() == null || status == null || !status.startsWith(HEALTH_STATUS_PREFIX)) {
+            return;
+        }
+        String health = status.substring(HEALTH_STATUS_PREFIX.length()).trim();
+        CompletableFuture<String> future = statuses.get(event.getId());
+        if (future != null && !"starting".equals(health)) {
+            future.complete(health);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import com.github.dockerjava.api.command.HealthState;
+import com.github.dockerjava.api.command.HealthStateLog;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import org.springframework.lang.Nullable;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+
+/**
+ * Wait strategy reading the health status computed by the docker daemon from the HEALTHCHECK of the image.
+ * No command is executed from the JVM: the strategy is notified by the docker events, shared by all the awaited
+ * containers, and inspects the container at a low frequency when an event is missed.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class HealthStatusWaitStrategy extends AbstractWaitStrategy {
+
+    /**
+     * Interval between two inspections of the container when no event is received.
+     */
+    private static final Duration INSPECT_INTERVAL = Duration.ofSeconds(2);
+
+    private static final String HEALTHY = "healthy";
+    private static final String UNHEALTHY = "unhealthy";
+
+    @Override
+    protected void waitUntilReady() {
+        String containerId = waitStrategyTarget.getContainerId();
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        CompletableFuture<String> notified = HealthEvents.getInstance().register(containerId);
+        try (TraceSpan span = Tracing.getInstance().startSpan("wait health")
+                .withAttribute("container.id", containerId)) {
+            while (!checkHealthy(containerId)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    span.withAttribute("ready", false);
+                    throw new ContainerLaunchException(format("Timed out waiting for container[%s] to be healthy after %s",
+                            containerId, startupTimeout));
+                }
+                awaitEvent(notified, Math.min(remaining, INSPECT_INTERVAL.toNanos()));
+            }
+            span.withAttribute("ready", true);
+        } finally {
+            HealthEvents.getInstance().unregister(containerId);
+        }
+    }
+
+    /**
+     * Inspect the health status of the container.
+     *
+     * @param containerId the container id
+     * @return true if the container is healthy
+     * @throws ContainerLaunchException if the container is stopped, unhealthy or has no health check
+     */
+    private boolean checkHealthy(String containerId) {
+        InspectContainerResponse.ContainerState state = DockerClientProvider.getInstance()
+                .executeWithRetry(client -> client.inspectContainerCmd(containerId).exec()).getState();
+        if (!Boolean.TRUE.equals(state.getRunning())) {
+            ContainerStateMonitor.checkRunning(containerId, getClass().getSimpleName());
+        }
+        HealthState health = state.getHealth();
+        if (health == null) {
+            throw new ContainerLaunchException(format("Container[%s] has no health check", containerId));
+        }
+        if (UNHEALTHY.equals(health.getStatus())) {
+            throw new ContainerLaunchException(format("Container[%s] is unhealthy after %s failed checks, last output:%n%s",
+                    containerId, health.getFailingStreak(), lastOutput(health)));
+        }
+        return HEALTHY.equals(health.getStatus());
+    }
+
+    private static void awaitEvent(CompletableFuture<String> notified, long timeoutNanos) {
+        try {
+            notified.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // The container is inspected again
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException("Wait for the health status interrupted", e);
+        }
+    }
+
+    @Nullable
+    private static String lastOutput(HealthState health) {
+        List<HealthStateLog> logs = health.getLog();
+        return logs == null || logs.isEmpty() ? null : logs.get(logs.size() - 1).getOutput();
+    }
+}
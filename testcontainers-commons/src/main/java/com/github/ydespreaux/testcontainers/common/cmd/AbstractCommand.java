@@ -20,20 +20,76 @@
 
 package com.github.ydespreaux.testcontainers.common.cmd;
 
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
 import org.testcontainers.containers.Container;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 
 public abstract class AbstractCommand<T extends Container> implements Command<T> {
 
+    /**
+     * Default maximum duration of a command.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * Maximum duration of the command, the default timeout of the command if not set.
+     */
+    private Duration timeout;
+
+    /**
+     * Set the maximum duration of the command. The command is killed when the timeout expires.
+     *
+     * @param timeout
+     * @return
+     */
+    public AbstractCommand<T> withTimeout(Duration timeout) {
+        this.timeout = Objects.requireNonNull(timeout, "timeout must be provided");
+        return this;
+    }
+
+    /**
+     * Get the maximum duration of the command.
+     *
+     * @return
+     */
+    public Duration getTimeout() {
+        return timeout != null ? timeout : getDefaultTimeout();
+    }
+
+    /**
+     * Get the default maximum duration of the command.
+     *
+     * @return
+     */
+    protected Duration getDefaultTimeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Execute the command. The command is killed if it is not completed before its timeout.
+     *
+     * @param container
+     * @return
+     * @throws com.github.ydespreaux.testcontainers.common.utils.ExecTimeoutException if the timeout expires
+     */
     @Override
     public ContainerUtils.ExecCmdResult execute(T container) {
-        ContainerUtils.ExecCmdResult result = ContainerUtils.execCmd(container.getDockerClient(), container.getContainerId(), getParameters(container));
-        if (result.getExitCode() != 0) {
-            throw new CommandExecutionException(this, result);
+        try (TraceSpan span = Tracing.getInstance().startSpan("command " + getClass().getSimpleName())
+                .withAttribute("container.id", container.getContainerId())) {
+            ContainerUtils.ExecCmdResult result = ContainerUtils.execCmd(container.getContainerId(), getParameters(container), getTimeout());
+            span.withAttribute("exit.code", result.getExitCode());
+            if (result.getExitCode() != 0) {
+                CommandExecutionException failure = new CommandExecutionException(this, result);
+                span.withError(failure);
+                throw failure;
+            }
+            return result;
         }
-        return result;
     }
 
     public String[] getParameters(T container) {
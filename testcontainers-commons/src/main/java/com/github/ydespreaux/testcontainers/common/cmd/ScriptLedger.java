@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.cmd;
+
+import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.Container;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Ledger of the init scripts applied in a container.
+ * <p>
+ * The SHA-256 hash of each applied script is stored in a file inside the container,
+ * so that a reattached container only applies the scripts whose content is new.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class ScriptLedger {
+
+    /**
+     * Default path of the ledger file in the container.
+     */
+    public static final String DEFAULT_LEDGER_FILE = "/tmp/.testcontainers-ledger";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Path of the ledger file in the container.
+     */
+    @Getter
+    private final String ledgerFile;
+
+    /**
+     *
+     */
+    public ScriptLedger() {
+        this(DEFAULT_LEDGER_FILE);
+    }
+
+    /**
+     * @param ledgerFile path of the ledger file in the container
+     */
+    public ScriptLedger(String ledgerFile) {
+        this.ledgerFile = Objects.requireNonNull(ledgerFile, "ledgerFile must be provided");
+    }
+
+    /**
+     * Compute the hash of a content.
+     *
+     * @param content
+     * @return
+     */
+    public static String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compute the hash of a file.
+     * The file is read through a fixed buffer, so that its size is not limited by the heap.
+     *
+     * @param file
+     * @return
+     */
+    public static String hash(Path file) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(format("Cannot read the file %s", file.toString()), e);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Compute the hash of a content.
+     *
+     * @param content
+     * @return
+     */
+    public static String hash(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        StringBuilder hash = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Apply the scripts not yet recorded in the ledger of the container.
+     * The ledger is only read for a reattached container: a created container applies all the scripts.
+     * Identical scripts are told apart by their occurrence, so that a script repeated in the list is applied each time.
+     * The hashes of the applied scripts are recorded at once, after the scripts are applied.
+     *
+     * @param container  the container
+     * @param reattached true if the container has been reattached instead of created
+     * @param scripts    the scripts in execution order
+     * @param hasher     the function computing the hash of a script content
+     * @param action     the function applying a script
+     * @param <S>        the type of the scripts
+     * @return the number of scripts applied
+     */
+    public <S> int apply(Container<?> container, boolean reattached, List<S> scripts, Function<S, String> hasher, Consumer<S> action) {
+        if (scripts.isEmpty()) {
+            return 0;
+        }
+        Set<String> recorded = reattached ? load(container) : Collections.emptySet();
+        Map<String, Integer> occurrences = new HashMap<>();
+        List<String> applied = new ArrayList<>();
+        try {
+            for (S script : scripts) {
+                String contentHash = hasher.apply(script);
+                String hash = contentHash + "#" + occurrences.merge(contentHash, 1, Integer::sum);
+                if (recorded.contains(hash)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Script already applied, skipped: {}", script);
+                    }
+                    continue;
+                }
+                action.accept(script);
+                applied.add(hash);
+            }
+        } finally {
+            record(container, applied);
+        }
+        if (log.isInfoEnabled() && applied.size() < scripts.size()) {
+            log.info("{} scripts already applied in container {}", scripts.size() - applied.size(), container.getContainerId());
+        }
+        return applied.size();
+    }
+
+    /**
+     * Load the hashes recorded in the ledger of the container.
+     *
+     * @param container
+     * @return
+     */
+    public Set<String> load(Container<?> container) {
+        String output = exec(container, format("cat %s 2>/dev/null || true", ledgerFile), "Cannot read the ledger %s: %s");
+        Set<String> hashes = new HashSet<>();
+        for (String line : output.split("\\r?\\n")) {
+            if (!line.trim().isEmpty()) {
+                hashes.add(line.trim());
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Record hashes in the ledger of the container.
+     *
+     * @param container
+     * @param hashes
+     */
+    public void record(Container<?> container, List<String> hashes) {
+        if (!hashes.isEmpty()) {
+            exec(container, format("printf '%%s\\n' %s >> %s", String.join(" ", hashes), ledgerFile), "Cannot write the ledger %s: %s");
+        }
+    }
+
+    /**
+     * Execute a shell command in the container.
+     *
+     * @param container
+     * @param command
+     * @param errorMessage the format of the error message, with the ledger file and the output of the command
+     * @return the output of the command
+     */
+    String exec(Container<?> container, String command, String errorMessage) {
+        ContainerUtils.ExecCmdResult result = ContainerUtils.execCmd(container.getContainerId(), new String[]{"sh", "-c", command});
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException(format(errorMessage, ledgerFile, result.getOutput()));
+        }
+        return result.getOutput();
+    }
+}
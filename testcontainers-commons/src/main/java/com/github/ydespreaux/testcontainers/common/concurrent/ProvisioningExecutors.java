@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors of the provisioning tasks (container starts, readiness checks, docker execs, init commands...).
+ * <p>
+ * The tasks are almost entirely blocking I/O: on Java 21 and later, each task runs on its own virtual thread.
+ * On older runtimes, the tasks run on a bounded pool of daemon platform threads, the idle threads being released.
+ * The virtual threads are resolved by reflection, so the library is still compiled for Java 11.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public final class ProvisioningExecutors {
+
+    /**
+     * System property disabling the virtual threads.
+     */
+    public static final String VIRTUAL_THREADS_DISABLE_PROPERTY = "testcontainers.executor.virtual-threads.disable";
+    /**
+     * System property defining the maximum number of platform threads of an executor.
+     */
+    public static final String MAX_THREADS_PROPERTY = "testcontainers.executor.max-threads";
+
+    private static final int DEFAULT_MAX_THREADS = 64;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Builder of virtual threads (Thread.ofVirtual()), null if the virtual threads are not available.
+     */
+    @Nullable
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private ProvisioningExecutors() {
+        // Nothing to do
+    }
+
+    /**
+     * @return true if the tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return OF_VIRTUAL != null && !Boolean.getBoolean(VIRTUAL_THREADS_DISABLE_PROPERTY);
+    }
+
+    /**
+     * Create an executor running each task on a virtual thread, or on a bounded pool of platform threads
+     * when the virtual threads are not available.
+     *
+     * @param name the prefix of the thread names
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name) {
+        return newExecutor(name, Integer.getInteger(MAX_THREADS_PROPERTY, DEFAULT_MAX_THREADS));
+    }
+
+    /**
+     * Create an executor running each task on a virtual thread, or on a bounded pool of platform threads
+     * when the virtual threads are not available.
+     *
+     * @param name       the prefix of the thread names
+     * @param maxThreads the maximum number of platform threads
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be greater than 0");
+        }
+        if (isVirtual()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, virtualThreadFactory(name));
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads not available, platform threads used: {}", e.toString());
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), platformThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Create a thread running a single task: a virtual thread if available, a daemon platform thread otherwise.
+     * The thread is not started.
+     *
+     * @param name the thread name
+     * @param task the task
+     * @return the thread
+     */
+    public static Thread newThread(String name, Runnable task) {
+        if (isVirtual()) {
+            try {
+                return virtualThreadFactory(name).newThread(task);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads not available, platform threads used: {}", e.toString());
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) throws ReflectiveOperationException {
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = builderClass.getMethod("name", String.class, long.class)
+                .invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    }
+
+    private static ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Nullable
+    private static Method findOfVirtual() {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            // Fails if the virtual threads are not supported by the runtime
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads not available: {}", e instanceof InvocationTargetException ? e.getCause() : e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.dashboard;
+
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.Statistics;
+import com.github.dockerjava.core.async.ResultCallbackTemplate;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.testcontainers.DockerClientFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Live dashboard of the containers of the JVM, served on a loopback port.
+ * <ul>
+ * <li>/ : html page refreshed every 2 seconds</li>
+ * <li>/api/containers : the containers of the session with their phase, the starts in progress and the startup durations</li>
+ * <li>/api/containers/&lt;id&gt; : a container with the history of its commands and execs, a resource sample and the tail of its logs</li>
+ * </ul>
+ * The dashboard is started with the tracing when the system property testcontainers.dashboard.port is defined
+ * (0 for a random port, logged at startup).
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class Dashboard {
+
+    public static final String PORT_PROPERTY = "testcontainers.dashboard.port";
+
+    private static final String API_PATH = "/api/containers";
+    private static final int LOG_LINES = 50;
+    private static final long SAMPLE_TIMEOUT_SECONDS = 3;
+
+    private final DashboardState state = new DashboardState();
+    private final Tracing tracing;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "testcontainers-dashboard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param tracing the tracing listened by the dashboard
+     * @param port    the port, 0 for a random port
+     * @throws IOException
+     */
+    Dashboard(Tracing tracing, int port) throws IOException {
+        this.tracing = tracing;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        tracing.addListener(state);
+    }
+
+    /**
+     * Start the dashboard if the system property testcontainers.dashboard.port is defined.
+     *
+     * @param tracing the tracing listened by the dashboard
+     */
+    public static void startIfEnabled(Tracing tracing) {
+        Integer port = Integer.getInteger(PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        try {
+            Dashboard dashboard = new Dashboard(tracing, port);
+            dashboard.start();
+            if (log.isInfoEnabled()) {
+                log.info("Testcontainers dashboard available on http://{}:{}/", dashboard.getHost(), dashboard.getPort());
+            }
+        } catch (IOException e) {
+            log.warn("Unable to start the testcontainers dashboard on port {}", port, e);
+        }
+    }
+
+    /**
+     * Start serving the requests.
+     */
+    void start() {
+        // The dispatcher thread of the server inherits the daemon status of the thread that starts it
+        Thread starter = new Thread(server::start, "testcontainers-dashboard-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop serving the requests.
+     */
+    void stop() {
+        tracing.removeListener(state);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    String getHost() {
+        return server.getAddress().getAddress().getHostAddress();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    DashboardState getState() {
+        return state;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Method not allowed");
+            } else if ("/".equals(path)) {
+                send(exchange, 200, "text/html", page());
+            } else if (API_PATH.equals(path)) {
+                send(exchange, 200, "application/json", Json.write(getContainers()));
+            } else if (path.startsWith(API_PATH + '/')) {
+                Map<String, Object> container = getContainer(path.substring(API_PATH.length() + 1));
+                send(exchange, container == null ? 404 : 200, "application/json", Json.write(container));
+            } else {
+                send(exchange, 404, "text/plain", "Not found");
+            }
+        } catch (RuntimeException e) {
+            log.debug("Dashboard request failed", e);
+            send(exchange, 500, "text/plain", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Get the containers of the session.
+     *
+     * @return
+     */
+    Map<String, Object> getContainers() {
+        long now = nowEpochNanos();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("provisioning", state.getProvisioning(now));
+        List<Map<String, Object>> containers = new ArrayList<>();
+        try {
+            for (Container container : listContainers()) {
+                Map<String, Object> description = describe(container);
+                description.put("commands", state.getHistorySize(container.getId()));
+                containers.add(description);
+            }
+        } catch (RuntimeException e) {
+            result.put("error", format("Containers not available: %s", e.getMessage()));
+        }
+        result.put("containers", containers);
+        result.put("startups", StartupTimings.getInstance().getTimings().stream().map(timing -> {
+            Map<String, Object> startup = new LinkedHashMap<>();
+            startup.put("type", timing.getType());
+            startup.put("image", timing.getImage());
+            startup.put("durationMs", timing.getDuration().toMillis());
+            startup.put("baselineMs", timing.getBaseline() == null ? null : timing.getBaseline().toMillis());
+            return startup;
+        }).collect(Collectors.toList()));
+        return result;
+    }
+
+    /**
+     * Get the details of a container of the session.
+     *
+     * @param containerId the id or the id prefix of the container
+     * @return null if the container is not a container of the session
+     */
+    @Nullable
+    Map<String, Object> getContainer(String containerId) {
+        Optional<Container> container = listContainers().stream()
+                .filter(candidate -> candidate.getId().startsWith(containerId))
+                .findFirst();
+        if (!container.isPresent()) {
+            return null;
+        }
+        String id = container.get().getId();
+        Map<String, Object> description = describe(container.get());
+        description.put("history", state.getHistory(id, nowEpochNanos()));
+        description.put("resources", "running".equals(container.get().getState()) ? sampleResources(id) : null);
+        description.put("logs", ContainerUtils.getLogsTail(id, LOG_LINES));
+        return description;
+    }
+
+    private Map<String, Object> describe(Container container) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", container.getId());
+        description.put("name", container.getNames() == null || container.getNames().length == 0
+                ? container.getId().substring(0, 12) : container.getNames()[0].replaceFirst("^/", ""));
+        description.put("image", container.getImage());
+        description.put("state", container.getState());
+        description.put("status", container.getStatus());
+        description.put("phase", Optional.ofNullable(state.getPhase(container.getId())).orElse(container.getState()));
+        return description;
+    }
+
+    private List<Container> listContainers() {
+        return DockerClientProvider.getInstance().executeWithRetry(client -> client.listContainersCmd()
+                .withShowAll(true)
+                .withLabelFilter(Collections.singletonMap(DockerClientFactory.TESTCONTAINERS_SESSION_ID_LABEL, DockerClientFactory.SESSION_ID))
+                .exec());
+    }
+
+    /**
+     * Sample the cpu and memory use of a container, from two consecutive statistics.
+     *
+     * @param containerId
+     * @return
+     */
+    private Map<String, Object> sampleResources(String containerId) {
+        List<Statistics> samples = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        Map<String, Object> resources = new LinkedHashMap<>();
+        try (ResultCallbackTemplate<?, Statistics> callback = new ResultCallbackTemplate<ResultCallbackTemplate<?, Statistics>, Statistics>() {
+            @Override
+            public void onNext(Statistics statistics) {
+                samples.add(statistics);
+                latch.countDown();
+            }
+        }) {
+            DockerClientProvider.getInstance().execute(client -> client.statsCmd(containerId).exec(callback));
+            latch.await(SAMPLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            resources.put("error", e.getMessage());
+        }
+        if (samples.isEmpty()) {
+            return resources;
+        }
+        Statistics last = samples.get(samples.size() - 1);
+        if (last.getMemoryStats() != null) {
+            resources.put("memoryUsageBytes", last.getMemoryStats().getUsage());
+            resources.put("memoryLimitBytes", last.getMemoryStats().getLimit());
+        }
+        if (samples.size() > 1) {
+            resources.put("cpuPercent", cpuPercent(samples.get(0), last));
+        }
+        return resources;
+    }
+
+    @Nullable
+    private static Double cpuPercent(Statistics previous, Statistics current) {
+        if (previous.getCpuStats() == null || current.getCpuStats() == null
+                || previous.getCpuStats().getCpuUsage() == null || current.getCpuStats().getCpuUsage() == null
+                || previous.getCpuStats().getSystemCpuUsage() == null || current.getCpuStats().getSystemCpuUsage() == null) {
+            return null;
+        }
+        long cpuDelta = current.getCpuStats().getCpuUsage().getTotalUsage() - previous.getCpuStats().getCpuUsage().getTotalUsage();
+        long systemDelta = current.getCpuStats().getSystemCpuUsage() - previous.getCpuStats().getSystemCpuUsage();
+        if (systemDelta <= 0) {
+            return 0.0;
+        }
+        Long onlineCpus = current.getCpuStats().getOnlineCpus();
+        List<Long> perCpu = current.getCpuStats().getCpuUsage().getPercpuUsage();
+        long cpus = onlineCpus != null ? onlineCpus : perCpu != null ? perCpu.size() : 1;
+        return Math.round(10_000.0 * cpuDelta / systemDelta * cpus) / 100.0;
+    }
+
+    private static String page() {
+        try (InputStream page = Dashboard.class.getResourceAsStream("dashboard.html")) {
+            if (page == null) {
+                throw new IllegalStateException("Dashboard page not found");
+            }
+            return new String(page.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Dashboard page not readable", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(content);
+        }
+    }
+
+    private static long nowEpochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
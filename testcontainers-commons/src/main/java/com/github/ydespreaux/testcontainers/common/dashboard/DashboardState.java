@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.dashboard;
+
+import com.github.ydespreaux.testcontainers.common.tracing.SpanListener;
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Provisioning state built from the spans: the spans in progress and the history of the spans of each container.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+class DashboardState implements SpanListener {
+
+    static final String CONTAINER_ID_ATTRIBUTE = "container.id";
+
+    private static final int HISTORY_SIZE = 100;
+
+    /**
+     * Spans in progress indexed by span id.
+     */
+    private final Map<String, TraceSpan> activeSpans = new ConcurrentHashMap<>();
+    /**
+     * Ended spans indexed by container id, the most recent last.
+     */
+    private final Map<String, Deque<TraceSpan>> history = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(TraceSpan span) {
+        activeSpans.put(span.getSpanId(), span);
+    }
+
+    @Override
+    public void onEnd(TraceSpan span) {
+        activeSpans.remove(span.getSpanId());
+        String containerId = containerId(span);
+        if (containerId != null) {
+            Deque<TraceSpan> spans = history.computeIfAbsent(containerId, key -> new ArrayDeque<>());
+            synchronized (spans) {
+                spans.addLast(span);
+                if (spans.size() > HISTORY_SIZE) {
+                    spans.removeFirst();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the spans in progress that are not bound to a container (container starts, environment starts).
+     *
+     * @param nowEpochNanos
+     * @return
+     */
+    List<Map<String, Object>> getProvisioning(long nowEpochNanos) {
+        return activeSpans.values().stream()
+                .filter(span -> containerId(span) == null)
+                .sorted(Comparator.comparingLong(TraceSpan::getStartEpochNanos))
+                .map(span -> describe(span, nowEpochNanos))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the phase of a container: the most recent span in progress of the container.
+     *
+     * @param containerId
+     * @return the name of the span, null if no span is in progress
+     */
+    @Nullable
+    String getPhase(String containerId) {
+        return activeSpans.values().stream()
+                .filter(span -> containerId.equals(containerId(span)))
+                .max(Comparator.comparingLong(TraceSpan::getStartEpochNanos))
+                .map(TraceSpan::getName)
+                .orElse(null);
+    }
+
+    /**
+     * Get the history of the spans of a container, the most recent first.
+     *
+     * @param containerId
+     * @param nowEpochNanos
+     * @return
+     */
+    List<Map<String, Object>> getHistory(String containerId, long nowEpochNanos) {
+        Deque<TraceSpan> spans = history.get(containerId);
+        if (spans == null) {
+            return Collections.emptyList();
+        }
+        List<TraceSpan> copy;
+        synchronized (spans) {
+            copy = new ArrayList<>(spans);
+        }
+        Collections.reverse(copy);
+        return copy.stream().map(span -> describe(span, nowEpochNanos)).collect(Collectors.toList());
+    }
+
+    /**
+     * Get the number of ended spans of a container.
+     *
+     * @param containerId
+     * @return
+     */
+    int getHistorySize(String containerId) {
+        Deque<TraceSpan> spans = history.get(containerId);
+        if (spans == null) {
+            return 0;
+        }
+        synchronized (spans) {
+            return spans.size();
+        }
+    }
+
+    private static Map<String, Object> describe(TraceSpan span, long nowEpochNanos) {
+        long end = span.getEndEpochNanos() == 0 ? nowEpochNanos : span.getEndEpochNanos();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", span.getName());
+        description.put("durationMs", TimeUnit.NANOSECONDS.toMillis(end - span.getStartEpochNanos()));
+        description.put("inProgress", span.getEndEpochNanos() == 0);
+        description.put("attributes", span.getAttributes());
+        if (span.getError() != null) {
+            description.put("error", span.getError());
+        }
+        return description;
+    }
+
+    @Nullable
+    private static String containerId(TraceSpan span) {
+        Object containerId = span.getAttributes().get(CONTAINER_ID_ATTRIBUTE);
+        return containerId == null ? null : containerId.toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import org.testcontainers.containers.ContainerFetchException;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.LazyFuture;
+
+import java.util.concurrent.ExecutionException;
+
+import static java.lang.String.format;
+
+/**
+ * Docker image resolved through the {@link ImageCache}: the image is loaded from the cache when it is missing,
+ * pulled from the registry otherwise, and exported to the cache once pulled.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class CachedDockerImage extends LazyFuture<String> {
+
+    private final String imageName;
+
+    /**
+     * @param imageName the image name
+     */
+    public CachedDockerImage(String imageName) {
+        this.imageName = imageName;
+    }
+
+    @Override
+    protected String resolve() {
+        ImageCache cache = ImageCache.getInstance();
+        boolean loaded = cache.load(imageName);
+        String resolvedName;
+        try {
+            resolvedName = new RemoteDockerImage(imageName).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerFetchException(format("Resolution of image %s interrupted", imageName), e);
+        } catch (ExecutionException e) {
+            throw new ContainerFetchException(format("Resolution of image %s failed", imageName), e);
+        }
+        if (!loaded) {
+            cache.save(imageName);
+        }
+        return resolvedName;
+    }
+
+    @Override
+    public String toString() {
+        return imageName;
+    }
+}
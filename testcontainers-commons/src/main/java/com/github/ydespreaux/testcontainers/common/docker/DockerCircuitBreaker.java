@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of the requests sent to the docker daemon.
+ * <p>
+ * After consecutive transient failures, the circuit is opened and the requests are held during the open time instead
+ * of being sent to an overloaded daemon. The requests are then sent again: the circuit is closed by the first success
+ * and opened again by the first transient failure.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+class DockerCircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openTimeNanos;
+    private final DockerClientMetrics metrics;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long openUntil;
+
+    /**
+     * @param failureThreshold the number of consecutive transient failures opening the circuit
+     * @param openTime         the time during which the requests are held
+     * @param metrics          the metrics
+     */
+    DockerCircuitBreaker(int failureThreshold, Duration openTime, DockerClientMetrics metrics) {
+        this.failureThreshold = failureThreshold;
+        this.openTimeNanos = openTime.toNanos();
+        this.metrics = metrics;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Hold the calling thread while the circuit is open.
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    void await() throws InterruptedException {
+        boolean held = false;
+        while (true) {
+            long remaining;
+            synchronized (this) {
+                if (state != State.OPEN) {
+                    return;
+                }
+                remaining = openUntil - System.nanoTime();
+                if (remaining <= 0) {
+                    state = State.HALF_OPEN;
+                    return;
+                }
+            }
+            if (!held) {
+                held = true;
+                metrics.requestHeld();
+            }
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * Record a response of the docker daemon.
+     */
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            long openTime = System.nanoTime() - openedAt;
+            metrics.circuitClosed(openTime);
+            state = State.CLOSED;
+            log.info("Docker circuit closed after {} ms", TimeUnit.NANOSECONDS.toMillis(openTime));
+        }
+    }
+
+    /**
+     * Record a transient failure of a request.
+     */
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                openedAt = System.nanoTime();
+                metrics.circuitOpened();
+                log.warn("Docker circuit opened after {} consecutive failures, requests held for {} ms",
+                        consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(openTimeNanos));
+            }
+            state = State.OPEN;
+            openUntil = System.nanoTime() + openTimeNanos;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the docker client shared by all the containers of the library.
+ * <p>
+ * The values can be overridden with the system properties:
+ * <ul>
+ * <li>testcontainers.docker.max-connections: maximum number of concurrent docker api requests (default 16)</li>
+ * <li>testcontainers.docker.connection-request-timeout: maximum time in seconds to wait for a free connection (default 60)</li>
+ * <li>testcontainers.docker.request-timeout: maximum time in seconds to wait for the end of an exec request (default 300)</li>
+ * <li>testcontainers.docker.max-retries: maximum number of retries of an idempotent request after a transient failure (default 3)</li>
+ * <li>testcontainers.docker.retry-backoff: initial delay in milliseconds before a retry, doubled at each attempt (default 100)</li>
+ * <li>testcontainers.docker.retry-budget: maximum number of retries available at once for all the requests (default 20)</li>
+ * <li>testcontainers.docker.retry-ratio: retries earned by each request sent to the docker daemon (default 0.1)</li>
+ * <li>testcontainers.docker.circuit-failure-threshold: consecutive transient failures opening the circuit (default 5)</li>
+ * <li>testcontainers.docker.circuit-open-time: time in milliseconds during which the requests are held when the circuit is open (default 2000)</li>
+ * </ul>
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Getter
+@Builder
+@ToString
+public class DockerClientConfiguration {
+
+    public static final String MAX_CONNECTIONS_PROPERTY = "testcontainers.docker.max-connections";
+    public static final String CONNECTION_REQUEST_TIMEOUT_PROPERTY = "testcontainers.docker.connection-request-timeout";
+    public static final String REQUEST_TIMEOUT_PROPERTY = "testcontainers.docker.request-timeout";
+    public static final String MAX_RETRIES_PROPERTY = "testcontainers.docker.max-retries";
+    public static final String RETRY_BACKOFF_PROPERTY = "testcontainers.docker.retry-backoff";
+    public static final String RETRY_BUDGET_PROPERTY = "testcontainers.docker.retry-budget";
+    public static final String RETRY_RATIO_PROPERTY = "testcontainers.docker.retry-ratio";
+    public static final String CIRCUIT_FAILURE_THRESHOLD_PROPERTY = "testcontainers.docker.circuit-failure-threshold";
+    public static final String CIRCUIT_OPEN_TIME_PROPERTY = "testcontainers.docker.circuit-open-time";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 16;
+    private static final long DEFAULT_CONNECTION_REQUEST_TIMEOUT = 60;
+    private static final long DEFAULT_REQUEST_TIMEOUT = 300;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_BACKOFF = 100;
+    private static final int DEFAULT_RETRY_BUDGET = 20;
+    private static final double DEFAULT_RETRY_RATIO = 0.1;
+    private static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_CIRCUIT_OPEN_TIME = 2000;
+
+    /**
+     * Maximum number of concurrent requests sent to the docker daemon.
+     */
+    @Builder.Default
+    private final int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    /**
+     * Maximum time to wait for a free connection.
+     */
+    @Builder.Default
+    private final Duration connectionRequestTimeout = Duration.ofSeconds(DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+    /**
+     * Maximum time to wait for the completion of a request.
+     */
+    @Builder.Default
+    private final Duration requestTimeout = Duration.ofSeconds(DEFAULT_REQUEST_TIMEOUT);
+    /**
+     * Maximum number of retries of an idempotent request after a transient failure.
+     */
+    @Builder.Default
+    private final int maxRetries = DEFAULT_MAX_RETRIES;
+    /**
+     * Initial delay before a retry, doubled at each attempt.
+     */
+    @Builder.Default
+    private final Duration retryBackoff = Duration.ofMillis(DEFAULT_RETRY_BACKOFF);
+    /**
+     * Maximum number of retries available at once, shared by all the requests.
+     */
+    @Builder.Default
+    private final int retryBudget = DEFAULT_RETRY_BUDGET;
+    /**
+     * Retries earned by each request sent to the docker daemon.
+     */
+    @Builder.Default
+    private final double retryRatio = DEFAULT_RETRY_RATIO;
+    /**
+     * Number of consecutive transient failures opening the circuit.
+     */
+    @Builder.Default
+    private final int circuitFailureThreshold = DEFAULT_CIRCUIT_FAILURE_THRESHOLD;
+    /**
+     * Time during which the requests are held when the circuit is open.
+     */
+    @Builder.Default
+    private final Duration circuitOpenTime = Duration.ofMillis(DEFAULT_CIRCUIT_OPEN_TIME);
+
+    /**
+     * Create the configuration from the system properties.
+     *
+     * @return
+     */
+    public static DockerClientConfiguration fromSystemProperties() {
+        return DockerClientConfiguration.builder()
+                .maxConnections(Integer.getInteger(MAX_CONNECTIONS_PROPERTY, DEFAULT_MAX_CONNECTIONS))
+                .connectionRequestTimeout(Duration.ofSeconds(Long.getLong(CONNECTION_REQUEST_TIMEOUT_PROPERTY, DEFAULT_CONNECTION_REQUEST_TIMEOUT)))
+                .requestTimeout(Duration.ofSeconds(Long.getLong(REQUEST_TIMEOUT_PROPERTY, DEFAULT_REQUEST_TIMEOUT)))
+                .maxRetries(Integer.getInteger(MAX_RETRIES_PROPERTY, DEFAULT_MAX_RETRIES))
+                .retryBackoff(Duration.ofMillis(Long.getLong(RETRY_BACKOFF_PROPERTY, DEFAULT_RETRY_BACKOFF)))
+                .retryBudget(Integer.getInteger(RETRY_BUDGET_PROPERTY, DEFAULT_RETRY_BUDGET))
+                .retryRatio(Double.parseDouble(System.getProperty(RETRY_RATIO_PROPERTY, String.valueOf(DEFAULT_RETRY_RATIO))))
+                .circuitFailureThreshold(Integer.getInteger(CIRCUIT_FAILURE_THRESHOLD_PROPERTY, DEFAULT_CIRCUIT_FAILURE_THRESHOLD))
+                .circuitOpenTime(Duration.ofMillis(Long.getLong(CIRCUIT_OPEN_TIME_PROPERTY, DEFAULT_CIRCUIT_OPEN_TIME)))
+                .build();
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage metrics of the shared docker client: connection pool, retries and circuit breaker.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class DockerClientMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder saturatedRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder waitingNanos = new LongAdder();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger peakActiveRequests = new AtomicInteger();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhaustedRetryBudget = new LongAdder();
+    private final LongAdder circuitOpenings = new LongAdder();
+    private final LongAdder heldRequests = new LongAdder();
+    private final LongAdder openCircuitNanos = new LongAdder();
+
+    /**
+     * @param waited true if the request had to wait for a free connection
+     * @param waitingTime
+     */
+    void requestStarted(boolean waited, long waitingTime) {
+        requests.increment();
+        if (waited) {
+            saturatedRequests.increment();
+        }
+        waitingNanos.add(waitingTime);
+        peakActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+    }
+
+    void requestCompleted() {
+        activeRequests.decrementAndGet();
+    }
+
+    void requestRejected(long waitingTime) {
+        rejectedRequests.increment();
+        waitingNanos.add(waitingTime);
+    }
+
+    void requestRetried() {
+        retries.increment();
+    }
+
+    void retryBudgetExhausted() {
+        exhaustedRetryBudget.increment();
+    }
+
+    void circuitOpened() {
+        circuitOpenings.increment();
+    }
+
+    void circuitClosed(long openTime) {
+        openCircuitNanos.add(openTime);
+    }
+
+    void requestHeld() {
+        heldRequests.increment();
+    }
+
+    /**
+     * Number of requests executed.
+     *
+     * @return
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Number of requests that had to wait because the pool was saturated.
+     *
+     * @return
+     */
+    public long getSaturatedRequests() {
+        return saturatedRequests.sum();
+    }
+
+    /**
+     * Number of requests rejected because no connection was released in time.
+     *
+     * @return
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * Total time spent waiting for a free connection.
+     *
+     * @return
+     */
+    public Duration getWaitingTime() {
+        return Duration.ofNanos(waitingNanos.sum());
+    }
+
+    /**
+     * Number of requests in progress.
+     *
+     * @return
+     */
+    public int getActiveRequests() {
+        return activeRequests.get();
+    }
+
+    /**
+     * Highest number of concurrent requests observed.
+     *
+     * @return
+     */
+    public int getPeakActiveRequests() {
+        return peakActiveRequests.get();
+    }
+
+    /**
+     * Number of retries of the requests after a transient failure.
+     *
+     * @return
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Number of failed requests not retried because the retry budget was exhausted.
+     *
+     * @return
+     */
+    public long getExhaustedRetryBudget() {
+        return exhaustedRetryBudget.sum();
+    }
+
+    /**
+     * Number of times the circuit was opened.
+     *
+     * @return
+     */
+    public long getCircuitOpenings() {
+        return circuitOpenings.sum();
+    }
+
+    /**
+     * Number of requests held while the circuit was open.
+     *
+     * @return
+     */
+    public long getHeldRequests() {
+        return heldRequests.sum();
+    }
+
+    /**
+     * Total time during which the circuit was open, until it was closed again.
+     *
+     * @return
+     */
+    public Duration getOpenCircuitTime() {
+        return Duration.ofNanos(openCircuitNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "DockerClientMetrics{" +
+                "requests=" + getRequests() +
+                ", saturatedRequests=" + getSaturatedRequests() +
+                ", rejectedRequests=" + getRejectedRequests() +
+                ", waitingTime=" + getWaitingTime() +
+                ", activeRequests=" + getActiveRequests() +
+                ", peakActiveRequests=" + getPeakActiveRequests() +
+                ", retries=" + getRetries() +
+                ", exhaustedRetryBudget=" + getExhaustedRetryBudget() +
+                ", circuitOpenings=" + getCircuitOpenings() +
+                ", heldRequests=" + getHeldRequests() +
+                ", openCircuitTime=" + getOpenCircuitTime() +
+                '}';
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.DockerException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.DockerClientFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Provides the docker client used by the commands, the wait strategies and the utilities of the library.
+ * All the requests share the same client and a bounded pool of connections, so that exec-heavy flows
+ * do not overload the docker daemon.
+ * <p>
+ * Under daemon contention, the requests are held by a circuit breaker after consecutive transient failures, and the
+ * idempotent requests are retried with an exponential backoff within a retry budget shared by all the requests.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public final class DockerClientProvider {
+
+    private static final DockerClientProvider INSTANCE = new DockerClientProvider(DockerClientConfiguration.fromSystemProperties());
+
+    /**
+     * The configuration of the client.
+     */
+    @Getter
+    private final DockerClientConfiguration configuration;
+    /**
+     * The metrics of the connection pool.
+     */
+    @Getter
+    private final DockerClientMetrics metrics = new DockerClientMetrics();
+
+    private final Semaphore connections;
+
+    private final DockerCircuitBreaker circuitBreaker;
+
+    private final DockerRetryBudget retryBudget;
+
+    private volatile DockerClient client;
+
+    /**
+     * @param configuration
+     */
+    DockerClientProvider(DockerClientConfiguration configuration) {
+        this.configuration = configuration;
+        this.connections = new Semaphore(configuration.getMaxConnections(), true);
+        this.circuitBreaker = new DockerCircuitBreaker(configuration.getCircuitFailureThreshold(), configuration.getCircuitOpenTime(), metrics);
+        this.retryBudget = new DockerRetryBudget(configuration.getRetryBudget(), configuration.getRetryRatio());
+    }
+
+    /**
+     * Get the shared provider.
+     *
+     * @return
+     */
+    public static DockerClientProvider getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the shared docker client.
+     *
+     * @return
+     */
+    public DockerClient getClient() {
+        if (client == null) {
+            synchronized (this) {
+                if (client == null) {
+                    client = DockerClientFactory.instance().client();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Docker client initialized with {}", configuration);
+                    }
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Execute a request with the shared docker client.
+     *
+     * @param request the request
+     * @param <T>     the type of the result
+     * @return
+     */
+    public <T> T execute(Function<DockerClient, T> request) {
+        return execute(getClient(), request);
+    }
+
+    /**
+     * Execute a request with a specific docker client.
+     * The request waits for a free connection of the pool before being sent to the docker daemon.
+     * The connection is held until the request returns: a streaming request (exec, logs, events) must only start the
+     * stream and return its callback, awaited by the caller once the connection is released.
+     *
+     * @param dockerClient the docker client
+     * @param request      the request
+     * @param <T>          the type of the result
+     * @return
+     */
+    public <T> T execute(DockerClient dockerClient, Function<DockerClient, T> request) {
+        holdWhileCircuitOpen();
+        acquire();
+        try {
+            retryBudget.deposit();
+            T result = request.apply(dockerClient);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Execute an idempotent request with the shared docker client, retried after a transient failure.
+     *
+     * @param request the request
+     * @param <T>     the type of the result
+     * @return
+     */
+    public <T> T executeWithRetry(Function<DockerClient, T> request) {
+        return executeWithRetry(getClient(), request);
+    }
+
+    /**
+     * Execute an idempotent request with a specific docker client.
+     * After a transient failure (i/o error, timeout, server error), the request is retried with an exponential
+     * backoff while the retry budget allows it.
+     *
+     * @param dockerClient the docker client
+     * @param request      the request, which must be idempotent
+     * @param <T>          the type of the result
+     * @return
+     */
+    public <T> T executeWithRetry(DockerClient dockerClient, Function<DockerClient, T> request) {
+        int attempt = 0;
+        while (true) {
+            try {
+                return execute(dockerClient, request);
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt >= configuration.getMaxRetries()) {
+                    throw e;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    metrics.retryBudgetExhausted();
+                    throw e;
+                }
+                attempt++;
+                metrics.requestRetried();
+                long backoff = backoff(attempt);
+                if (log.isDebugEnabled()) {
+                    log.debug("Docker request failed ({}), retry {} in {} ms", e.toString(), attempt, backoff);
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a failure of a request is transient: i/o error, timeout or server error of the docker daemon.
+     *
+     * @param failure the failure
+     * @return
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DockerException) {
+                int status = ((DockerException) cause).getHttpStatus();
+                return status == 500 || status == 502 || status == 503 || status == 504;
+            }
+            if ((cause instanceof IOException && !(cause instanceof FileNotFoundException)) || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the delay before a retry: exponential backoff with a random jitter.
+     *
+     * @param attempt the retry number
+     * @return the delay in milliseconds
+     */
+    private long backoff(int attempt) {
+        long maxBackoff = configuration.getRetryBackoff().toMillis() << Math.min(attempt - 1, 10);
+        return ThreadLocalRandom.current().nextLong(maxBackoff / 2, maxBackoff + 1);
+    }
+
+    private void holdWhileCircuitOpen() {
+        try {
+            circuitBreaker.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while the docker circuit is open", e);
+        }
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        boolean waited = !connections.tryAcquire();
+        if (waited) {
+            if (log.isDebugEnabled()) {
+                log.debug("Docker connection pool saturated: {}", metrics);
+            }
+            try {
+                if (!connections.tryAcquire(configuration.getConnectionRequestTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    metrics.requestRejected(System.nanoTime() - start);
+                    throw new IllegalStateException(format("No docker connection available after %d ms (max connections: %d)",
+                            configuration.getConnectionRequestTimeout().toMillis(), configuration.getMaxConnections()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metrics.requestRejected(System.nanoTime() - start);
+                throw new IllegalStateException("Interrupted while waiting for a docker connection", e);
+            }
+        }
+        metrics.requestStarted(waited, System.nanoTime() - start);
+    }
+
+    private void release() {
+        metrics.requestCompleted();
+        connections.release();
+    }
+}
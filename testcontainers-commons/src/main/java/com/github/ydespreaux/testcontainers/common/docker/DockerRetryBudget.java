@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+/**
+ * Budget of retries shared by all the requests sent to the docker daemon.
+ * <p>
+ * Each request earns a fraction of a retry and each retry spends one, up to a maximum number of retries available
+ * at once. When the daemon fails most of the requests, the budget is exhausted and the failures are no longer
+ * amplified by the retries.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+class DockerRetryBudget {
+
+    private final double maxTokens;
+    private final double ratio;
+    private double tokens;
+
+    /**
+     * @param maxRetries the maximum number of retries available at once
+     * @param ratio      the retries earned by each request
+     */
+    DockerRetryBudget(int maxRetries, double ratio) {
+        this.maxTokens = maxRetries;
+        this.ratio = ratio;
+        this.tokens = maxRetries;
+    }
+
+    /**
+     * Record a request sent to the docker daemon.
+     */
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spend a retry.
+     *
+     * @return true if a retry was available
+     */
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
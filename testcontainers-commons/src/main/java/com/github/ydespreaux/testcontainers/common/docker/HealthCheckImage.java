@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.ydespreaux.testcontainers.common.checks.HealthCheck;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.ContainerFetchException;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.utility.LazyFuture;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+
+/**
+ * Docker image derived from a base image with a HEALTHCHECK instruction.
+ * The name of the derived image depends only on the base image and the check, so the image is built once
+ * and reused by the next runs.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class HealthCheckImage extends LazyFuture<String> {
+
+    /**
+     * Repository of the derived images.
+     */
+    public static final String REPOSITORY = "testcontainers-healthcheck";
+
+    private final Future<String> baseImage;
+    private final HealthCheck healthCheck;
+
+    /**
+     * @param baseImage   the base image
+     * @param healthCheck the health check of the derived image
+     */
+    public HealthCheckImage(Future<String> baseImage, HealthCheck healthCheck) {
+        this.baseImage = Objects.requireNonNull(baseImage, "baseImage must be provided");
+        this.healthCheck = Objects.requireNonNull(healthCheck, "healthCheck must be provided");
+    }
+
+    /**
+     * Get the dockerfile of the derived image.
+     *
+     * @param baseImageName the name of the base image
+     * @param healthCheck   the health check
+     * @return the dockerfile content
+     */
+    public static String dockerfile(String baseImageName, HealthCheck healthCheck) {
+        return "FROM " + baseImageName + "\n" + healthCheck.toInstruction() + "\n";
+    }
+
+    /**
+     * Get the name of the derived image.
+     *
+     * @param baseImageName the name of the base image
+     * @param healthCheck   the health check
+     * @return the image name
+     */
+    public static String imageName(String baseImageName, HealthCheck healthCheck) {
+        return REPOSITORY + ":" + ScriptLedger.hash(dockerfile(baseImageName, healthCheck)).substring(0, 16);
+    }
+
+    @Override
+    protected String resolve() {
+        String baseImageName;
+        try {
+            baseImageName = baseImage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerFetchException(format("Resolution of image %s interrupted", baseImage), e);
+        } catch (ExecutionException e) {
+            throw new ContainerFetchException(format("Resolution of image %s failed", baseImage), e);
+        }
+        String imageName = imageName(baseImageName, healthCheck);
+        try {
+            DockerClientProvider.getInstance().executeWithRetry(client -> client.inspectImageCmd(imageName).exec());
+            return imageName;
+        } catch (NotFoundException e) {
+            log.info("Building image {} from {} with {}", imageName, baseImageName, healthCheck);
+        }
+        try {
+            return new ImageFromDockerfile(imageName, false)
+                    .withFileFromString("Dockerfile", dockerfile(baseImageName, healthCheck))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerFetchException(format("Build of image %s interrupted", imageName), e);
+        } catch (ExecutionException e) {
+            throw new ContainerFetchException(format("Build of image %s failed", imageName), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return baseImage + " (" + healthCheck + ")";
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+/**
+ * Local cache of docker images stored as tarballs.
+ * <p>
+ * A missing image is loaded from its tarball with docker load instead of being pulled from the registry, and a pulled
+ * image is exported to the cache with docker save. The cache is configured with the system properties:
+ * <ul>
+ * <li>testcontainers.image-cache.dir: directory of the tarballs, the cache is disabled if not set
+ * (the environment variable TESTCONTAINERS_IMAGE_CACHE_DIR is used as fallback)</li>
+ * <li>testcontainers.image-cache.export: export the images missing from the cache (default true)</li>
+ * </ul>
+ * The tarball of the image confluentinc/cp-kafka:5.2.1 is named confluentinc_cp-kafka_5.2.1.tar.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public final class ImageCache {
+
+    public static final String DIRECTORY_PROPERTY = "testcontainers.image-cache.dir";
+    public static final String DIRECTORY_ENV = "TESTCONTAINERS_IMAGE_CACHE_DIR";
+    public static final String EXPORT_PROPERTY = "testcontainers.image-cache.export";
+
+    private static final ImageCache INSTANCE = fromSystemProperties();
+
+    /**
+     * Directory of the tarballs, null if the cache is disabled.
+     */
+    private final Path directory;
+    /**
+     * Export the images missing from the cache.
+     */
+    @Getter
+    private final boolean export;
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory the directory of the tarballs, null to disable the cache
+     * @param export    export the images missing from the cache
+     */
+    ImageCache(Path directory, boolean export) {
+        this.directory = directory;
+        this.export = export;
+    }
+
+    /**
+     * Get the shared cache.
+     *
+     * @return
+     */
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static ImageCache fromSystemProperties() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, System.getenv(DIRECTORY_ENV));
+        boolean export = Boolean.parseBoolean(System.getProperty(EXPORT_PROPERTY, "true"));
+        return new ImageCache(directory == null || directory.trim().isEmpty() ? null : Paths.get(directory.trim()), export);
+    }
+
+    /**
+     * @return true if a cache directory is configured
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Get the tarball of an image.
+     *
+     * @param imageName the image name
+     * @return
+     */
+    public Path getTarball(String imageName) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Image cache disabled");
+        }
+        return directory.resolve(imageName.replaceAll("[/:@]", "_") + ".tar");
+    }
+
+    /**
+     * Load an image from its tarball if it is missing from the docker daemon.
+     *
+     * @param imageName the image name
+     * @return true if the image has been loaded from the cache
+     */
+    public boolean load(String imageName) {
+        if (!isEnabled()) {
+            return false;
+        }
+        synchronized (lock(imageName)) {
+            Path tarball = getTarball(imageName);
+            if (!Files.isRegularFile(tarball) || isPresent(imageName)) {
+                return false;
+            }
+            long start = System.currentTimeMillis();
+            DockerClientProvider.getInstance().execute(client -> {
+                try (InputStream inputStream = Files.newInputStream(tarball)) {
+                    return client.loadImageCmd(inputStream).exec();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(format("Cannot read the image tarball %s", tarball), e);
+                }
+            });
+            if (log.isInfoEnabled()) {
+                log.info("Image {} loaded from {} in {} ms", imageName, tarball, System.currentTimeMillis() - start);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Export an image to its tarball if it is missing from the cache.
+     * A failure of the export is logged and does not fail the caller.
+     *
+     * @param imageName the image name
+     * @return true if the image has been exported
+     */
+    public boolean save(String imageName) {
+        if (!isEnabled() || !export) {
+            return false;
+        }
+        synchronized (lock(imageName)) {
+            Path tarball = getTarball(imageName);
+            if (Files.exists(tarball)) {
+                return false;
+            }
+            Path temporary = null;
+            try {
+                Files.createDirectories(directory);
+                temporary = Files.createTempFile(directory, ".image-", ".tmp");
+                Path target = temporary;
+                DockerClientProvider.getInstance().execute(client -> {
+                    try (InputStream inputStream = client.saveImageCmd(getRepository(imageName)).withTag(getTag(imageName)).exec()) {
+                        return Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                Files.move(temporary, tarball, StandardCopyOption.ATOMIC_MOVE);
+                if (log.isInfoEnabled()) {
+                    log.info("Image {} exported to {}", imageName, tarball);
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Export of image {} to {} failed", imageName, tarball, e);
+                deleteQuietly(temporary);
+                return false;
+            }
+        }
+    }
+
+    private boolean isPresent(String imageName) {
+        try {
+            DockerClientProvider.getInstance().executeWithRetry(client -> client.inspectImageCmd(imageName).exec());
+            return true;
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
+    private Object lock(String imageName) {
+        return locks.computeIfAbsent(imageName, key -> new Object());
+    }
+
+    /**
+     * @param imageName
+     * @return the repository of the image, without tag
+     */
+    static String getRepository(String imageName) {
+        int index = imageName.lastIndexOf(':');
+        return index > imageName.lastIndexOf('/') ? imageName.substring(0, index) : imageName;
+    }
+
+    /**
+     * @param imageName
+     * @return the tag of the image, latest if not defined
+     */
+    static String getTag(String imageName) {
+        int index = imageName.lastIndexOf(':');
+        return index > imageName.lastIndexOf('/') ? imageName.substring(index + 1) : "latest";
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete the temporary file {}", path);
+        }
+    }
+}
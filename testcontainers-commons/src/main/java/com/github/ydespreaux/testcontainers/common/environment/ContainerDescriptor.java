@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.environment;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+import java.util.*;
+
+import static java.lang.String.format;
+
+/**
+ * Description of a container of an environment.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Getter
+@ToString
+public class ContainerDescriptor {
+
+    /**
+     * Name of the container in the environment.
+     */
+    private final String name;
+    /**
+     * Type of the container (mysql, cassandra, elasticsearch, kafka, kafka-connect...).
+     */
+    private final String type;
+    /**
+     * Version of the image, the default version of the container when not defined.
+     */
+    @Nullable
+    private final String version;
+    /**
+     * Names of the containers that must be started before this container.
+     */
+    private final List<String> dependsOn;
+    /**
+     * Register the spring boot properties of the container.
+     */
+    private final boolean registerSpringbootProperties;
+    /**
+     * Specific properties of the container type.
+     */
+    private final Map<String, Object> properties;
+
+    /**
+     * @param name
+     * @param type
+     * @param version
+     * @param dependsOn
+     * @param registerSpringbootProperties
+     * @param properties
+     */
+    public ContainerDescriptor(String name, String type, @Nullable String version, List<String> dependsOn,
+                               boolean registerSpringbootProperties, Map<String, Object> properties) {
+        this.name = Objects.requireNonNull(name, "name must be provided");
+        this.type = Objects.requireNonNull(type, "type must be provided");
+        this.version = version;
+        this.dependsOn = Collections.unmodifiableList(new ArrayList<>(dependsOn));
+        this.registerSpringbootProperties = registerSpringbootProperties;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+    }
+
+    /**
+     * Get a string property.
+     *
+     * @param key
+     * @return
+     */
+    @Nullable
+    public String getString(String key) {
+        Object value = properties.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Get a boolean property.
+     *
+     * @param key
+     * @param defaultValue
+     * @return
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = properties.get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.toString());
+    }
+
+    /**
+     * Get an integer property.
+     *
+     * @param key
+     * @param defaultValue
+     * @return
+     */
+    public int getInteger(String key, int defaultValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(format("Property %s of container %s must be an integer", key, name), e);
+        }
+    }
+
+    /**
+     * Get a property defined by a single value or a list of values.
+     *
+     * @param key
+     * @return
+     */
+    public List<String> getStringList(String key) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof Collection) {
+            List<String> values = new ArrayList<>();
+            ((Collection<?>) value).forEach(item -> values.add(String.valueOf(item)));
+            return values;
+        }
+        return Collections.singletonList(value.toString());
+    }
+
+    /**
+     * Get a property defined by a list of objects.
+     *
+     * @param key
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getObjectList(String key) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (!(value instanceof Collection)) {
+            throw new IllegalArgumentException(format("Property %s of container %s must be a list", key, name));
+        }
+        List<Map<String, Object>> values = new ArrayList<>();
+        for (Object item : (Collection<?>) value) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException(format("Property %s of container %s must be a list of objects", key, name));
+            }
+            values.add((Map<String, Object>) item);
+        }
+        return values;
+    }
+}
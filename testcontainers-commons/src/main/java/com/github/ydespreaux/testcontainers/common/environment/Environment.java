@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.environment;
+
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.network.NetworkRegistry;
+import com.github.ydespreaux.testcontainers.common.spring.ContainerGroup;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.Network;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Containers of an environment.
+ * <p>
+ * The containers are started level by level: the containers of a level only depend on the containers
+ * of the previous levels and are started concurrently.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class Environment implements Startable, ContainerGroup {
+
+    /**
+     * The descriptor of the environment.
+     */
+    @Getter
+    private final EnvironmentDescriptor descriptor;
+    /**
+     * Containers indexed by name.
+     */
+    private final Map<String, Startable> containers = new LinkedHashMap<>();
+    /**
+     * Names of the containers started.
+     */
+    private final Set<String> startedContainers = ConcurrentHashMap.newKeySet();
+
+    private Network network;
+
+    /**
+     * @param descriptor
+     */
+    Environment(EnvironmentDescriptor descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    void addContainer(String name, Startable container) {
+        this.containers.put(name, container);
+    }
+
+    /**
+     * Get the network shared by the containers of the environment.
+     * The network is acquired from the {@link NetworkRegistry} with the name of the environment.
+     *
+     * @return
+     */
+    public synchronized Network getNetwork() {
+        if (network == null) {
+            network = NetworkRegistry.getInstance().acquire(descriptor.getName());
+        }
+        return network;
+    }
+
+    /**
+     * Get the containers indexed by name.
+     *
+     * @return
+     */
+    public Map<String, Startable> getContainers() {
+        return Collections.unmodifiableMap(containers);
+    }
+
+    @Override
+    public Collection<?> getMembers() {
+        return containers.values();
+    }
+
+    /**
+     * Get a container.
+     *
+     * @param name the name of the container
+     * @param type the type of the container
+     * @param <T>
+     * @return
+     */
+    public <T extends Startable> T getContainer(String name, Class<T> type) {
+        Startable container = containers.get(name);
+        if (container == null) {
+            throw new IllegalArgumentException(format("Unknown container %s in environment %s", name, descriptor.getName()));
+        }
+        return type.cast(container);
+    }
+
+    /**
+     * Start all the containers.
+     */
+    @Override
+    public void start() {
+        Tracing.getInstance().trace("start environment " + descriptor.getName(), this::startLevels);
+    }
+
+    private void startLevels() {
+        List<List<ContainerDescriptor>> levels = descriptor.getStartLevels();
+        int parallelism = levels.stream().mapToInt(List::size).max().orElse(1);
+        ExecutorService executor = ProvisioningExecutors.newExecutor("testcontainers-environment-" + descriptor.getName(), parallelism);
+        try {
+            for (List<ContainerDescriptor> level : levels) {
+                startLevel(level, executor);
+            }
+        } catch (RuntimeException e) {
+            stop();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void startLevel(List<ContainerDescriptor> level, ExecutorService executor) {
+        if (log.isInfoEnabled()) {
+            log.info("Environment {}: start of containers {}", descriptor.getName(),
+                    level.stream().map(ContainerDescriptor::getName).collect(Collectors.toList()));
+        }
+        List<Future<?>> futures = level.stream()
+                .map(container -> executor.submit(Tracing.getInstance().wrap(() -> {
+                    containers.get(container.getName()).start();
+                    startedContainers.add(container.getName());
+                })))
+                .collect(Collectors.toList());
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new IllegalStateException(format("Start of environment %s failed", descriptor.getName()), e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(format("Start of environment %s interrupted", descriptor.getName()), e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stop the started containers in reverse dependency order: the containers of a level are stopped concurrently,
+     * after the containers of the next levels. The containers are removed asynchronously and the network is released
+     * once all the containers are removed.
+     */
+    @Override
+    public void stop() {
+        List<List<ContainerDescriptor>> levels = new ArrayList<>(descriptor.getStartLevels());
+        Collections.reverse(levels);
+        TeardownCoordinator teardown = new TeardownCoordinator();
+        for (List<ContainerDescriptor> level : levels) {
+            teardown.withStage(level.stream()
+                    .map(ContainerDescriptor::getName)
+                    .filter(startedContainers::remove)
+                    .map(containers::get)
+                    .collect(Collectors.toList()));
+        }
+        CompletableFuture<Void> removal = teardown.teardown();
+        synchronized (this) {
+            if (network != null) {
+                removal.whenComplete((removed, failure) -> NetworkRegistry.getInstance().release(descriptor.getName()));
+                network = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.environment;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Description of an environment: the containers, their init scripts and their dependencies.
+ * <p>
+ * The descriptor is a YAML or JSON document:
+ * <pre>
+ * name: my-environment
+ * containers:
+ *   mysql:
+ *     type: mysql
+ *     version: 5.7.22
+ *     properties:
+ *       sqlScriptDirectory: mysql/schema
+ *   kafka:
+ *     type: kafka
+ *     version: 5.1.2
+ *     dependsOn: [mysql]
+ *     properties:
+ *       topics:
+ *         - name: topic-1
+ *           partitions: 3
+ * </pre>
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Getter
+public class EnvironmentDescriptor {
+
+    private static final String NAME_KEY = "name";
+    private static final String CONTAINERS_KEY = "containers";
+    private static final String TYPE_KEY = "type";
+    private static final String VERSION_KEY = "version";
+    private static final String DEPENDS_ON_KEY = "dependsOn";
+    private static final String REGISTER_SPRINGBOOT_PROPERTIES_KEY = "registerSpringbootProperties";
+    private static final String PROPERTIES_KEY = "properties";
+
+    /**
+     * Name of the environment.
+     */
+    private final String name;
+    /**
+     * Containers indexed by name, in declaration order.
+     */
+    private final Map<String, ContainerDescriptor> containers;
+
+    /**
+     * @param name
+     * @param containers
+     */
+    public EnvironmentDescriptor(String name, List<ContainerDescriptor> containers) {
+        this.name = Objects.requireNonNull(name, "name must be provided");
+        Map<String, ContainerDescriptor> indexed = new LinkedHashMap<>();
+        containers.forEach(container -> {
+            if (indexed.put(container.getName(), container) != null) {
+                throw new IllegalArgumentException(format("Container %s is defined twice in environment %s", container.getName(), name));
+            }
+        });
+        this.containers = Collections.unmodifiableMap(indexed);
+        validateDependencies();
+    }
+
+    /**
+     * Load a descriptor from the classpath.
+     *
+     * @param resource the classpath resource
+     * @return
+     */
+    public static EnvironmentDescriptor fromClasspath(String resource) {
+        InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IllegalArgumentException(format("Resource with path %s could not be found", resource));
+        }
+        try (InputStream input = inputStream) {
+            return parse(input, resource);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(format("Error reading descriptor %s", resource), e);
+        }
+    }
+
+    /**
+     * Parse a YAML or JSON descriptor.
+     *
+     * @param inputStream  the document
+     * @param defaultName the name of the environment when not defined by the document
+     * @return
+     */
+    public static EnvironmentDescriptor parse(InputStream inputStream, String defaultName) {
+        Object document = new Yaml(new SafeConstructor()).load(inputStream);
+        Map<String, Object> root = asMap(document, "environment");
+        Map<String, Object> containers = asMap(root.get(CONTAINERS_KEY), CONTAINERS_KEY);
+        List<ContainerDescriptor> descriptors = new ArrayList<>();
+        containers.forEach((containerName, value) -> descriptors.add(parseContainer(containerName, asMap(value, containerName))));
+        Object name = root.get(NAME_KEY);
+        return new EnvironmentDescriptor(name == null ? defaultName : name.toString(), descriptors);
+    }
+
+    private static ContainerDescriptor parseContainer(String name, Map<String, Object> container) {
+        Object type = container.get(TYPE_KEY);
+        if (type == null) {
+            throw new IllegalArgumentException(format("Container %s must define a type", name));
+        }
+        Object version = container.get(VERSION_KEY);
+        Object dependsOn = container.get(DEPENDS_ON_KEY);
+        List<String> dependencies = new ArrayList<>();
+        if (dependsOn instanceof Collection) {
+            ((Collection<?>) dependsOn).forEach(dependency -> dependencies.add(String.valueOf(dependency)));
+        } else if (dependsOn != null) {
+            dependencies.add(dependsOn.toString());
+        }
+        Object register = container.get(REGISTER_SPRINGBOOT_PROPERTIES_KEY);
+        Object properties = container.get(PROPERTIES_KEY);
+        return new ContainerDescriptor(name, type.toString(),
+                version == null ? null : version.toString(),
+                dependencies,
+                register == null || Boolean.parseBoolean(register.toString()),
+                properties == null ? Collections.emptyMap() : asMap(properties, name + "." + PROPERTIES_KEY));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(@Nullable Object value, String path) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(format("Element %s of the environment descriptor must be an object", path));
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        ((Map<Object, Object>) value).forEach((key, item) -> map.put(String.valueOf(key), item));
+        return map;
+    }
+
+    /**
+     * Plan the start of the containers.
+     * The containers of a level only depend on the containers of the previous levels and can be started concurrently.
+     *
+     * @return the containers grouped by start level
+     */
+    public List<List<ContainerDescriptor>> getStartLevels() {
+        List<List<ContainerDescriptor>> levels = new ArrayList<>();
+        Set<String> planned = new HashSet<>();
+        List<ContainerDescriptor> remaining = new ArrayList<>(containers.values());
+        while (!remaining.isEmpty()) {
+            List<ContainerDescriptor> level = remaining.stream()
+                    .filter(container -> planned.containsAll(container.getDependsOn()))
+                    .collect(Collectors.toList());
+            if (level.isEmpty()) {
+                throw new IllegalArgumentException(format("Cyclic dependencies between the containers %s of environment %s",
+                        remaining.stream().map(ContainerDescriptor::getName).collect(Collectors.toList()), name));
+            }
+            level.forEach(container -> planned.add(container.getName()));
+            remaining.removeAll(level);
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    private void validateDependencies() {
+        containers.values().forEach(container -> container.getDependsOn().forEach(dependency -> {
+            if (!containers.containsKey(dependency)) {
+                throw new IllegalArgumentException(format("Container %s depends on the unknown container %s", container.getName(), dependency));
+            }
+        }));
+        getStartLevels();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.environment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Turn an environment descriptor into configured containers.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public final class EnvironmentLoader {
+
+    private EnvironmentLoader() {
+        // Nothing to do
+    }
+
+    /**
+     * Load the environment described by a classpath resource.
+     *
+     * @param resource the YAML or JSON descriptor
+     * @return
+     */
+    public static Environment load(String resource) {
+        return load(EnvironmentDescriptor.fromClasspath(resource));
+    }
+
+    /**
+     * Create the containers of an environment.
+     *
+     * @param descriptor the descriptor of the environment
+     * @return
+     */
+    public static Environment load(EnvironmentDescriptor descriptor) {
+        Map<String, ContainerFactory> factories = loadFactories();
+        Environment environment = new Environment(descriptor);
+        descriptor.getContainers().values().forEach(container -> {
+            ContainerFactory factory = factories.get(container.getType());
+            if (factory == null) {
+                throw new IllegalArgumentException(format("Unknown type %s for container %s, available types: %s",
+                        container.getType(), container.getName(), new TreeSet<>(factories.keySet())));
+            }
+            environment.addContainer(container.getName(), factory.create(container, environment));
+        });
+        return environment;
+    }
+
+    private static Map<String, ContainerFactory> loadFactories() {
+        Map<String, ContainerFactory> factories = new HashMap<>();
+        ServiceLoader.load(ContainerFactory.class, Thread.currentThread().getContextClassLoader())
+                .forEach(factory -> factories.put(factory.getType(), factory));
+        return factories;
+    }
+}
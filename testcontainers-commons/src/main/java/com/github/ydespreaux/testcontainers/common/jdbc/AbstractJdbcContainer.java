@@ -21,9 +21,11 @@
 package com.github.ydespreaux.testcontainers.common.jdbc;
 
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.checks.ContainerStateMonitor;
 import lombok.Getter;
 import org.testcontainers.containers.JdbcDatabaseContainer;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.Future;
@@ -124,6 +126,35 @@ public abstract class AbstractJdbcContainer<S extends AbstractJdbcContainer<S>>
         return this.self();
     }
 
+    /**
+     * Wait for the database, the startup is aborted as soon as the container stops.
+     */
+    @Override
+    protected void waitUntilContainerStarted() {
+        ContainerStateMonitor.runMonitored(getContainerId(), getClass().getSimpleName(), super::waitUntilContainerStarted);
+    }
+
+    /**
+     * Create a fixture engine executing sql scripts from the host on the database of this container.
+     *
+     * @return the fixture engine
+     * @since 1.2.3
+     */
+    public JdbcFixtureEngine createFixtureEngine() {
+        return new JdbcFixtureEngine(() -> createConnection(""));
+    }
+
+    /**
+     * Execute groups of sql scripts from the host, the groups are executed concurrently.
+     *
+     * @param groups the independent groups of scripts
+     * @return the number of executed statements
+     * @since 1.2.3
+     */
+    public int executeSqlScripts(List<SqlScriptGroup> groups) {
+        return createFixtureEngine().execute(groups);
+    }
+
     @Override
     public S withDatabaseName(String databaseName) {
         this.databaseName = databaseName;
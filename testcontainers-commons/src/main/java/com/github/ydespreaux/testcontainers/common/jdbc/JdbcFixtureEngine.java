@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.jdbc;
+
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Engine executing sql scripts from the host through JDBC.
+ * <p>
+ * The scripts are split into statements by {@link SqlScriptParser}, the updates are sent in batches, the queries and
+ * the USE statements one by one. The groups of scripts are independent and executed concurrently, each on its own
+ * connection; the scripts of a group are executed in order. The first failure of a group aborts the other groups: they
+ * roll back their current script and stop before their next statement.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+@Getter
+public class JdbcFixtureEngine {
+
+    /**
+     * Statements executed one by one: the queries, and the statements changing the session such as USE, which must
+     * not be part of a batch rewritten by the driver.
+     */
+    private static final Pattern UNBATCHED = Pattern.compile("^(SELECT|SHOW|CALL|WITH|DESCRIBE|DESC|EXPLAIN|USE)\\b.*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final JdbcConnectionFactory connectionFactory;
+    /**
+     * Maximum number of statements sent in a batch.
+     */
+    private int batchSize = 100;
+    /**
+     * Maximum number of groups executed concurrently.
+     */
+    private int parallelism = 4;
+    /**
+     * Transactional grouping of the statements.
+     */
+    private TransactionMode transactionMode = TransactionMode.SCRIPT;
+
+    /**
+     * @param connectionFactory the factory of connections
+     */
+    public JdbcFixtureEngine(JdbcConnectionFactory connectionFactory) {
+        this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
+    }
+
+    /**
+     * Set the maximum number of statements sent in a batch.
+     *
+     * @param batchSize the size of the batches
+     * @return this engine
+     */
+    public JdbcFixtureEngine withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of groups executed concurrently.
+     *
+     * @param parallelism the number of connections used at the same time
+     * @return this engine
+     */
+    public JdbcFixtureEngine withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Set the transactional grouping of the statements.
+     *
+     * @param transactionMode the transaction mode
+     * @return this engine
+     */
+    public JdbcFixtureEngine withTransactionMode(TransactionMode transactionMode) {
+        this.transactionMode = Objects.requireNonNull(transactionMode, "transactionMode");
+        return this;
+    }
+
+    /**
+     * Execute the groups of scripts, the first failure aborts the execution.
+     * The failure is thrown without waiting for the other groups, which stop before their next statement.
+     *
+     * @param groups the independent groups of scripts
+     * @return the number of executed statements
+     */
+    public int execute(List<SqlScriptGroup> groups) {
+        if (groups.isEmpty()) {
+            return 0;
+        }
+        if (groups.size() == 1 || parallelism == 1) {
+            int count = 0;
+            for (SqlScriptGroup group : groups) {
+                count += executeGroup(group, () -> false);
+            }
+            return count;
+        }
+        ExecutorService executor = ProvisioningExecutors.newExecutor("testcontainers-jdbc-fixtures", Math.min(parallelism, groups.size()));
+        try {
+            CompletableFuture<Void> failure = new CompletableFuture<>();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(groups.size());
+            for (SqlScriptGroup group : groups) {
+                futures.add(CompletableFuture.supplyAsync(Tracing.getInstance().wrap(() -> executeGroup(group, failure::isDone)), executor)
+                        .whenComplete((count, e) -> {
+                            if (e != null) {
+                                failure.completeExceptionally(e);
+                            }
+                        }));
+            }
+            CompletableFuture.anyOf(failure, CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))).join();
+            return futures.stream().mapToInt(CompletableFuture::join).sum();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            // The aborted groups are not interrupted, they roll back their transaction and close their connection
+            executor.shutdown();
+        }
+    }
+
+    private int executeGroup(SqlScriptGroup group, BooleanSupplier aborted) {
+        checkAborted(aborted, group.getName());
+        log.debug("Execute the sql scripts of the group {}", group.getName());
+        try (Connection connection = connectionFactory.getConnection()) {
+            int count = 0;
+            for (Path script : group.getScripts()) {
+                count += executeScript(connection, script, aborted);
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new IllegalStateException(format("Cannot open a connection for the group %s", group.getName()), e);
+        }
+    }
+
+    private int executeScript(Connection connection, Path script, BooleanSupplier aborted) throws SQLException {
+        List<String> statements = SqlScriptParser.parse(script);
+        try (TraceSpan span = Tracing.getInstance().startSpan("sql script " + script.getFileName())
+                .withAttribute("statements", statements.size())) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(transactionMode == TransactionMode.NONE);
+            try (Statement statement = connection.createStatement()) {
+                List<String> batch = new ArrayList<>(batchSize);
+                for (String sql : statements) {
+                    checkAborted(aborted, script);
+                    if (UNBATCHED.matcher(sql).matches()) {
+                        flush(connection, statement, batch);
+                        executeUnbatched(statement, sql);
+                    } else {
+                        statement.addBatch(sql);
+                        batch.add(sql);
+                        if (batch.size() == batchSize) {
+                            flush(connection, statement, batch);
+                        }
+                    }
+                }
+                checkAborted(aborted, script);
+                flush(connection, statement, batch);
+                if (transactionMode == TransactionMode.SCRIPT) {
+                    connection.commit();
+                }
+                log.debug("{} statements executed from the sql script {}", statements.size(), script);
+                return statements.size();
+            } catch (CancellationException e) {
+                rollback(connection);
+                throw e;
+            } catch (StatementException e) {
+                span.withError(e.getCause());
+                rollback(connection);
+                throw new IllegalStateException(format("Failed to execute the sql script %s, statement: %s", script, abbreviate(e.sql)), e.getCause());
+            } catch (SQLException e) {
+                span.withError(e);
+                rollback(connection);
+                throw new IllegalStateException(format("Failed to execute the sql script %s", script), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static void checkAborted(BooleanSupplier aborted, Object source) {
+        if (aborted.getAsBoolean()) {
+            throw new CancellationException(format("Execution of %s aborted by the failure of another group", source));
+        }
+    }
+
+    private void executeUnbatched(Statement statement, String sql) throws StatementException {
+        try {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new StatementException(sql, e);
+        }
+    }
+
+    private void flush(Connection connection, Statement statement, List<String> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            statement.executeBatch();
+        } catch (BatchUpdateException e) {
+            throw new StatementException(batch.get(failedIndex(e, batch.size())), e);
+        } catch (SQLException e) {
+            throw new StatementException(batch.get(0), e);
+        } finally {
+            statement.clearBatch();
+        }
+        batch.clear();
+        if (transactionMode == TransactionMode.BATCH) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Locate the failing statement: the drivers stopping at the first error report the counts of the executed
+     * statements, the others mark the failing statements.
+     */
+    private static int failedIndex(BatchUpdateException e, int size) {
+        int[] counts = e.getUpdateCounts();
+        if (counts == null) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return Math.min(counts.length, size - 1);
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot rollback the transaction", e);
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        String line = sql.replaceAll("\\s+", " ");
+        return line.length() > 200 ? line.substring(0, 200) + "..." : line;
+    }
+
+    /**
+     * Failure of a statement, carrying the statement for the error message.
+     */
+    private static final class StatementException extends SQLException {
+
+        private final transient String sql;
+
+        StatementException(String sql, SQLException cause) {
+            super(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+            this.sql = sql;
+        }
+    }
+}
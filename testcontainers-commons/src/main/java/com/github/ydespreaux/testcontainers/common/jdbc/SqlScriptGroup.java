@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.jdbc;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Group of scripts executed in order on the same connection.
+ * The groups must be independent, they are executed concurrently by the fixture engine.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Value
+public class SqlScriptGroup {
+
+    /**
+     * Name of the group.
+     */
+    private final String name;
+    /**
+     * Scripts of the group.
+     */
+    private final List<Path> scripts;
+
+    /**
+     * Create a group of scripts.
+     *
+     * @param name    the name of the group
+     * @param scripts the scripts executed in order
+     * @return the group
+     */
+    public static SqlScriptGroup of(String name, Path... scripts) {
+        return new SqlScriptGroup(name, Arrays.asList(scripts));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.jdbc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Parser splitting a sql script into statements.
+ * <p>
+ * The statements are separated by the delimiter ';', changed by the directive 'DELIMITER' of the mysql client
+ * to define procedures and triggers. The delimiters in quoted strings and identifiers are ignored. The comments are
+ * removed, except the executable comments of MySQL '/*! ... *&#47;'.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public final class SqlScriptParser {
+
+    private static final String DEFAULT_DELIMITER = ";";
+    private static final String DELIMITER_DIRECTIVE = "DELIMITER ";
+
+    private SqlScriptParser() {
+        // Nothing to do
+    }
+
+    /**
+     * Parse a sql script file encoded in UTF-8.
+     *
+     * @param script the script file
+     * @return the statements
+     */
+    public static List<String> parse(Path script) {
+        try {
+            return parse(new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(format("Cannot read the sql script %s", script), e);
+        }
+    }
+
+    /**
+     * Parse a sql script.
+     *
+     * @param script the script
+     * @return the statements
+     */
+    public static List<String> parse(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        String delimiter = DEFAULT_DELIMITER;
+        int length = script.length();
+        int index = 0;
+        while (index < length) {
+            char c = script.charAt(index);
+            if (isBlank(statement) && script.regionMatches(true, index, DELIMITER_DIRECTIVE, 0, DELIMITER_DIRECTIVE.length())) {
+                int end = endOfLine(script, index);
+                delimiter = script.substring(index + DELIMITER_DIRECTIVE.length(), end).trim();
+                if (delimiter.isEmpty()) {
+                    throw new IllegalArgumentException("The DELIMITER directive requires a delimiter");
+                }
+                statement.setLength(0);
+                index = end;
+            } else if (script.startsWith(delimiter, index)) {
+                addStatement(statements, statement);
+                index += delimiter.length();
+            } else if (c == '#' || script.startsWith("--", index)) {
+                index = endOfLine(script, index);
+            } else if (script.startsWith("/*!", index)) {
+                int end = endOfComment(script, index);
+                statement.append(script, index, end);
+                index = end;
+            } else if (script.startsWith("/*", index)) {
+                index = endOfComment(script, index);
+                statement.append(' ');
+            } else if (c == '\'' || c == '"' || c == '`') {
+                int end = endOfQuote(script, index);
+                statement.append(script, index, end);
+                index = end;
+            } else {
+                statement.append(c);
+                index++;
+            }
+        }
+        addStatement(statements, statement);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder statement) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        statement.setLength(0);
+    }
+
+    private static boolean isBlank(StringBuilder statement) {
+        for (int i = 0; i < statement.length(); i++) {
+            if (!Character.isWhitespace(statement.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int endOfLine(String script, int index) {
+        int end = script.indexOf('\n', index);
+        return end == -1 ? script.length() : end;
+    }
+
+    private static int endOfComment(String script, int index) {
+        int end = script.indexOf("*/", index + 2);
+        if (end == -1) {
+            throw new IllegalArgumentException(format("Unterminated comment at offset %d", index));
+        }
+        return end + 2;
+    }
+
+    private static int endOfQuote(String script, int index) {
+        char quote = script.charAt(index);
+        int i = index + 1;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        throw new IllegalArgumentException(format("Unterminated quoted string at offset %d", index));
+    }
+}
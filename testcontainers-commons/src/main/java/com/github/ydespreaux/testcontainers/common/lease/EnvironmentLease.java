@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lease;
+
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.Objects;
+
+/**
+ * Environment shared by the test JVMs of a build, leased from the {@link LeaseBroker}.
+ * <p>
+ * The environment is started by the broker on the first lease; the spring boot properties of its containers
+ * are registered in each JVM that leases it.
+ * <pre>
+ * &#64;Container
+ * public static final EnvironmentLease environment = new EnvironmentLease("environment.yml");
+ * </pre>
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class EnvironmentLease implements Startable {
+
+    /**
+     * Descriptor of the environment.
+     */
+    @Getter
+    private final String resource;
+    /**
+     * Mode of the lease.
+     */
+    @Getter
+    private LeaseMode mode = LeaseMode.SHARED;
+
+    @Nullable
+    private LeaseClient client;
+    @Nullable
+    private Lease lease;
+
+    /**
+     * @param resource the YAML or JSON descriptor of the environment
+     */
+    public EnvironmentLease(String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Set the mode of the lease.
+     *
+     * @param mode
+     * @return
+     */
+    public EnvironmentLease withMode(LeaseMode mode) {
+        this.mode = Objects.requireNonNull(mode, "mode must be provided");
+        return this;
+    }
+
+    /**
+     * Acquire the lease.
+     */
+    @Override
+    public synchronized void start() {
+        if (lease != null) {
+            return;
+        }
+        LeaseClient leaseClient = LeaseClient.connect();
+        try {
+            this.lease = leaseClient.acquire(resource, mode);
+        } catch (RuntimeException e) {
+            leaseClient.close();
+            throw e;
+        }
+        this.client = leaseClient;
+        this.lease.getProperties().forEach((name, value) -> SpringbootProperties.register(this, name, value));
+    }
+
+    /**
+     * Release the lease.
+     */
+    @Override
+    public synchronized void stop() {
+        if (lease == null || client == null) {
+            return;
+        }
+        try {
+            client.release(lease);
+        } finally {
+            client.close();
+            this.client = null;
+            this.lease = null;
+        }
+    }
+
+    /**
+     * Get a spring boot property published by the containers of the environment.
+     *
+     * @param name the name of the property
+     * @return
+     */
+    @Nullable
+    public String getProperty(String name) {
+        if (lease == null) {
+            throw new IllegalStateException("Environment must be leased");
+        }
+        return lease.getProperties().get(name);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lease;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Lease of a shared environment granted by the {@link LeaseBroker}.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Value
+public class Lease {
+
+    /**
+     * Identifier of the lease.
+     */
+    private final String id;
+    /**
+     * Descriptor of the environment.
+     */
+    private final String resource;
+    /**
+     * Mode of the lease.
+     */
+    private final LeaseMode mode;
+    /**
+     * Spring boot properties published by the containers of the environment.
+     */
+    private final Map<String, String> properties;
+}
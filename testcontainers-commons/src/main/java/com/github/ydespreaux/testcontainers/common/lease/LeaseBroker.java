@@ -0,0 +1,487 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lease;
+
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import com.github.ydespreaux.testcontainers.common.environment.EnvironmentLoader;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.testcontainers.lifecycle.Startable;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Broker of the environments shared by the test JVMs of a build.
+ * <p>
+ * The first JVM that needs a lease hosts the broker: it holds the lock file of the broker directory and accepts
+ * the connections of the other JVMs on a loopback port, published in the port file of the directory. The broker starts
+ * an environment on the first lease, grants shared or exclusive leases on it, and stops it when it has not been leased
+ * for the idle timeout. When the hosting JVM exits, it waits for the release of the leases of the other JVMs, within
+ * the exit timeout of the fork: surefire kills a fork {@code forkedProcessExitTimeoutInSeconds} seconds (30 by default)
+ * after the end of its tests, so the wait is capped a few seconds below this timeout.
+ * <p>
+ * Protocol (one request per line, the arguments are url encoded):
+ * <pre>
+ * ACQUIRE &lt;mode&gt; &lt;resource&gt;  -&gt;  GRANTED &lt;id&gt;, PROPERTY &lt;name&gt; &lt;value&gt;..., END  |  ERROR &lt;message&gt;
+ * RELEASE &lt;id&gt;                   -&gt;  RELEASED
+ * </pre>
+ * The leases of a connection are released when the connection is closed.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class LeaseBroker implements Closeable {
+
+    public static final String DIRECTORY_PROPERTY = "testcontainers.lease.dir";
+    public static final String IDLE_TIMEOUT_PROPERTY = "testcontainers.lease.idle-timeout";
+    public static final String SHUTDOWN_TIMEOUT_PROPERTY = "testcontainers.lease.shutdown-timeout";
+    /**
+     * Exit timeout of the fork, to set to the surefire parameter {@code forkedProcessExitTimeoutInSeconds}.
+     */
+    public static final String FORK_EXIT_TIMEOUT_PROPERTY = "testcontainers.lease.fork-exit-timeout";
+
+    private static final long DEFAULT_IDLE_TIMEOUT = 60;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 600;
+    private static final long SUREFIRE_FORK_EXIT_TIMEOUT = 30;
+    private static final long FORK_EXIT_MARGIN = 5;
+    private static final String SUREFIRE_CLASSPATH_PROPERTY = "surefire.real.class.path";
+
+    static final String PORT_FILE = "broker.port";
+    static final String LOCK_FILE = "broker.lock";
+
+    static final String ACQUIRE = "ACQUIRE";
+    static final String RELEASE = "RELEASE";
+    static final String GRANTED = "GRANTED";
+    static final String PROPERTY = "PROPERTY";
+    static final String END = "END";
+    static final String RELEASED = "RELEASED";
+    static final String ERROR = "ERROR";
+
+    /**
+     * Port of the broker hosted by this JVM.
+     */
+    @Nullable
+    private static Integer hostedPort;
+    /**
+     * Lock of the broker directory, held while this JVM hosts the broker.
+     */
+    @Nullable
+    private static FileLock hostLock;
+
+    private final Function<String, ? extends Startable> factory;
+    private final Duration idleTimeout;
+    private final Map<String, SharedEnvironment> environments = new ConcurrentHashMap<>();
+    private final ExecutorService connections = Executors.newCachedThreadPool(daemon("testcontainers-lease-broker"));
+    private final ScheduledExecutorService evictions = Executors.newSingleThreadScheduledExecutor(daemon("testcontainers-lease-eviction"));
+    private final Object leaseMonitor = new Object();
+    private int activeLeases;
+    @Nullable
+    private ServerSocket serverSocket;
+
+    /**
+     * @param factory     the factory of the environments, from their resource
+     * @param idleTimeout the delay before stopping an environment that is no longer leased
+     */
+    LeaseBroker(Function<String, ? extends Startable> factory, Duration idleTimeout) {
+        this.factory = factory;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Get the directory of the broker, shared by the JVMs of the same working directory.
+     *
+     * @return
+     */
+    public static Path getDefaultDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            return Paths.get(directory);
+        }
+        String workingDirectory = ScriptLedger.hash(System.getProperty("user.dir")).substring(0, 12);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "testcontainers-lease-" + workingDirectory);
+    }
+
+    /**
+     * Host the broker of a directory in this JVM if no other JVM hosts it.
+     *
+     * @param directory the directory of the broker
+     * @return the port of the broker, null if the broker is hosted by another JVM
+     */
+    @Nullable
+    static synchronized Integer host(Path directory) {
+        if (hostedPort != null) {
+            return hostedPort;
+        }
+        try {
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            LeaseBroker broker = new LeaseBroker(EnvironmentLoader::load,
+                    Duration.ofSeconds(Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT)));
+            int port = broker.bind();
+            Path portFile = directory.resolve(PORT_FILE);
+            Path tempFile = Files.createTempFile(directory, PORT_FILE, ".tmp");
+            Files.write(tempFile, String.valueOf(port).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, portFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Duration shutdownTimeout = getShutdownTimeout();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> broker.shutdown(portFile, shutdownTimeout),
+                    "testcontainers-lease-broker-shutdown"));
+            if (log.isInfoEnabled()) {
+                log.info("Lease broker started on port {} ({})", port, directory);
+            }
+            hostLock = lock;
+            hostedPort = port;
+            return port;
+        } catch (IOException e) {
+            throw new IllegalStateException(format("Unable to start the lease broker in %s", directory), e);
+        }
+    }
+
+    /**
+     * Get the time the hosting JVM waits for the leases of the other JVMs when it exits.
+     * The wait ends before the fork is killed by surefire, the environments are always stopped by this JVM.
+     *
+     * @return
+     */
+    static Duration getShutdownTimeout() {
+        long timeout = Long.getLong(SHUTDOWN_TIMEOUT_PROPERTY, DEFAULT_SHUTDOWN_TIMEOUT);
+        Long forkExitTimeout = Long.getLong(FORK_EXIT_TIMEOUT_PROPERTY,
+                System.getProperty(SUREFIRE_CLASSPATH_PROPERTY) != null ? SUREFIRE_FORK_EXIT_TIMEOUT : null);
+        if (forkExitTimeout != null && timeout > forkExitTimeout - FORK_EXIT_MARGIN) {
+            long capped = Math.max(0, forkExitTimeout - FORK_EXIT_MARGIN);
+            if (System.getProperty(SHUTDOWN_TIMEOUT_PROPERTY) != null && log.isWarnEnabled()) {
+                log.warn("The shutdown timeout of the lease broker ({} s) is capped to {} s by the exit timeout of the fork ({} s): " +
+                                "set the surefire parameter forkedProcessExitTimeoutInSeconds and the system property {}",
+                        timeout, capped, forkExitTimeout, FORK_EXIT_TIMEOUT_PROPERTY);
+            }
+            timeout = capped;
+        }
+        return Duration.ofSeconds(timeout);
+    }
+
+    /**
+     * Accept the connections on a loopback port.
+     *
+     * @return the port
+     * @throws IOException
+     */
+    int bind() throws IOException {
+        ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.serverSocket = socket;
+        connections.execute(() -> accept(socket));
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Wait for the release of all the leases.
+     *
+     * @param timeout the maximum time to wait
+     * @return false if leases are still active when the timeout expires
+     * @throws InterruptedException
+     */
+    boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (leaseMonitor) {
+            while (activeLeases > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(leaseMonitor, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stop the broker and all its environments.
+     */
+    @Override
+    public void close() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+        evictions.shutdownNow();
+        environments.values().forEach(this::stopEnvironment);
+        connections.shutdownNow();
+    }
+
+    private void shutdown(Path portFile, Duration timeout) {
+        try {
+            if (!awaitIdle(timeout) && log.isWarnEnabled()) {
+                log.warn("Leases still active after {} seconds, the shared environments are stopped", timeout.getSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Files.deleteIfExists(portFile);
+        } catch (IOException e) {
+            // Nothing to do
+        }
+        close();
+    }
+
+    private void accept(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try {
+                Socket connection = socket.accept();
+                connections.execute(() -> serve(connection));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Lease broker connection failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        Map<String, Held> leases = new HashMap<>();
+        try (Socket socket = connection;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] request = line.split(" ");
+                try {
+                    if (ACQUIRE.equals(request[0]) && request.length == 3) {
+                        LeaseMode mode = LeaseMode.valueOf(request[1]);
+                        SharedEnvironment shared = environments.computeIfAbsent(decode(request[2]), SharedEnvironment::new);
+                        Map<String, String> properties = acquire(shared, mode);
+                        String id = UUID.randomUUID().toString();
+                        leases.put(id, new Held(shared, mode));
+                        writer.println(GRANTED + ' ' + id);
+                        properties.forEach((name, value) -> writer.println(PROPERTY + ' ' + encode(name) + ' ' + encode(value)));
+                        writer.println(END);
+                    } else if (RELEASE.equals(request[0]) && request.length == 2) {
+                        Held held = leases.remove(request[1]);
+                        if (held != null) {
+                            release(held.environment, held.mode);
+                        }
+                        writer.println(RELEASED);
+                    } else {
+                        throw new IllegalArgumentException(format("Invalid request: %s", line));
+                    }
+                } catch (RuntimeException e) {
+                    writer.println(ERROR + ' ' + encode(String.valueOf(e.getMessage())));
+                }
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Lease broker connection closed", e);
+        } finally {
+            leases.values().forEach(held -> release(held.environment, held.mode));
+        }
+    }
+
+    private Map<String, String> acquire(SharedEnvironment shared, LeaseMode mode) {
+        leaseStarted();
+        boolean granted = false;
+        try {
+            synchronized (shared) {
+                if (mode == LeaseMode.EXCLUSIVE) {
+                    shared.waitingExclusive++;
+                    try {
+                        while (shared.exclusiveLease || shared.sharedLeases > 0) {
+                            shared.wait();
+                        }
+                    } finally {
+                        shared.waitingExclusive--;
+                        shared.notifyAll();
+                    }
+                    shared.exclusiveLease = true;
+                } else {
+                    while (shared.exclusiveLease || shared.waitingExclusive > 0) {
+                        shared.wait();
+                    }
+                    shared.sharedLeases++;
+                }
+                granted = true;
+                if (shared.eviction != null) {
+                    shared.eviction.cancel(false);
+                    shared.eviction = null;
+                }
+                if (shared.environment == null) {
+                    if (log.isInfoEnabled()) {
+                        log.info("Start the shared environment {}", shared.resource);
+                    }
+                    Startable environment = factory.apply(shared.resource);
+                    environment.start();
+                    Map<String, String> properties = new LinkedHashMap<>();
+                    SpringbootProperties.getProperties(environment).forEach((name, value) -> properties.put(name, String.valueOf(value)));
+                    shared.environment = environment;
+                    shared.properties = properties;
+                }
+                return shared.properties;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leaseEnded();
+            throw new IllegalStateException(format("Interrupted while waiting for the lease of %s", shared.resource), e);
+        } catch (RuntimeException e) {
+            if (granted) {
+                release(shared, mode);
+            } else {
+                leaseEnded();
+            }
+            throw e;
+        }
+    }
+
+    private void release(SharedEnvironment shared, LeaseMode mode) {
+        synchronized (shared) {
+            if (mode == LeaseMode.EXCLUSIVE) {
+                shared.exclusiveLease = false;
+            } else {
+                shared.sharedLeases--;
+            }
+            shared.notifyAll();
+            if (!shared.exclusiveLease && shared.sharedLeases == 0 && shared.environment != null && !evictions.isShutdown()) {
+                if (shared.eviction != null) {
+                    shared.eviction.cancel(false);
+                }
+                shared.eviction = evictions.schedule(() -> evict(shared), idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        leaseEnded();
+    }
+
+    private void evict(SharedEnvironment shared) {
+        synchronized (shared) {
+            if (shared.exclusiveLease || shared.sharedLeases > 0) {
+                return;
+            }
+            if (shared.environment != null && log.isInfoEnabled()) {
+                log.info("Stop the shared environment {}, idle for {} seconds", shared.resource, idleTimeout.getSeconds());
+            }
+            stopEnvironment(shared);
+        }
+    }
+
+    private void stopEnvironment(SharedEnvironment shared) {
+        synchronized (shared) {
+            Startable environment = shared.environment;
+            shared.environment = null;
+            shared.eviction = null;
+            if (environment != null) {
+                try {
+                    environment.stop();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to stop the shared environment {}", shared.resource, e);
+                }
+            }
+        }
+    }
+
+    private void leaseStarted() {
+        synchronized (leaseMonitor) {
+            activeLeases++;
+        }
+    }
+
+    private void leaseEnded() {
+        synchronized (leaseMonitor) {
+            activeLeases--;
+            leaseMonitor.notifyAll();
+        }
+    }
+
+    static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * State of an environment shared by the leases.
+     */
+    private static class SharedEnvironment {
+        private final String resource;
+        @Nullable
+        private Startable environment;
+        private Map<String, String> properties = Collections.emptyMap();
+        private int sharedLeases;
+        private boolean exclusiveLease;
+        private int waitingExclusive;
+        @Nullable
+        private ScheduledFuture<?> eviction;
+
+        SharedEnvironment(String resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Lease held by a connection.
+     */
+    private static class Held {
+        private final SharedEnvironment environment;
+        private final LeaseMode mode;
+
+        Held(SharedEnvironment environment, LeaseMode mode) {
+            this.environment = environment;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lease;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.github.ydespreaux.testcontainers.common.lease.LeaseBroker.*;
+import static java.lang.String.format;
+
+/**
+ * Connection to the {@link LeaseBroker}.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class LeaseClient implements Closeable {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final PrintWriter writer;
+
+    /**
+     * @param port the port of the broker
+     * @throws IOException
+     */
+    LeaseClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Connect to the broker of the default directory.
+     *
+     * @return
+     */
+    public static LeaseClient connect() {
+        return connect(LeaseBroker.getDefaultDirectory());
+    }
+
+    /**
+     * Connect to the broker of a directory, the broker is hosted by this JVM if no other JVM hosts it.
+     *
+     * @param directory the directory of the broker
+     * @return
+     */
+    public static LeaseClient connect(Path directory) {
+        long deadline = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+        while (true) {
+            Integer port = readPort(directory.resolve(PORT_FILE));
+            if (port != null) {
+                try {
+                    return new LeaseClient(port);
+                } catch (IOException e) {
+                    log.debug("Lease broker not available on port {}", port, e);
+                }
+            }
+            Integer hostedPort = LeaseBroker.host(directory);
+            if (hostedPort != null) {
+                try {
+                    return new LeaseClient(hostedPort);
+                } catch (IOException e) {
+                    throw new IllegalStateException(format("Unable to connect to the lease broker on port %d", hostedPort), e);
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(format("No lease broker available in %s", directory));
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while connecting to the lease broker", e);
+            }
+        }
+    }
+
+    /**
+     * Acquire a lease on an environment, waiting for the release of the conflicting leases.
+     *
+     * @param resource the descriptor of the environment
+     * @param mode     the mode of the lease
+     * @return
+     */
+    public synchronized Lease acquire(String resource, LeaseMode mode) {
+        String response = request(ACQUIRE + ' ' + mode.name() + ' ' + encode(resource));
+        if (!response.startsWith(GRANTED + ' ')) {
+            throw new IllegalStateException(format("Lease of %s refused: %s", resource, error(response)));
+        }
+        String id = response.substring(GRANTED.length() + 1);
+        Map<String, String> properties = new LinkedHashMap<>();
+        String line;
+        while (!END.equals(line = readLine())) {
+            String[] property = line.split(" ");
+            if (property.length != 3 || !PROPERTY.equals(property[0])) {
+                throw new IllegalStateException(format("Invalid response of the lease broker: %s", line));
+            }
+            properties.put(decode(property[1]), decode(property[2]));
+        }
+        return new Lease(id, resource, mode, Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Release a lease.
+     *
+     * @param lease the lease
+     */
+    public synchronized void release(Lease lease) {
+        String response = request(RELEASE + ' ' + lease.getId());
+        if (!RELEASED.equals(response)) {
+            throw new IllegalStateException(format("Release of %s failed: %s", lease.getResource(), error(response)));
+        }
+    }
+
+    /**
+     * Close the connection, the leases not released are released by the broker.
+     */
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+
+    private String request(String request) {
+        writer.println(request);
+        writer.flush();
+        return readLine();
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IllegalStateException("Connection to the lease broker closed");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new IllegalStateException("Connection to the lease broker failed", e);
+        }
+    }
+
+    private static String error(String response) {
+        return response.startsWith(ERROR + ' ') ? decode(response.substring(ERROR.length() + 1)) : response;
+    }
+
+    @Nullable
+    private static Integer readPort(Path portFile) {
+        try {
+            return Integer.valueOf(new String(Files.readAllBytes(portFile), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lifecycle;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Bind;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reuse of a running container across JVM runs.
+ * <p>
+ * A reusable container is labeled with the fingerprint of its configuration and is not removed when it is stopped.
+ * On start, a running container with the same fingerprint is searched and reattached instead of creating a new container,
+ * its ports and urls being derived from the reattached container.
+ * <p>
+ * The reuse is enabled with the system property testcontainers.reuse.enable or per container. The resource reaper
+ * of testcontainers removes the containers of the session when the JVM exits: it must be disabled with the
+ * environment variable TESTCONTAINERS_RYUK_DISABLED=true for the containers to survive the JVM.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class ContainerReuse {
+
+    public static final String REUSE_PROPERTY = "testcontainers.reuse.enable";
+    public static final String FINGERPRINT_LABEL = "com.github.ydespreaux.testcontainers.fingerprint";
+
+    private static final String RYUK_DISABLED_ENV = "TESTCONTAINERS_RYUK_DISABLED";
+    private static final AtomicBoolean RYUK_WARNING = new AtomicBoolean();
+
+    private final GenericContainer<?> container;
+    /**
+     * Environment variables ignored by the fingerprint, such as generated passwords.
+     */
+    private final Set<String> ignoredEnv = new HashSet<>();
+    /**
+     * Enable the reuse.
+     */
+    @Getter
+    private boolean enabled = Boolean.getBoolean(REUSE_PROPERTY);
+    /**
+     * Description of the reattached container, null if the container has been created.
+     */
+    @Nullable
+    @Getter
+    private InspectContainerResponse reattachedContainerInfo;
+
+    /**
+     * @param container   the container
+     * @param ignoredEnv  the environment variables ignored by the fingerprint
+     */
+    public ContainerReuse(GenericContainer<?> container, String... ignoredEnv) {
+        this.container = container;
+        this.ignoredEnv.addAll(Arrays.asList(ignoredEnv));
+    }
+
+    /**
+     * Enable or disable the reuse.
+     *
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Find a running container with the same configuration.
+     * <p>
+     * The configuration of the container is applied to compute the fingerprint, then restored so that it can be applied
+     * again by the startup. If no container is found, the container is labeled with the fingerprint.
+     *
+     * @param configure        the configuration of the container
+     * @param fingerprintParts additional parts of the fingerprint, such as the hash of the files copied in the container
+     * @return the id of the running container, null if no container is found
+     */
+    @Nullable
+    public String find(Runnable configure, String... fingerprintParts) {
+        this.reattachedContainerInfo = null;
+        if (!enabled) {
+            return null;
+        }
+        warnIfReaperEnabled();
+        String fingerprint = fingerprint(configure, fingerprintParts);
+        List<com.github.dockerjava.api.model.Container> containers = DockerClientProvider.getInstance().executeWithRetry(client ->
+                client.listContainersCmd()
+                        .withLabelFilter(Collections.singletonMap(FINGERPRINT_LABEL, fingerprint))
+                        .exec());
+        container.withLabel(FINGERPRINT_LABEL, fingerprint);
+        if (containers.isEmpty()) {
+            if (log.isInfoEnabled()) {
+                log.info("No running container with fingerprint {}, a new container is created", fingerprint);
+            }
+            return null;
+        }
+        String containerId = containers.get(0).getId();
+        this.reattachedContainerInfo = DockerClientProvider.getInstance().executeWithRetry(client -> client.inspectContainerCmd(containerId).exec());
+        if (log.isInfoEnabled()) {
+            log.info("Container {} reattached (fingerprint {})", containerId, fingerprint);
+        }
+        return containerId;
+    }
+
+    /**
+     * Check if a container is reused: it is labeled with a fingerprint and must not be stopped.
+     *
+     * @param container the container
+     * @return
+     */
+    public static boolean isReused(GenericContainer<?> container) {
+        return container.getLabels().containsKey(FINGERPRINT_LABEL);
+    }
+
+    /**
+     * Get the value of an environment variable of the reattached container.
+     *
+     * @param name the name of the variable
+     * @return the value, null if the container has not been reattached or if the variable is not defined
+     */
+    @Nullable
+    public String getReattachedEnv(String name) {
+        if (reattachedContainerInfo == null || reattachedContainerInfo.getConfig().getEnv() == null) {
+            return null;
+        }
+        String prefix = name + '=';
+        return Arrays.stream(reattachedContainerInfo.getConfig().getEnv())
+                .filter(variable -> variable.startsWith(prefix))
+                .map(variable -> variable.substring(prefix.length()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String fingerprint(Runnable configure, String... fingerprintParts) {
+        Map<String, String> env = new LinkedHashMap<>(container.getEnvMap());
+        List<Integer> exposedPorts = new ArrayList<>(container.getExposedPorts());
+        List<String> portBindings = new ArrayList<>(container.getPortBindings());
+        List<Bind> binds = new ArrayList<>(container.getBinds());
+        List<Consumer<OutputFrame>> logConsumers = new ArrayList<>(container.getLogConsumers());
+        Map<String, String> labels = new LinkedHashMap<>(container.getLabels());
+        String[] commandParts = container.getCommandParts();
+        Set<Consumer<CreateContainerCmd>> modifiers = new LinkedHashSet<>(container.getCreateContainerCmdModifiers());
+        try {
+            configure.run();
+            StringBuilder configuration = new StringBuilder(container.getClass().getName())
+                    .append('|').append(container.getDockerImageName())
+                    .append('|').append(new TreeMap<>(container.getEnvMap()).entrySet().stream()
+                            .filter(entry -> !ignoredEnv.contains(entry.getKey()))
+                            .map(Object::toString)
+                            .collect(Collectors.joining(",")))
+                    .append('|').append(String.join(" ", container.getCommandParts()))
+                    .append('|').append(new TreeSet<>(container.getExposedPorts()))
+                    .append('|').append(new TreeSet<>(container.getPortBindings()))
+                    .append('|').append(container.getBinds().stream().map(Bind::toString).sorted().collect(Collectors.joining(",")));
+            for (String part : fingerprintParts) {
+                configuration.append('|').append(part);
+            }
+            return ScriptLedger.hash(configuration.toString());
+        } finally {
+            container.getEnvMap().clear();
+            container.getEnvMap().putAll(env);
+            container.setExposedPorts(exposedPorts);
+            container.setPortBindings(portBindings);
+            container.setBinds(binds);
+            container.setLogConsumers(logConsumers);
+            container.setLabels(labels);
+            container.setCommandParts(commandParts);
+            container.getCreateContainerCmdModifiers().clear();
+            container.getCreateContainerCmdModifiers().addAll(modifiers);
+        }
+    }
+
+    private static void warnIfReaperEnabled() {
+        if (!Boolean.parseBoolean(System.getenv(RYUK_DISABLED_ENV)) && RYUK_WARNING.compareAndSet(false, true)) {
+            log.warn("Container reuse is enabled but the resource reaper is active: the containers will be removed when the JVM exits. "
+                    + "Set the environment variable {}=true to keep them running.", RYUK_DISABLED_ENV);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lifecycle;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.exception.NotModifiedException;
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.lifecycle.Startable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Stop a set of containers in reverse dependency order.
+ * <p>
+ * The containers are grouped in stages: the stages are stopped one after the other and the containers
+ * of a stage are stopped concurrently. Once stopped, the containers are removed concurrently, asynchronously by default
+ * so that the caller does not wait for the docker daemon. The removal threads are daemon threads: a removal still
+ * in progress when the JVM exits is completed by the resource reaper of testcontainers.
+ * <p>
+ * A container removed asynchronously must not be started again before the end of its removal: the containers call
+ * {@link #awaitRemoval(Startable)} when they are started.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class TeardownCoordinator {
+
+    /**
+     * Default time given to a container to stop gracefully before being killed.
+     */
+    public static final Duration DEFAULT_STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final ExecutorService TEARDOWN_EXECUTOR = ProvisioningExecutors.newExecutor("testcontainers-teardown");
+
+    /**
+     * Removals in progress, by container.
+     */
+    private static final Map<Startable, CompletableFuture<Void>> PENDING_REMOVALS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Containers to stop, grouped by stage in stop order.
+     */
+    private final List<List<Startable>> stages = new ArrayList<>();
+    /**
+     * Kill the containers instead of stopping them gracefully.
+     */
+    private boolean kill;
+    /**
+     * Remove the containers without waiting for the end of the removal.
+     */
+    private boolean asyncRemoval = true;
+    /**
+     * Time given to a container to stop gracefully.
+     */
+    private Duration stopTimeout = DEFAULT_STOP_TIMEOUT;
+
+    /**
+     * Add a stage of containers stopped concurrently, after the containers of the previous stages.
+     * The null containers are ignored.
+     *
+     * @param containers
+     * @return
+     */
+    public TeardownCoordinator withStage(Startable... containers) {
+        return withStage(Arrays.asList(containers));
+    }
+
+    /**
+     * Add a stage of containers stopped concurrently, after the containers of the previous stages.
+     * The null containers are ignored.
+     *
+     * @param containers
+     * @return
+     */
+    public TeardownCoordinator withStage(Collection<? extends Startable> containers) {
+        List<Startable> stage = containers.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (!stage.isEmpty()) {
+            this.stages.add(stage);
+        }
+        return this;
+    }
+
+    /**
+     * Kill the containers instead of stopping them gracefully.
+     * The stop order is not relevant for killed containers: all the containers are killed at once.
+     *
+     * @param kill
+     * @return
+     */
+    public TeardownCoordinator withKill(boolean kill) {
+        this.kill = kill;
+        return this;
+    }
+
+    /**
+     * Remove the containers without waiting for the end of the removal.
+     *
+     * @param asyncRemoval
+     * @return
+     */
+    public TeardownCoordinator withAsyncRemoval(boolean asyncRemoval) {
+        this.asyncRemoval = asyncRemoval;
+        return this;
+    }
+
+    /**
+     * Set the time given to a container to stop gracefully before being killed.
+     *
+     * @param stopTimeout
+     * @return
+     */
+    public TeardownCoordinator withStopTimeout(Duration stopTimeout) {
+        if (stopTimeout.isNegative()) {
+            throw new IllegalArgumentException("stopTimeout must not be negative");
+        }
+        this.stopTimeout = stopTimeout;
+        return this;
+    }
+
+    /**
+     * Stop and remove the containers.
+     * The failures are logged and do not interrupt the teardown of the other containers.
+     *
+     * @return a future completed when all the containers are removed
+     */
+    public CompletableFuture<Void> teardown() {
+        long start = System.currentTimeMillis();
+        if (!kill) {
+            stages.forEach(stage -> runConcurrently(stage, this::stopGracefully).join());
+        }
+        List<Startable> containers = stages.stream().flatMap(List::stream).collect(Collectors.toList());
+        CompletableFuture<Void> removal = CompletableFuture.allOf(containers.stream()
+                .map(container -> {
+                    CompletableFuture<Void> containerRemoval = runConcurrently(Collections.singletonList(container), this::remove);
+                    PENDING_REMOVALS.put(container, containerRemoval);
+                    containerRemoval.whenComplete((result, failure) -> PENDING_REMOVALS.remove(container, containerRemoval));
+                    return containerRemoval;
+                })
+                .toArray(CompletableFuture[]::new));
+        if (log.isDebugEnabled()) {
+            removal.thenRun(() -> log.debug("{} containers removed in {} ms", containers.size(), System.currentTimeMillis() - start));
+        }
+        if (!asyncRemoval) {
+            removal.join();
+        }
+        return removal;
+    }
+
+    /**
+     * Wait for the end of the removal of a container, if a teardown is removing it.
+     * The container keeps the id of the removed docker container until its removal is completed, so it must not be
+     * started before.
+     *
+     * @param container
+     */
+    public static void awaitRemoval(Startable container) {
+        CompletableFuture<Void> removal = PENDING_REMOVALS.get(container);
+        if (removal != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Wait for the removal of container {}", describe(container));
+            }
+            removal.join();
+        }
+    }
+
+    private static CompletableFuture<Void> runConcurrently(List<Startable> containers, Consumer<Startable> action) {
+        return CompletableFuture.allOf(containers.stream()
+                .map(container -> CompletableFuture.runAsync(() -> {
+                    try {
+                        action.accept(container);
+                    } catch (RuntimeException e) {
+                        log.warn("Teardown of container {} failed", describe(container), e);
+                    }
+                }, TEARDOWN_EXECUTOR))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Stop a container with a grace period. A composite container is stopped by its own {@link Startable#stop()},
+     * a reused container is left running.
+     *
+     * @param container
+     */
+    private void stopGracefully(Startable container) {
+        if (!(container instanceof GenericContainer)) {
+            container.stop();
+            return;
+        }
+        String containerId = ((GenericContainer<?>) container).getContainerId();
+        if (containerId == null || ContainerReuse.isReused((GenericContainer<?>) container)) {
+            return;
+        }
+        try {
+            DockerClientProvider.getInstance().executeWithRetry(client -> client.stopContainerCmd(containerId)
+                    .withTimeout((int) stopTimeout.getSeconds())
+                    .exec());
+        } catch (NotModifiedException | NotFoundException e) {
+            // Already stopped or removed
+        }
+    }
+
+    /**
+     * Remove a container, killing it if it is still running.
+     *
+     * @param container
+     */
+    private void remove(Startable container) {
+        if (container instanceof GenericContainer || kill) {
+            container.stop();
+        }
+    }
+
+    private static String describe(Startable container) {
+        return container instanceof GenericContainer
+                ? ((GenericContainer<?>) container).getDockerImageName()
+                : container.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.network;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.Network;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * Registry of the docker networks shared by the containers.
+ * <p>
+ * A network is identified by a name and counts its references: it is created by the first call
+ * to {@link #acquire(String)} and removed when the last reference is released.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public final class NetworkRegistry {
+
+    /**
+     * Name of the default shared network.
+     */
+    public static final String DEFAULT_NETWORK = "testcontainers";
+
+    private static final NetworkRegistry INSTANCE = new NetworkRegistry();
+
+    private final Map<String, SharedNetwork> networks = new HashMap<>();
+
+    private NetworkRegistry() {
+        // Nothing to do
+    }
+
+    /**
+     * Get the shared registry.
+     *
+     * @return
+     */
+    public static NetworkRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Acquire a reference on the default network.
+     *
+     * @return
+     */
+    public Network acquire() {
+        return acquire(DEFAULT_NETWORK);
+    }
+
+    /**
+     * Acquire a reference on a network, the network is created if needed.
+     *
+     * @param name the name of the network
+     * @return
+     */
+    public synchronized Network acquire(String name) {
+        Objects.requireNonNull(name, "name must be provided");
+        SharedNetwork shared = networks.computeIfAbsent(name, key -> new SharedNetwork(Network.newNetwork()));
+        shared.references++;
+        if (log.isDebugEnabled()) {
+            log.debug("Network {} acquired ({} references)", name, shared.references);
+        }
+        return shared.network;
+    }
+
+    /**
+     * Release a reference on a network, the network is removed with the last reference.
+     *
+     * @param name the name of the network
+     */
+    public synchronized void release(String name) {
+        SharedNetwork shared = networks.get(name);
+        if (shared == null) {
+            throw new IllegalStateException(format("Network %s is not registered", name));
+        }
+        shared.references--;
+        if (log.isDebugEnabled()) {
+            log.debug("Network {} released ({} references)", name, shared.references);
+        }
+        if (shared.references == 0) {
+            networks.remove(name);
+            try {
+                shared.network.close();
+            } catch (Exception e) {
+                log.warn("Cannot remove the network {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of references on a network.
+     *
+     * @param name the name of the network
+     * @return
+     */
+    public synchronized int getReferences(String name) {
+        SharedNetwork shared = networks.get(name);
+        return shared == null ? 0 : shared.references;
+    }
+
+    private static class SharedNetwork {
+
+        private final Network network;
+        private int references;
+
+        private SharedNetwork(Network network) {
+            this.network = network;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.proxy;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+
+/**
+ * TCP proxy between the test JVM and a port of a container, shaping the traffic.
+ * <p>
+ * The proxy listens on a loopback port and forwards each connection to the target. The shaping is applied to each
+ * direction of each connection and can be changed while the proxy is running:
+ * <ul>
+ * <li>latency and jitter: each chunk of data is delayed by the latency plus a random jitter, the order of the data is kept</li>
+ * <li>bandwidth: maximum number of bytes per second</li>
+ * <li>cutoff: the open connections are closed and the new connections are refused</li>
+ * </ul>
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class NetworkProxy implements Closeable {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    /**
+     * Bounds of the bytes buffered in each direction: the reader blocks when the buffer is full, so that the TCP flow
+     * control is propagated to the sender. The buffer holds the bandwidth-delay product of the direction.
+     */
+    private static final long MIN_BUFFER_SIZE = 1024 * 1024;
+    private static final long MAX_BUFFER_SIZE = 64 * 1024 * 1024;
+    /**
+     * Bandwidth used to size the buffer when the bandwidth is unlimited.
+     */
+    private static final long UNLIMITED_BANDWIDTH = 100 * 1024 * 1024;
+    private static final AtomicInteger PROXY_COUNTER = new AtomicInteger();
+
+    /**
+     * Host of the target.
+     */
+    @Getter
+    private final String targetHost;
+    /**
+     * Port of the target.
+     */
+    @Getter
+    private final int targetPort;
+    /**
+     * Latency added to each direction.
+     */
+    @Getter
+    private volatile Duration latency = Duration.ZERO;
+    /**
+     * Maximum random delay added to the latency.
+     */
+    @Getter
+    private volatile Duration jitter = Duration.ZERO;
+    /**
+     * Maximum number of bytes per second of each direction, 0 if unlimited.
+     */
+    @Getter
+    private volatile long bandwidth;
+    /**
+     * Refuse the new connections.
+     */
+    @Getter
+    private volatile boolean cutOff;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    @Nullable
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * @param targetHost the host of the target
+     * @param targetPort the port of the target
+     */
+    public NetworkProxy(String targetHost, int targetPort) {
+        this.targetHost = Objects.requireNonNull(targetHost, "targetHost must be provided");
+        this.targetPort = targetPort;
+        String threadName = "testcontainers-proxy-" + PROXY_COUNTER.incrementAndGet();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start listening on a loopback port.
+     *
+     * @return
+     */
+    public synchronized NetworkProxy start() {
+        if (serverChannel != null) {
+            return this;
+        }
+        try {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            this.serverChannel = channel;
+            executor.execute(() -> accept(channel));
+        } catch (IOException e) {
+            throw new IllegalStateException(format("Unable to start the proxy of %s:%d", targetHost, targetPort), e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Proxy {} started for {}:{}", getAddress(), targetHost, targetPort);
+        }
+        return this;
+    }
+
+    /**
+     * Get the host of the proxy.
+     *
+     * @return
+     */
+    public String getHost() {
+        return InetAddress.getLoopbackAddress().getHostAddress();
+    }
+
+    /**
+     * Get the port of the proxy.
+     *
+     * @return
+     */
+    public int getPort() {
+        ServerSocketChannel channel = this.serverChannel;
+        if (channel == null) {
+            throw new IllegalStateException("Proxy must be started");
+        }
+        return channel.socket().getLocalPort();
+    }
+
+    /**
+     * Get the address of the proxy (host:port).
+     *
+     * @return
+     */
+    public String getAddress() {
+        return getHost() + ':' + getPort();
+    }
+
+    /**
+     * Replace the address of the target in an url (such as the url of a container) by the address of the proxy.
+     *
+     * @param url the url of the target
+     * @return
+     */
+    public String getProxiedUrl(String url) {
+        String target = targetHost + ':' + targetPort;
+        if (!url.contains(target)) {
+            throw new IllegalArgumentException(format("Url %s does not contain the address %s of the proxy target", url, target));
+        }
+        return url.replace(target, getAddress());
+    }
+
+    /**
+     * Set the latency added to each direction.
+     *
+     * @param latency
+     * @return
+     */
+    public NetworkProxy withLatency(Duration latency) {
+        this.latency = requirePositive(latency, "latency");
+        return this;
+    }
+
+    /**
+     * Set the maximum random delay added to the latency.
+     *
+     * @param jitter
+     * @return
+     */
+    public NetworkProxy withJitter(Duration jitter) {
+        this.jitter = requirePositive(jitter, "jitter");
+        return this;
+    }
+
+    /**
+     * Set the maximum number of bytes per second of each direction.
+     *
+     * @param bytesPerSecond the bandwidth, 0 if unlimited
+     * @return
+     */
+    public NetworkProxy withBandwidth(long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("bandwidth must be positive");
+        }
+        this.bandwidth = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Cut the open connections and refuse the new connections, or accept the connections again.
+     *
+     * @param cutOff
+     * @return
+     */
+    public NetworkProxy withCutOff(boolean cutOff) {
+        this.cutOff = cutOff;
+        if (cutOff) {
+            cutConnections();
+        }
+        return this;
+    }
+
+    /**
+     * Close the open connections, the new connections are accepted.
+     */
+    public void cutConnections() {
+        connections.forEach(Connection::close);
+    }
+
+    /**
+     * Get the number of open connections.
+     *
+     * @return
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Stop the proxy and close the open connections.
+     */
+    @Override
+    public synchronized void close() {
+        if (serverChannel != null) {
+            closeQuietly(serverChannel);
+        }
+        cutConnections();
+        executor.shutdownNow();
+    }
+
+    private void accept(ServerSocketChannel channel) {
+        while (channel.isOpen()) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (IOException e) {
+                if (channel.isOpen()) {
+                    log.warn("Proxy {}:{} failed to accept a connection", targetHost, targetPort, e);
+                }
+                continue;
+            }
+            if (cutOff) {
+                closeQuietly(client);
+                continue;
+            }
+            try {
+                SocketChannel target = SocketChannel.open(new InetSocketAddress(targetHost, targetPort));
+                Connection connection = new Connection(client, target);
+                connections.add(connection);
+                connection.start();
+            } catch (IOException | RejectedExecutionException e) {
+                log.warn("Proxy failed to connect to {}:{}", targetHost, targetPort, e);
+                closeQuietly(client);
+            }
+        }
+    }
+
+    private static Duration requirePositive(Duration duration, String name) {
+        Objects.requireNonNull(duration, name + " must be provided");
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * Connection between a client and the target.
+     */
+    private class Connection {
+
+        private final SocketChannel client;
+        private final SocketChannel target;
+        private final AtomicInteger openDirections = new AtomicInteger(2);
+
+        Connection(SocketChannel client, SocketChannel target) {
+            this.client = client;
+            this.target = target;
+        }
+
+        void start() {
+            new Direction(client, target).start();
+            new Direction(target, client).start();
+        }
+
+        void directionClosed() {
+            if (openDirections.decrementAndGet() == 0) {
+                close();
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            closeQuietly(client);
+            closeQuietly(target);
+        }
+
+        /**
+         * Transfer of the data in one direction: the data read from the source is queued with its delivery time
+         * and written to the destination when it is due. The queued bytes are bounded by the bandwidth-delay product,
+         * the source is no longer read while the destination is slower.
+         */
+        private class Direction {
+
+            private final SocketChannel source;
+            private final SocketChannel destination;
+            private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>();
+            /**
+             * Bytes read from the source and not yet written to the destination, guarded by this direction.
+             */
+            private long bufferedBytes;
+            private boolean writing = true;
+
+            Direction(SocketChannel source, SocketChannel destination) {
+                this.source = source;
+                this.destination = destination;
+            }
+
+            void start() {
+                executor.execute(this::read);
+                executor.execute(this::write);
+            }
+
+            private void read() {
+                long lastDelivery = 0;
+                try {
+                    while (true) {
+                        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                        if (source.read(buffer) < 0) {
+                            break;
+                        }
+                        buffer.flip();
+                        if (!reserve(buffer.remaining())) {
+                            break;
+                        }
+                        lastDelivery = Math.max(lastDelivery, System.nanoTime() + delay());
+                        chunks.add(new Chunk(buffer, lastDelivery));
+                    }
+                } catch (IOException e) {
+                    // Connection closed
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    chunks.add(new Chunk(null, lastDelivery));
+                }
+            }
+
+            /**
+             * Reserve room in the buffer for the bytes read from the source, waiting while the buffer is full.
+             * A chunk is always accepted in an empty buffer. The size of the buffer follows the changes of the shaping.
+             *
+             * @param size the number of bytes read
+             * @return false if the destination is no longer written
+             * @throws InterruptedException
+             */
+            private synchronized boolean reserve(int size) throws InterruptedException {
+                while (writing && bufferedBytes > 0 && bufferedBytes + size > bufferSize()) {
+                    wait(100);
+                }
+                bufferedBytes += size;
+                return writing;
+            }
+
+            private synchronized void released(int size) {
+                bufferedBytes -= size;
+                notifyAll();
+            }
+
+            private synchronized void writerStopped() {
+                writing = false;
+                chunks.clear();
+                notifyAll();
+            }
+
+            private void write() {
+                try {
+                    while (true) {
+                        Chunk chunk = chunks.take();
+                        waitUntil(chunk.deliveryNanos);
+                        if (chunk.data == null) {
+                            destination.shutdownOutput();
+                            break;
+                        }
+                        int size = chunk.data.remaining();
+                        writeThrottled(chunk.data);
+                        released(size);
+                    }
+                } catch (IOException e) {
+                    Connection.this.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    Connection.this.close();
+                } finally {
+                    writerStopped();
+                    directionClosed();
+                }
+            }
+
+            private void writeThrottled(ByteBuffer data) throws IOException, InterruptedException {
+                while (data.hasRemaining()) {
+                    long bytesPerSecond = bandwidth;
+                    if (bytesPerSecond == 0) {
+                        destination.write(data);
+                        continue;
+                    }
+                    // Write slices of 10 ms of bandwidth
+                    int slice = (int) Math.max(1, Math.min(data.remaining(), bytesPerSecond / 100));
+                    ByteBuffer part = data.duplicate();
+                    part.limit(part.position() + slice);
+                    long start = System.nanoTime();
+                    while (part.hasRemaining()) {
+                        destination.write(part);
+                    }
+                    data.position(part.position());
+                    waitUntil(start + TimeUnit.SECONDS.toNanos(slice) / bytesPerSecond);
+                }
+            }
+
+            private long delay() {
+                long delay = latency.toNanos();
+                long maxJitter = jitter.toNanos();
+                if (maxJitter > 0) {
+                    delay += ThreadLocalRandom.current().nextLong(maxJitter + 1);
+                }
+                return delay;
+            }
+
+            private void waitUntil(long deadlineNanos) throws InterruptedException {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * Size of the buffer of each direction: the bytes sent during the latency and the jitter at the bandwidth.
+     *
+     * @return the number of bytes
+     */
+    private long bufferSize() {
+        long bytesPerSecond = bandwidth == 0 ? UNLIMITED_BANDWIDTH : bandwidth;
+        double delaySeconds = (latency.toNanos() + jitter.toNanos()) / (double) TimeUnit.SECONDS.toNanos(1);
+        return Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, (long) (bytesPerSecond * delaySeconds)));
+    }
+
+    /**
+     * Data to deliver, null for the end of the stream.
+     */
+    private static class Chunk {
+        @Nullable
+        private final ByteBuffer data;
+        private final long deliveryNanos;
+
+        Chunk(@Nullable ByteBuffer data, long deliveryNanos) {
+            this.data = data;
+            this.deliveryNanos = deliveryNanos;
+        }
+    }
+}
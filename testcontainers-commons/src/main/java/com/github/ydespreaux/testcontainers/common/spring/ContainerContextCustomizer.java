@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.spring;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Register the properties of the containers in the environment of the application context.
+ * <p>
+ * Two customizers are equal if they reference the same container instances.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+class ContainerContextCustomizer implements ContextCustomizer {
+
+    /**
+     * Name of the property source of the containers.
+     */
+    static final String PROPERTY_SOURCE_NAME = "testcontainers";
+
+    private final List<Object> containers;
+
+    /**
+     * @param containers
+     */
+    ContainerContextCustomizer(List<Object> containers) {
+        this.containers = containers;
+    }
+
+    @Override
+    public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        containers.forEach(container -> properties.putAll(SpringbootProperties.getProperties(container)));
+        if (!properties.isEmpty()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME, properties));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        List<Object> others = ((ContainerContextCustomizer) o).containers;
+        if (containers.size() != others.size()) {
+            return false;
+        }
+        return containers.stream().allMatch(container -> others.stream().anyMatch(other -> other == container));
+    }
+
+    @Override
+    public int hashCode() {
+        return containers.stream().mapToInt(System::identityHashCode).sum();
+    }
+}
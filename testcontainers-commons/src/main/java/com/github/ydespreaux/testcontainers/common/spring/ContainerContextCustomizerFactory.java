@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.spring;
+
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.testcontainers.containers.Container;
+import org.testcontainers.lifecycle.Startable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contribute the containers declared by a test class to the key of the spring test context cache.
+ * <p>
+ * The containers are the values of the static fields of the test class, of its super classes and, for an inner test
+ * class, of its enclosing classes. Two test classes sharing the same container instances share the same application
+ * context, test classes using other instances get their own context. The properties of the containers are registered
+ * in the environment of the application context.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class ContainerContextCustomizerFactory implements ContextCustomizerFactory {
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
+        List<Object> containers = new ArrayList<>();
+        for (Class<?> type = testClass; type != null; type = isInnerClass(type) ? type.getEnclosingClass() : null) {
+            findContainers(type, containers);
+        }
+        return containers.isEmpty() ? null : new ContainerContextCustomizer(containers);
+    }
+
+    private static void findContainers(Class<?> testClass, List<Object> containers) {
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || !isContainerType(field.getType())) {
+                    continue;
+                }
+                Object container = getValue(field);
+                if (container != null && containers.stream().noneMatch(existing -> existing == container)) {
+                    containers.add(container);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param type
+     * @return true for an inner class, such as a nested junit 5 test class
+     */
+    private static boolean isInnerClass(Class<?> type) {
+        return type.isMemberClass() && !Modifier.isStatic(type.getModifiers());
+    }
+
+    private static boolean isContainerType(Class<?> type) {
+        return Container.class.isAssignableFrom(type)
+                || Startable.class.isAssignableFrom(type)
+                || ContainerGroup.class.isAssignableFrom(type);
+    }
+
+    private static Object getValue(Field field) {
+        try {
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+}
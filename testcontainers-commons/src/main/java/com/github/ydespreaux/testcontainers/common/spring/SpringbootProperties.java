@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.spring;
+
+import java.util.*;
+
+/**
+ * Registry of the spring boot properties published by the containers.
+ * <p>
+ * Each property is registered as a system property, for backward compatibility, and is also kept with the container
+ * that published it, so that the {@link ContainerContextCustomizerFactory} registers the properties of the containers
+ * used by a test class directly in its application context.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public final class SpringbootProperties {
+
+    /**
+     * Properties indexed by container instance.
+     */
+    private static final Map<Object, Map<String, String>> PROPERTIES = new IdentityHashMap<>();
+
+    private SpringbootProperties() {
+        // Nothing to do
+    }
+
+    /**
+     * Register a property published by a container.
+     *
+     * @param container the container
+     * @param name      the name of the property
+     * @param value     the value of the property
+     */
+    public static void register(Object container, String name, String value) {
+        System.setProperty(name, value);
+        synchronized (PROPERTIES) {
+            PROPERTIES.computeIfAbsent(container, key -> new LinkedHashMap<>()).put(name, value);
+        }
+    }
+
+    /**
+     * Get the properties published by a container and by its members.
+     *
+     * @param container the container or the group of containers
+     * @return
+     */
+    public static Map<String, Object> getProperties(Object container) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        collect(container, properties, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return properties;
+    }
+
+    private static void collect(Object container, Map<String, Object> properties, Set<Object> visited) {
+        if (!visited.add(container)) {
+            return;
+        }
+        if (container instanceof ContainerGroup) {
+            ((ContainerGroup) container).getMembers().forEach(member -> collect(member, properties, visited));
+        }
+        synchronized (PROPERTIES) {
+            properties.putAll(PROPERTIES.getOrDefault(container, Collections.emptyMap()));
+        }
+    }
+}
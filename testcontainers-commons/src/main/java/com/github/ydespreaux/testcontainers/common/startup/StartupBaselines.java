@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Baseline startup durations, stored in a properties file.
+ * <p>
+ * Each entry is keyed by the type of the container, its image and the fingerprint of its configuration,
+ * the value is the duration in milliseconds.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class StartupBaselines {
+
+    private final Path file;
+    private final Map<String, Long> baselines = new TreeMap<>();
+    private boolean modified;
+
+    /**
+     * Load the baselines of a file. A missing file defines no baseline.
+     *
+     * @param file the baseline file
+     */
+    public StartupBaselines(Path file) {
+        this.file = file;
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(format("Cannot read the startup baselines %s", file), e);
+            }
+            properties.stringPropertyNames().forEach(key -> baselines.put(key, Long.valueOf(properties.getProperty(key).trim())));
+        }
+    }
+
+    /**
+     * Build the key of a baseline.
+     *
+     * @param type          the type of the container
+     * @param image         the image of the container
+     * @param configuration the fingerprint of the configuration
+     * @return
+     */
+    static String key(String type, String image, String configuration) {
+        return type + '|' + image + '|' + configuration;
+    }
+
+    /**
+     * Get a baseline.
+     *
+     * @param key
+     * @return the baseline, null if not defined
+     */
+    @Nullable
+    public synchronized Duration get(String key) {
+        Long millis = baselines.get(key);
+        return millis == null ? null : Duration.ofMillis(millis);
+    }
+
+    /**
+     * Set a baseline.
+     *
+     * @param key
+     * @param duration
+     */
+    public synchronized void put(String key, Duration duration) {
+        baselines.put(key, duration.toMillis());
+        modified = true;
+    }
+
+    /**
+     * Write the baselines in the file if they have been modified.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        Properties properties = new Properties();
+        baselines.forEach((key, value) -> properties.setProperty(key, String.valueOf(value)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temporary = Files.createTempFile(parent, ".baselines-", ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+                properties.store(outputStream, "Startup baselines of the testcontainers (duration in ms)");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } catch (IOException e) {
+            log.warn("Cannot write the startup baselines {}", file, e);
+        }
+    }
+}
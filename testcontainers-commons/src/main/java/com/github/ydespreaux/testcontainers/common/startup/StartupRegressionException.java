@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.startup;
+
+import static java.lang.String.format;
+
+/**
+ * Thrown when the startup duration of a container exceeds its baseline by more than the configured factor.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class StartupRegressionException extends IllegalStateException {
+
+    /**
+     * @param timing the startup timing
+     * @param factor the tolerated factor
+     */
+    public StartupRegressionException(StartupTiming timing, double factor) {
+        super(format("Startup regression of container %s (%s): %d ms, baseline %d ms, tolerated factor %.2f",
+                timing.getType(), timing.getImage(), timing.getDuration().toMillis(), timing.getBaseline().toMillis(), factor));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.startup;
+
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Startup duration of a container.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Value
+public class StartupTiming {
+
+    /**
+     * Type of the container.
+     */
+    String type;
+    /**
+     * Image of the container.
+     */
+    String image;
+    /**
+     * Fingerprint of the configuration of the container.
+     */
+    String configuration;
+    /**
+     * Startup duration.
+     */
+    Duration duration;
+    /**
+     * Baseline duration, null if no baseline is defined.
+     */
+    @Nullable
+    Duration baseline;
+
+    /**
+     * Get the key of the timing in the baseline file.
+     *
+     * @return
+     */
+    public String getKey() {
+        return StartupBaselines.key(type, image, configuration);
+    }
+
+    /**
+     * Get the ratio between the duration and the baseline.
+     *
+     * @return the ratio, 0 if no baseline is defined
+     */
+    public double getRatio() {
+        return baseline == null || baseline.isZero() ? 0 : (double) duration.toMillis() / baseline.toMillis();
+    }
+}
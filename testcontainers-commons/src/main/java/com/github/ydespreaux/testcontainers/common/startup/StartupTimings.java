@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.startup;
+
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.lifecycle.Startable;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Startup durations of the containers, compared with stored baselines.
+ * <p>
+ * The guard is configured with the system properties:
+ * <ul>
+ * <li>testcontainers.startup.baselines: path of the baseline file, the guard is disabled if not set</li>
+ * <li>testcontainers.startup.factor: tolerated factor between a startup duration and its baseline (default 1.5)</li>
+ * <li>testcontainers.startup.mode: WARN to log a regression, FAIL to stop the container and fail the startup (default WARN)</li>
+ * <li>testcontainers.startup.update: replace the existing baselines with the new durations (default false)</li>
+ * </ul>
+ * A missing baseline is recorded from the first startup. A summary of the startups is logged when the JVM exits.
+ * <p>
+ * The startup of a container is measured from its creation, after the resolution of its image (pull, load or build),
+ * to the end of its start. The reattached containers are not created and their startup is not recorded.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public final class StartupTimings {
+
+    public static final String BASELINES_PROPERTY = "testcontainers.startup.baselines";
+    public static final String FACTOR_PROPERTY = "testcontainers.startup.factor";
+    public static final String MODE_PROPERTY = "testcontainers.startup.mode";
+    public static final String UPDATE_PROPERTY = "testcontainers.startup.update";
+
+    private static final double DEFAULT_FACTOR = 1.5;
+
+    private static final StartupTimings INSTANCE = fromSystemProperties();
+
+    /**
+     * Behaviour of the guard when a startup exceeds its baseline.
+     */
+    public enum Mode {
+        WARN, FAIL
+    }
+
+    @Nullable
+    private final StartupBaselines baselines;
+    private final double factor;
+    private final Mode mode;
+    private final boolean update;
+    private final List<StartupTiming> timings = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Creation time of the containers being started.
+     */
+    private final Map<Startable, Long> creations = Collections.synchronizedMap(new IdentityHashMap<>());
+    private boolean shutdownHookRegistered;
+
+    /**
+     * @param baselines the baselines, null to disable the guard
+     * @param factor    the tolerated factor
+     * @param mode      the behaviour of the guard
+     * @param update    replace the existing baselines
+     */
+    StartupTimings(@Nullable StartupBaselines baselines, double factor, Mode mode, boolean update) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("The tolerated factor must be greater than or equal to 1");
+        }
+        this.baselines = baselines;
+        this.factor = factor;
+        this.mode = mode;
+        this.update = update;
+    }
+
+    /**
+     * Get the shared instance.
+     *
+     * @return
+     */
+    public static StartupTimings getInstance() {
+        return INSTANCE;
+    }
+
+    private static StartupTimings fromSystemProperties() {
+        String file = System.getProperty(BASELINES_PROPERTY);
+        return new StartupTimings(
+                file == null || file.trim().isEmpty() ? null : new StartupBaselines(Paths.get(file.trim())),
+                Double.parseDouble(System.getProperty(FACTOR_PROPERTY, String.valueOf(DEFAULT_FACTOR))),
+                Mode.valueOf(System.getProperty(MODE_PROPERTY, Mode.WARN.name()).trim().toUpperCase()),
+                Boolean.getBoolean(UPDATE_PROPERTY));
+    }
+
+    /**
+     * Start the measure of the startup of a container, when the container is created.
+     *
+     * @param container the created container
+     */
+    public void created(Startable container) {
+        creations.put(container, System.nanoTime());
+    }
+
+    /**
+     * Record the startup of a container, measured from its creation.
+     * Nothing is recorded for a container that has not been created, such as a reattached container.
+     *
+     * @param container the started container
+     * @return the timing, null if the container has not been created
+     * @throws StartupRegressionException in FAIL mode, if the startup exceeds its baseline; the container is stopped
+     */
+    @Nullable
+    public StartupTiming record(GenericContainer<?> container) {
+        Duration duration = elapsed(container);
+        if (duration == null) {
+            log.debug("Startup of {} not recorded, the container has not been created", container.getClass().getSimpleName());
+            return null;
+        }
+        return record(container, container.getClass().getSimpleName(), container.getDockerImageName(), fingerprint(container), duration);
+    }
+
+    /**
+     * Stop the measure of the startup of a container.
+     *
+     * @param container the started container
+     * @return the time elapsed since the creation of the container, null if the container has not been created
+     */
+    @Nullable
+    Duration elapsed(Startable container) {
+        Long createdNanos = creations.remove(container);
+        return createdNanos == null ? null : Duration.ofNanos(System.nanoTime() - createdNanos);
+    }
+
+    /**
+     * Record the startup of a container, stopped if its startup fails: the caller of a failed start does not stop it.
+     *
+     * @param container     the started container
+     * @param type          the type of the container
+     * @param image         the image of the container
+     * @param configuration the fingerprint of the configuration
+     * @param duration      the startup duration
+     * @return the timing
+     */
+    StartupTiming record(Startable container, String type, String image, String configuration, Duration duration) {
+        try {
+            return record(type, image, configuration, duration);
+        } catch (StartupRegressionException e) {
+            try {
+                container.stop();
+            } catch (RuntimeException stopFailure) {
+                e.addSuppressed(stopFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Record the startup of a container.
+     *
+     * @param type          the type of the container
+     * @param image         the image of the container
+     * @param configuration the fingerprint of the configuration
+     * @param duration      the startup duration
+     * @return the timing
+     * @throws StartupRegressionException in FAIL mode, if the startup exceeds its baseline
+     */
+    public StartupTiming record(String type, String image, String configuration, Duration duration) {
+        String key = StartupBaselines.key(type, image, configuration);
+        Duration baseline = baselines == null ? null : baselines.get(key);
+        StartupTiming timing = new StartupTiming(type, image, configuration, duration, baseline);
+        timings.add(timing);
+        registerShutdownHook();
+        if (log.isDebugEnabled()) {
+            log.debug("Container {} ({}) started in {} ms", type, image, duration.toMillis());
+        }
+        if (baselines == null) {
+            return timing;
+        }
+        if (baseline == null || update) {
+            baselines.put(key, duration);
+        }
+        if (baseline != null && timing.getRatio() > factor) {
+            StartupRegressionException regression = new StartupRegressionException(timing, factor);
+            if (mode == Mode.FAIL) {
+                throw regression;
+            }
+            log.warn(regression.getMessage());
+        }
+        return timing;
+    }
+
+    /**
+     * Get the recorded timings.
+     *
+     * @return
+     */
+    public List<StartupTiming> getTimings() {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    /**
+     * Build the summary of the recorded timings.
+     *
+     * @return
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder("Startup of the containers:");
+        for (StartupTiming timing : getTimings()) {
+            summary.append(format("%n  %-30s %-50s %8d ms", timing.getType(), timing.getImage(), timing.getDuration().toMillis()));
+            if (timing.getBaseline() != null) {
+                summary.append(format("  (baseline %d ms, x%.2f%s)", timing.getBaseline().toMillis(), timing.getRatio(),
+                        timing.getRatio() > factor ? ", REGRESSION" : ""));
+            }
+        }
+        return summary.toString();
+    }
+
+    private synchronized void registerShutdownHook() {
+        if (shutdownHookRegistered) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (log.isInfoEnabled()) {
+                log.info(getSummary());
+            }
+            if (baselines != null) {
+                baselines.save();
+            }
+        }, "testcontainers-startup-summary"));
+        shutdownHookRegistered = true;
+    }
+
+    /**
+     * Fingerprint of the configuration of a container: the names of its environment variables and its command.
+     * The values of the environment variables are ignored, they contain the ports and host names of the run.
+     *
+     * @param container
+     * @return
+     */
+    private static String fingerprint(GenericContainer<?> container) {
+        String configuration = String.join(",", new TreeSet<>(container.getEnvMap().keySet()))
+                + '|' + String.join(" ", container.getCommandParts());
+        return ScriptLedger.hash(configuration).substring(0, 12);
+    }
+}
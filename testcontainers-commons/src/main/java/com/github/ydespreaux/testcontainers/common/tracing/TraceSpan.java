@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.tracing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Span of a trace, ended when it is closed.
+ * <p>
+ * A span is the current span of the thread that started it until it is closed: the spans started meanwhile
+ * on this thread are its children.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class TraceSpan implements AutoCloseable {
+
+    /**
+     * Span of a disabled tracing.
+     */
+    static final TraceSpan NOOP = new TraceSpan(null, "", "", "", null, 0);
+
+    @Nullable
+    private final Tracing tracing;
+    @Getter
+    private final String name;
+    @Getter
+    private final String traceId;
+    @Getter
+    private final String spanId;
+    @Nullable
+    @Getter
+    private final String parentSpanId;
+    @Getter
+    private final long startEpochNanos;
+    @Getter
+    private volatile long endEpochNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    @Nullable
+    @Getter
+    private volatile String error;
+    /**
+     * Current span of the thread before this span.
+     */
+    @Nullable
+    @Getter(AccessLevel.PACKAGE)
+    private TraceSpan previous;
+
+    TraceSpan(@Nullable Tracing tracing, String name, String traceId, String spanId, @Nullable String parentSpanId, long startEpochNanos) {
+        this.tracing = tracing;
+        this.name = name;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    /**
+     * Add an attribute.
+     *
+     * @param key   the key of the attribute
+     * @param value a string, a number or a boolean
+     * @return
+     */
+    public TraceSpan withAttribute(String key, @Nullable Object value) {
+        if (tracing != null && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed.
+     *
+     * @param failure the cause of the failure
+     * @return
+     */
+    public TraceSpan withError(Throwable failure) {
+        if (tracing != null) {
+            this.error = failure.getClass().getName() + ": " + failure.getMessage();
+        }
+        return this;
+    }
+
+    /**
+     * Get the attributes of the span.
+     *
+     * @return
+     */
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    /**
+     * @return true if the span is recorded
+     */
+    public boolean isRecording() {
+        return tracing != null;
+    }
+
+    /**
+     * End the span.
+     */
+    @Override
+    public void close() {
+        if (tracing != null && endEpochNanos == 0) {
+            tracing.end(this);
+        }
+    }
+
+    void setEndEpochNanos(long endEpochNanos) {
+        this.endEpochNanos = endEpochNanos;
+    }
+
+    void setPrevious(@Nullable TraceSpan previous) {
+        this.previous = previous;
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.tracing;
+
+import com.github.ydespreaux.testcontainers.common.dashboard.Dashboard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Tracing of the provisioning of the containers: starts, wait strategy attempts, commands and docker execs.
+ * <p>
+ * The spans of a JVM are nested under a suite span and are exported to a file in the OTLP JSON format
+ * (one ExportTraceServiceRequest per line), which can be imported by the otlpjsonfile receiver of an
+ * OpenTelemetry collector. The tracing is enabled by the system property testcontainers.tracing.file.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class Tracing {
+
+    public static final String FILE_PROPERTY = "testcontainers.tracing.file";
+
+    private static final String SUITE_SPAN_NAME = "testcontainers";
+    private static final String SCOPE_NAME = "com.github.ydespreaux.testcontainers";
+
+    private static Tracing instance;
+
+    /**
+     * The export file, null if the tracing is disabled.
+     */
+    @Nullable
+    private final Path file;
+    private final ThreadLocal<TraceSpan> currentSpan = new ThreadLocal<>();
+    private final List<SpanListener> listeners = new CopyOnWriteArrayList<>();
+    private final long epochNanosBase;
+    private final long nanoTimeBase;
+    @Nullable
+    private TraceSpan suiteSpan;
+    @Nullable
+    private BufferedWriter writer;
+
+    /**
+     * @param file the export file, null to disable the tracing
+     */
+    Tracing(@Nullable Path file) {
+        this.file = file;
+        Instant now = Instant.now();
+        this.nanoTimeBase = System.nanoTime();
+        this.epochNanosBase = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * Get the tracing configured by the system properties.
+     *
+     * @return
+     */
+    public static synchronized Tracing getInstance() {
+        if (instance == null) {
+            String file = System.getProperty(FILE_PROPERTY);
+            instance = new Tracing(file == null ? null : Paths.get(file));
+            if (file != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "testcontainers-tracing-export"));
+            }
+            Dashboard.startIfEnabled(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the spans are recorded, to be exported or listened
+     */
+    public boolean isEnabled() {
+        return file != null || !listeners.isEmpty();
+    }
+
+    /**
+     * Add a listener of the spans.
+     *
+     * @param listener
+     */
+    public void addListener(SpanListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener of the spans.
+     *
+     * @param listener
+     */
+    public void removeListener(SpanListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start a span, child of the current span of the thread or of the suite span.
+     * The span becomes the current span of the thread until it is closed.
+     *
+     * @param name the name of the span
+     * @return
+     */
+    public TraceSpan startSpan(String name) {
+        if (!isEnabled()) {
+            return TraceSpan.NOOP;
+        }
+        TraceSpan previous = currentSpan.get();
+        TraceSpan parent = previous != null ? previous : getSuiteSpan();
+        TraceSpan span = new TraceSpan(this, name, parent.getTraceId(), randomId(8), parent.getSpanId(), now());
+        span.setPrevious(previous);
+        currentSpan.set(span);
+        listeners.forEach(listener -> listener.onStart(span));
+        return span;
+    }
+
+    /**
+     * Run an action in a span, marked as failed if the action throws an exception.
+     *
+     * @param name   the name of the span
+     * @param action the action
+     */
+    public void trace(String name, Runnable action) {
+        TraceSpan span = startSpan(name);
+        try {
+            action.run();
+        } catch (RuntimeException | Error e) {
+            span.withError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Propagate the current span of the calling thread to a task executed by another thread.
+     *
+     * @param task the task
+     * @return
+     */
+    public Runnable wrap(Runnable task) {
+        Supplier<Void> supplier = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return isEnabled() ? supplier::get : task;
+    }
+
+    /**
+     * Propagate the current span of the calling thread to a task executed by another thread.
+     *
+     * @param task the task
+     * @param <T>
+     * @return
+     */
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        if (!isEnabled()) {
+            return task;
+        }
+        TraceSpan parent = currentSpan.get();
+        return () -> {
+            TraceSpan previous = currentSpan.get();
+            currentSpan.set(parent);
+            try {
+                return task.get();
+            } finally {
+                currentSpan.set(previous);
+            }
+        };
+    }
+
+    /**
+     * End the suite span and close the export file.
+     */
+    synchronized void close() {
+        if (suiteSpan != null) {
+            suiteSpan.close();
+        }
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the trace file {}", file, e);
+            }
+            writer = null;
+        }
+    }
+
+    void end(TraceSpan span) {
+        span.setEndEpochNanos(now());
+        if (currentSpan.get() == span) {
+            currentSpan.set(span.getPrevious());
+        }
+        listeners.forEach(listener -> listener.onEnd(span));
+        if (file != null) {
+            export(span);
+        }
+    }
+
+    private synchronized TraceSpan getSuiteSpan() {
+        if (suiteSpan == null) {
+            suiteSpan = new TraceSpan(this, SUITE_SPAN_NAME, randomId(16), randomId(8), null, now())
+                    .withAttribute("working.directory", System.getProperty("user.dir"));
+        }
+        return suiteSpan;
+    }
+
+    private synchronized void export(TraceSpan span) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(toOtlpJson(span));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Failed to export the span {} to {}", span.getName(), file, e);
+        }
+    }
+
+    private long now() {
+        return epochNanosBase + (System.nanoTime() - nanoTimeBase);
+    }
+
+    /**
+     * Serialize a span as an OTLP ExportTraceServiceRequest.
+     *
+     * @param span the ended span
+     * @return
+     */
+    static String toOtlpJson(TraceSpan span) {
+        StringBuilder json = new StringBuilder(512)
+                .append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[")
+                .append("{\"key\":\"service.name\",\"value\":{\"stringValue\":\"testcontainers\"}}")
+                .append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"").append(SCOPE_NAME).append("\"},\"spans\":[{")
+                .append("\"traceId\":\"").append(span.getTraceId()).append("\",")
+                .append("\"spanId\":\"").append(span.getSpanId()).append("\",");
+        if (span.getParentSpanId() != null) {
+            json.append("\"parentSpanId\":\"").append(span.getParentSpanId()).append("\",");
+        }
+        json.append("\"name\":\"").append(escape(span.getName())).append("\",")
+                .append("\"kind\":1,")
+                .append("\"startTimeUnixNano\":\"").append(span.getStartEpochNanos()).append("\",")
+                .append("\"endTimeUnixNano\":\"").append(span.getEndEpochNanos()).append("\",")
+                .append("\"attributes\":[");
+        boolean first = true;
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"key\":\"").append(escape(attribute.getKey())).append("\",\"value\":{");
+            Object value = attribute.getValue();
+            if (value instanceof Boolean) {
+                json.append("\"boolValue\":").append(value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                json.append("\"intValue\":\"").append(value).append('"');
+            } else if (value instanceof Number) {
+                json.append("\"doubleValue\":").append(value);
+            } else {
+                json.append("\"stringValue\":\"").append(escape(String.valueOf(value))).append('"');
+            }
+            json.append("}}");
+        }
+        json.append("],\"status\":");
+        if (span.getError() == null) {
+            json.append("{\"code\":1}");
+        } else {
+            json.append("{\"code\":2,\"message\":\"").append(escape(span.getError())).append("\"}");
+        }
+        return json.append("}]}]}]}").toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String randomId(int bytes) {
+        StringBuilder id = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            id.append(String.format("%02x", random.nextInt(256)));
+        }
+        return id.toString();
+    }
+}
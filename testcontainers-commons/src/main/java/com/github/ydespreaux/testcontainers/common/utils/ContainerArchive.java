@@ -0,0 +1,480 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.utils;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import com.github.ydespreaux.testcontainers.common.concurrent.ProvisioningExecutors;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.lang.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.String.format;
+
+/**
+ * Set of host files packed in a single tar archive and copied into a container with one api call.
+ * <p>
+ * Replaces one bind mount per file: the archive is copied once the container is created and before it is started.
+ * The archive is streamed to the docker daemon while it is written, without temporary file, so large datasets can be
+ * copied into containers of a remote docker host. Archives larger than the compression threshold are gzip compressed
+ * on the fly and decompressed by the docker daemon into the container.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class ContainerArchive {
+
+    /**
+     * System property defining the size in bytes from which the archives are compressed.
+     */
+    public static final String COMPRESSION_THRESHOLD_PROPERTY = "testcontainers.archive.compression-threshold";
+
+    private static final long DEFAULT_COMPRESSION_THRESHOLD = 1024L * 1024L;
+    private static final int FILE_MODE = 0100644;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Host files indexed by container path.
+     */
+    private final Map<String, Path> files = new LinkedHashMap<>();
+    /**
+     * Gzip the archive before sending it, null to compress the archives larger than the compression threshold.
+     */
+    @Nullable
+    private Boolean compressed;
+    /**
+     * Listener notified of the progress of the copy.
+     */
+    @Nullable
+    private TransferListener transferListener;
+
+    /**
+     * Add a host file.
+     *
+     * @param hostPath      the host file
+     * @param containerPath the absolute path of the file in the container
+     * @return
+     */
+    public ContainerArchive withFile(Path hostPath, String containerPath) {
+        if (!Files.isRegularFile(hostPath)) {
+            throw new IllegalArgumentException(format("Resource with path %s must be a file", hostPath.toString()));
+        }
+        this.files.put(normalize(containerPath), hostPath);
+        return this;
+    }
+
+    /**
+     * Add all the files of a host directory tree.
+     *
+     * @param hostDirectory the host directory
+     * @param containerPath the absolute path of the directory in the container
+     * @return
+     */
+    public ContainerArchive withDirectory(Path hostDirectory, String containerPath) {
+        return withDirectory(hostDirectory, containerPath, path -> true);
+    }
+
+    /**
+     * Add the files of a host directory tree accepted by the filter.
+     *
+     * @param hostDirectory the host directory
+     * @param containerPath the absolute path of the directory in the container
+     * @param filter        the filter applied to the files
+     * @return
+     */
+    public ContainerArchive withDirectory(Path hostDirectory, String containerPath, Predicate<Path> filter) {
+        if (!Files.isDirectory(hostDirectory)) {
+            throw new IllegalArgumentException(format("Resource with path %s must be a directory", hostDirectory.toString()));
+        }
+        try (Stream<Path> paths = Files.walk(hostDirectory)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(filter)
+                    .sorted()
+                    .forEach(path -> {
+                        String subPath = hostDirectory.relativize(path).toString().replaceAll("\\\\", "/");
+                        this.files.put(normalize(containerPath + '/' + subPath), path);
+                    });
+        } catch (IOException e) {
+            throw new IllegalArgumentException(format("Error listing directory %s", hostDirectory.toString()), e);
+        }
+        return this;
+    }
+
+    /**
+     * Enable the gzip compression of the archive.
+     *
+     * @param compressed
+     * @return
+     */
+    public ContainerArchive withCompression(boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
+    /**
+     * Set the listener notified of the progress of the copy.
+     *
+     * @param transferListener
+     * @return
+     */
+    public ContainerArchive withTransferListener(@Nullable TransferListener transferListener) {
+        this.transferListener = transferListener;
+        return this;
+    }
+
+    /**
+     * @return true if the archive is compressed
+     */
+    public boolean isCompressed() {
+        if (compressed != null) {
+            return compressed;
+        }
+        return getSize() >= Long.getLong(COMPRESSION_THRESHOLD_PROPERTY, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * Get the total size of the files.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        long size = 0;
+        for (Path file : files.values()) {
+            try {
+                size += Files.size(file);
+            } catch (IOException e) {
+                throw new IllegalStateException(format("Cannot read the size of the file %s", file), e);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return true if no file was added
+     */
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+
+    /**
+     * Get the absolute paths of the files in the container.
+     *
+     * @return
+     */
+    public List<String> getContainerPaths() {
+        return files.keySet().stream().map(path -> '/' + path).collect(Collectors.toList());
+    }
+
+    /**
+     * Get the fingerprint of the archive, computed from the container paths and the content of the files.
+     *
+     * @return
+     */
+    public String getFingerprint() {
+        return ScriptLedger.hash(files.entrySet().stream()
+                .map(file -> file.getKey() + '=' + ScriptLedger.hash(file.getValue()))
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Write the tar archive.
+     *
+     * @param outputStream
+     * @throws IOException
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        long totalBytes = getSize();
+        long transferredBytes = 0;
+        int loggedDecile = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        OutputStream target = isCompressed() ? new FastGZIPOutputStream(outputStream) : outputStream;
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(target)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            for (Map.Entry<String, Path> file : files.entrySet()) {
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(Files.size(file.getValue()));
+                entry.setMode(FILE_MODE);
+                tar.putArchiveEntry(entry);
+                try (InputStream inputStream = Files.newInputStream(file.getValue())) {
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        tar.write(buffer, 0, read);
+                        transferredBytes += read;
+                        if (transferListener != null) {
+                            transferListener.onProgress(transferredBytes, totalBytes);
+                        }
+                        int decile = totalBytes == 0 ? 10 : (int) (transferredBytes * 10 / totalBytes);
+                        if (decile > loggedDecile && log.isDebugEnabled()) {
+                            log.debug("Archive written at {}% ({} / {} bytes)", decile * 10, transferredBytes, totalBytes);
+                        }
+                        loggedDecile = Math.max(loggedDecile, decile);
+                    }
+                }
+                tar.closeArchiveEntry();
+            }
+            tar.finish();
+        }
+    }
+
+    /**
+     * Copy the archive at the root of the container with the shared docker client.
+     *
+     * @param containerId the container id
+     */
+    public void copyTo(String containerId) {
+        copyTo(DockerClientProvider.getInstance().getClient(), containerId);
+    }
+
+    /**
+     * Copy the archive at the root of the container.
+     * The archive is written by a background thread and streamed to the docker daemon through a bounded pipe.
+     * The archive only contains the files: the missing parent directories are created by the docker daemon, and the
+     * owner and mode of the existing ones are left unchanged.
+     *
+     * @param dockerClient the docker client
+     * @param containerId  the container id
+     */
+    public void copyTo(DockerClient dockerClient, String containerId) {
+        if (isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ArchivePipe pipe = new ArchivePipe();
+        Thread writer = ProvisioningExecutors.newThread("testcontainers-archive-" + containerId, () -> {
+            try (OutputStream outputStream = pipe.getOutputStream()) {
+                writeTo(outputStream);
+            } catch (IOException | RuntimeException e) {
+                pipe.fail(e);
+            }
+        });
+        writer.start();
+        try (InputStream inputStream = pipe.getInputStream()) {
+            DockerClientProvider.getInstance().execute(dockerClient, client -> client.copyArchiveToContainerCmd(containerId)
+                    .withTarInputStream(inputStream)
+                    .withRemotePath("/")
+                    .exec());
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException(format("Copy of files in container %s failed", containerId),
+                    pipe.getFailure() != null ? pipe.getFailure() : e);
+        } finally {
+            // Unblock the writer if the daemon stopped reading the archive
+            pipe.close();
+            joinQuietly(writer);
+        }
+        if (pipe.getFailure() != null) {
+            throw new IllegalStateException(format("Copy of files in container %s failed", containerId), pipe.getFailure());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Copy {} files ({} bytes{}) in container {} in {} ms", files.size(), getSize(),
+                    isCompressed() ? ", compressed" : "", containerId, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static String normalize(String containerPath) {
+        String path = containerPath.replaceAll("/+", "/");
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bounded pipe of chunks between the thread writing the archive and the thread sending it.
+     * Unlike {@link PipedInputStream}, the pipe does not depend on the liveness of the threads using it.
+     */
+    private static class ArchivePipe {
+
+        private static final byte[] END = new byte[0];
+        private static final long OFFER_TIMEOUT_MS = 100;
+
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(16);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean closed;
+
+        /**
+         * Stop the transfer: the writer fails on its next write.
+         */
+        void close() {
+            closed = true;
+            chunks.clear();
+        }
+
+        /**
+         * Record the failure of the writer and end the stream.
+         *
+         * @param throwable the failure
+         */
+        void fail(Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+            try {
+                put(END);
+            } catch (IOException e) {
+                // The pipe is closed
+            }
+        }
+
+        @Nullable
+        Throwable getFailure() {
+            return failure.get();
+        }
+
+        private void put(byte[] chunk) throws IOException {
+            try {
+                while (!chunks.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (closed) {
+                        throw new IOException("Archive stream closed");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Archive stream interrupted");
+            }
+        }
+
+        OutputStream getOutputStream() {
+            return new OutputStream() {
+                private byte[] buffer = new byte[BUFFER_SIZE];
+                private int count;
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (count == buffer.length) {
+                        flushBuffer();
+                    }
+                    buffer[count++] = (byte) b;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    while (length > 0) {
+                        if (count == buffer.length) {
+                            flushBuffer();
+                        }
+                        int size = Math.min(length, buffer.length - count);
+                        System.arraycopy(bytes, offset, buffer, count, size);
+                        count += size;
+                        offset += size;
+                        length -= size;
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (count > 0) {
+                        flushBuffer();
+                    }
+                    put(END);
+                }
+
+                private void flushBuffer() throws IOException {
+                    put(count == buffer.length ? buffer : Arrays.copyOf(buffer, count));
+                    buffer = new byte[BUFFER_SIZE];
+                    count = 0;
+                }
+            };
+        }
+
+        InputStream getInputStream() {
+            return new InputStream() {
+                private byte[] chunk = new byte[0];
+                private int position;
+
+                @Override
+                public int read() throws IOException {
+                    byte[] single = new byte[1];
+                    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    if (length == 0) {
+                        return 0;
+                    }
+                    if (position == chunk.length) {
+                        if (chunk == END) {
+                            return -1;
+                        }
+                        chunk = take();
+                        position = 0;
+                        if (chunk == END) {
+                            if (failure.get() != null) {
+                                throw new IOException("Archive write failed", failure.get());
+                            }
+                            return -1;
+                        }
+                    }
+                    int size = Math.min(length, chunk.length - position);
+                    System.arraycopy(chunk, position, bytes, offset, size);
+                    position += size;
+                    return size;
+                }
+
+                @Override
+                public void close() {
+                    ArchivePipe.this.close();
+                }
+
+                private byte[] take() throws IOException {
+                    try {
+                        return chunks.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Archive stream interrupted");
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Gzip stream favouring the speed over the compression ratio, the archive being compressed on the fly.
+     */
+    private static class FastGZIPOutputStream extends GZIPOutputStream {
+
+        FastGZIPOutputStream(OutputStream outputStream) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
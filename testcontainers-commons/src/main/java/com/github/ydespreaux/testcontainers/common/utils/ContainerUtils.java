@@ -23,7 +23,12 @@ package com.github.ydespreaux.testcontainers.common.utils;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.command.ExecCreateCmdResponse;
 import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Frame;
 import com.github.dockerjava.core.command.ExecStartResultCallback;
+import com.github.dockerjava.core.command.LogContainerResultCallback;
+import com.github.ydespreaux.testcontainers.common.docker.DockerClientProvider;
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import lombok.Value;
 import org.slf4j.Logger;
 import org.testcontainers.containers.GenericContainer;
@@ -33,8 +38,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 
@@ -44,6 +53,10 @@ import static java.lang.String.format;
  */
 public class ContainerUtils {
 
+    private static final String EXEC_PID_MARKER = "__testcontainers_exec_pid__=";
+    private static final Pattern EXEC_PID_PATTERN = Pattern.compile(EXEC_PID_MARKER + "(\\d+)\\r?\\n?");
+    private static final Duration KILL_TIMEOUT = Duration.ofSeconds(10);
+
     /**
      *
      */
@@ -73,7 +86,8 @@ public class ContainerUtils {
     public static String getContainerHostname(GenericContainer container) {
         InspectContainerResponse containerInfo = container.getContainerInfo();
         if (containerInfo == null) {
-            containerInfo = container.getDockerClient().inspectContainerCmd(container.getContainerId()).exec();
+            containerInfo = DockerClientProvider.getInstance().executeWithRetry(container.getDockerClient(),
+                    client -> client.inspectContainerCmd(container.getContainerId()).exec());
         }
 
         return containerInfo.getConfig().getHostName();
@@ -89,6 +103,64 @@ public class ContainerUtils {
         return (OutputFrame outputFrame) -> log.trace(outputFrame.getUtf8String());
     }
 
+    /**
+     * Get the last lines of the logs of a container.
+     *
+     * @param containerId the container id
+     * @param lines       the number of lines
+     * @return
+     */
+    public static String getLogsTail(String containerId, int lines) {
+        DockerClientProvider provider = DockerClientProvider.getInstance();
+        long requestTimeout = provider.getConfiguration().getRequestTimeout().toMillis();
+        StringBuilder logs = new StringBuilder();
+        // The connection permit is only held to start the stream of the logs
+        try (LogContainerResultCallback callback = provider.execute(client -> client.logContainerCmd(containerId)
+                .withStdOut(true)
+                .withStdErr(true)
+                .withTail(lines)
+                .exec(new LogContainerResultCallback() {
+                    @Override
+                    public void onNext(Frame frame) {
+                        logs.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                    }
+                }))) {
+            callback.awaitCompletion(requestTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logs.append(format("<logs not available: %s>", e.getMessage()));
+        }
+        return logs.toString();
+    }
+
+    /**
+     * Execute a command in a container with the shared docker client.
+     * The command is killed if it is not completed before the request timeout of the docker client.
+     *
+     * @param containerId
+     * @param command
+     * @return
+     */
+    public static ExecCmdResult execCmd(String containerId, String[] command) {
+        DockerClientProvider provider = DockerClientProvider.getInstance();
+        return execCmd(provider.getClient(), containerId, command, provider.getConfiguration().getRequestTimeout());
+    }
+
+    /**
+     * Execute a command in a container with the shared docker client.
+     *
+     * @param containerId the container id
+     * @param command     the command
+     * @param timeout     the maximum duration of the command, the command is killed when the timeout expires
+     * @return
+     * @throws ExecTimeoutException if the command is not completed before the timeout
+     */
+    public static ExecCmdResult execCmd(String containerId, String[] command, Duration timeout) {
+        DockerClientProvider provider = DockerClientProvider.getInstance();
+        return execCmd(provider.getClient(), containerId, command, timeout);
+    }
+
     /**
      * @param dockerClient
      * @param containerId
@@ -96,31 +168,125 @@ public class ContainerUtils {
      * @return
      */
     public static ExecCmdResult execCmd(DockerClient dockerClient, String containerId, String[] command) {
-        ExecCreateCmdResponse cmd = dockerClient.execCreateCmd(containerId)
+        return execCmd(dockerClient, containerId, command, DockerClientProvider.getInstance().getConfiguration().getRequestTimeout());
+    }
+
+    /**
+     * Execute a command in a container.
+     * <p>
+     * The command is started by a shell that reports its pid, so that the process can be killed in the container when
+     * the timeout expires or when the calling thread is interrupted.
+     *
+     * @param dockerClient the docker client
+     * @param containerId  the container id
+     * @param command      the command
+     * @param timeout      the maximum duration of the command, the command is killed when the timeout expires
+     * @return
+     * @throws ExecTimeoutException if the command is not completed before the timeout
+     */
+    public static ExecCmdResult execCmd(DockerClient dockerClient, String containerId, String[] command, Duration timeout) {
+        TraceSpan span = Tracing.getInstance().startSpan("exec " + command[0])
+                .withAttribute("container.id", containerId)
+                .withAttribute("exec.timeout.ms", timeout.toMillis());
+        try {
+            ExecCmdResult result = doExecCmd(dockerClient, containerId, command, timeout);
+            span.withAttribute("exit.code", result.getExitCode());
+            return result;
+        } catch (RuntimeException e) {
+            span.withError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    private static ExecCmdResult doExecCmd(DockerClient dockerClient, String containerId, String[] command, Duration timeout) {
+        DockerClientProvider provider = DockerClientProvider.getInstance();
+        // An exec instance is not started when it is created, so its creation can be retried
+        ExecCreateCmdResponse cmd = provider.executeWithRetry(dockerClient, client -> client.execCreateCmd(containerId)
                 .withAttachStdout(true)
                 .withAttachStderr(true)
-                .withCmd(command)
-                .exec();
-
-        String cmdStdout;
-        String cmdStderr;
+                .withCmd(wrapCommand(command))
+                .exec());
 
+        // The connection permit is only held to start the exec: a long command must not starve the other requests
+        String output;
         try (ByteArrayOutputStream stdout = new ByteArrayOutputStream();
              ByteArrayOutputStream stderr = new ByteArrayOutputStream();
-             ExecStartResultCallback cmdCallback = new ExecStartResultCallback(stdout, stderr)) {
-            dockerClient.execStartCmd(cmd.getId()).exec(cmdCallback).awaitCompletion();
-            cmdStdout = stdout.toString(StandardCharsets.UTF_8.name());
-            cmdStderr = stderr.toString(StandardCharsets.UTF_8.name());
+             ExecStartResultCallback cmdCallback = provider.execute(dockerClient,
+                     client -> client.execStartCmd(cmd.getId()).exec(new ExecStartResultCallback(stdout, stderr)))) {
+            boolean completed;
+            try {
+                completed = cmdCallback.awaitCompletion(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                killProcess(provider, dockerClient, containerId, stderr);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(format("Command %s interrupted, for container: %s", Arrays.toString(command), containerId), e);
+            }
+            if (!completed) {
+                killProcess(provider, dockerClient, containerId, stderr);
+                throw new ExecTimeoutException(command, containerId, timeout);
+            }
+            String cmdStdout = stdout.toString(StandardCharsets.UTF_8.name());
+            String cmdStderr = removePidLine(stderr.toString(StandardCharsets.UTF_8.name()));
+            output = cmdStdout.isEmpty() ? cmdStderr : cmdStdout;
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
             String format = format("Exception was thrown when executing: %s, for container: %s ", Arrays.toString(command), containerId);
             throw new IllegalStateException(format, e);
         }
 
-        int exitCode = dockerClient.inspectExecCmd(cmd.getId()).exec().getExitCode();
-        String output = cmdStdout.isEmpty() ? cmdStderr : cmdStdout;
+        int exitCode = provider.executeWithRetry(dockerClient, client -> client.inspectExecCmd(cmd.getId()).exec().getExitCode());
         return new ExecCmdResult(exitCode, output);
     }
 
+    /**
+     * Wrap a command in a shell reporting the pid of the process on the error output before replacing itself with the command.
+     *
+     * @param command
+     * @return
+     */
+    private static String[] wrapCommand(String[] command) {
+        String[] wrapped = new String[command.length + 4];
+        wrapped[0] = "sh";
+        wrapped[1] = "-c";
+        wrapped[2] = "echo " + EXEC_PID_MARKER + "$$ >&2; exec \"$@\"";
+        wrapped[3] = "sh";
+        System.arraycopy(command, 0, wrapped, 4, command.length);
+        return wrapped;
+    }
+
+    /**
+     * Kill the process of a command, identified by the pid reported on its error output.
+     *
+     * @param client
+     * @param containerId
+     * @param stderr
+     */
+    private static void killProcess(DockerClientProvider provider, DockerClient dockerClient, String containerId, ByteArrayOutputStream stderr) {
+        Matcher matcher = EXEC_PID_PATTERN.matcher(new String(stderr.toByteArray(), StandardCharsets.UTF_8));
+        if (!matcher.find()) {
+            return;
+        }
+        try {
+            ExecStartResultCallback callback = provider.execute(dockerClient, client -> {
+                ExecCreateCmdResponse kill = client.execCreateCmd(containerId)
+                        .withCmd("kill", "-9", matcher.group(1))
+                        .exec();
+                return client.execStartCmd(kill.getId()).exec(new ExecStartResultCallback());
+            });
+            callback.awaitCompletion(KILL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The process may have ended in the meantime
+        }
+    }
+
+    private static String removePidLine(String stderr) {
+        return EXEC_PID_PATTERN.matcher(stderr).replaceFirst("");
+    }
 
     @Value
     public static class ExecCmdResult {
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.utils;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * Thrown when a command executed in a container is not completed before its timeout.
+ * The process of the command has been killed.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class ExecTimeoutException extends IllegalStateException {
+
+    /**
+     * @param command     the command
+     * @param containerId the container id
+     * @param timeout     the timeout
+     */
+    public ExecTimeoutException(String[] command, String containerId, Duration timeout) {
+        super(format("Command %s not completed after %d ms, for container: %s", Arrays.toString(command), timeout.toMillis(), containerId));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.checks;
+
+import com.github.ydespreaux.testcontainers.common.docker.HealthCheckImage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HealthCheckTest {
+
+    @Test
+    void toInstruction() {
+        HealthCheck healthCheck = new HealthCheck("pg_isready || exit 1")
+                .withInterval(Duration.ofMillis(500))
+                .withTimeout(Duration.ofSeconds(3))
+                .withStartPeriod(Duration.ofMinutes(1))
+                .withRetries(5);
+        assertThat(healthCheck.toInstruction(),
+                is(equalTo("HEALTHCHECK --interval=500ms --timeout=3s --start-period=60s --retries=5 CMD pg_isready || exit 1")));
+    }
+
+    @Test
+    void invalidHealthCheck() {
+        assertThrows(IllegalArgumentException.class, () -> new HealthCheck(" "));
+        assertThrows(IllegalArgumentException.class, () -> new HealthCheck("true\nfalse"));
+        assertThrows(IllegalArgumentException.class, () -> new HealthCheck("true").withInterval(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new HealthCheck("true").withRetries(0));
+    }
+
+    @Test
+    void derivedImage() {
+        HealthCheck healthCheck = new HealthCheck("true");
+        String imageName = HealthCheckImage.imageName("mysql:5.7.22", healthCheck);
+        assertThat(imageName, startsWith(HealthCheckImage.REPOSITORY + ":"));
+        assertThat(HealthCheckImage.imageName("mysql:5.7.22", new HealthCheck("true")), is(equalTo(imageName)));
+        assertThat(HealthCheckImage.imageName("mysql:8.0.15", healthCheck), is(not(equalTo(imageName))));
+        assertThat(HealthCheckImage.imageName("mysql:5.7.22", new HealthCheck("true").withRetries(1)), is(not(equalTo(imageName))));
+        assertThat(HealthCheckImage.dockerfile("mysql:5.7.22", healthCheck),
+                is(equalTo("FROM mysql:5.7.22\n" + healthCheck.toInstruction() + "\n")));
+    }
+}
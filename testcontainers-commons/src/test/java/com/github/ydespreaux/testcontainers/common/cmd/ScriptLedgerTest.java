@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.cmd;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Container;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ScriptLedgerTest {
+
+    @Test
+    void hashFileLargerThanBuffer() throws IOException {
+        byte[] content = new byte[200 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        Path file = Files.write(Files.createTempFile("ledger", ".json"), content);
+
+        assertThat(ScriptLedger.hash(file), is(equalTo(ScriptLedger.hash(content))));
+        assertThat(ScriptLedger.hash(file).length(), is(equalTo(64)));
+    }
+
+    @Test
+    void hashEmptyFile() throws IOException {
+        Path file = Files.createTempFile("ledger", ".sql");
+        assertThat(ScriptLedger.hash(file), is(equalTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")));
+    }
+
+    @Test
+    void applyAllScriptsOfCreatedContainer() {
+        FakeLedger ledger = new FakeLedger();
+        ledger.content.append("a#1\nb#1\n");
+        List<String> applied = new ArrayList<>();
+
+        int count = ledger.apply(container(), false, Arrays.asList("a", "b", "c"), Function.identity(), applied::add);
+
+        assertThat(count, is(equalTo(3)));
+        assertThat(applied, contains("a", "b", "c"));
+        assertThat(ledger.commands, hasSize(1));
+        assertThat(ledger.commands.get(0), startsWith("printf"));
+    }
+
+    @Test
+    void skipScriptsRecordedInReattachedContainer() {
+        FakeLedger ledger = new FakeLedger();
+        ledger.apply(container(), false, Arrays.asList("a", "b"), Function.identity(), script -> {
+        });
+        List<String> applied = new ArrayList<>();
+
+        int count = ledger.apply(container(), true, Arrays.asList("a", "b", "c"), Function.identity(), applied::add);
+
+        assertThat(count, is(equalTo(1)));
+        assertThat(applied, contains("c"));
+        assertThat(ledger.content.toString(), is(equalTo("a#1\nb#1\nc#1\n")));
+    }
+
+    @Test
+    void applyRepeatedScripts() {
+        FakeLedger ledger = new FakeLedger();
+        List<String> applied = new ArrayList<>();
+
+        assertThat(ledger.apply(container(), false, Arrays.asList("a", "a"), Function.identity(), applied::add), is(equalTo(2)));
+        assertThat(ledger.apply(container(), true, Arrays.asList("a", "a", "a"), Function.identity(), applied::add), is(equalTo(1)));
+        assertThat(applied, contains("a", "a", "a"));
+    }
+
+    @Test
+    void recordScriptsAppliedBeforeFailure() {
+        FakeLedger ledger = new FakeLedger();
+
+        assertThrows(IllegalStateException.class, () -> ledger.apply(container(), false, Arrays.asList("a", "b"), Function.identity(), script -> {
+            if ("b".equals(script)) {
+                throw new IllegalStateException("Script failed");
+            }
+        }));
+        assertThat(ledger.content.toString(), is(equalTo("a#1\n")));
+    }
+
+    private static Container<?> container() {
+        return (Container<?>) Proxy.newProxyInstance(ScriptLedgerTest.class.getClassLoader(), new Class<?>[]{Container.class},
+                (proxy, method, args) -> "getContainerId".equals(method.getName()) ? "ledger" : null);
+    }
+
+    /**
+     * Ledger kept in memory instead of a file of the container.
+     */
+    private static class FakeLedger extends ScriptLedger {
+
+        private final StringBuilder content = new StringBuilder();
+        private final List<String> commands = new ArrayList<>();
+
+        @Override
+        String exec(Container<?> container, String command, String errorMessage) {
+            commands.add(command);
+            if (command.startsWith("cat ")) {
+                return content.toString();
+            }
+            String hashes = command.substring(command.indexOf("' ") + 2, command.indexOf(" >>"));
+            for (String hash : hashes.split(" ")) {
+                content.append(hash).append('\n');
+            }
+            return "";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProvisioningExecutorsTest {
+
+    @Test
+    void virtualThreadsOnJava21() {
+        assertThat(ProvisioningExecutors.isVirtual(), is(Runtime.version().feature() >= 21));
+    }
+
+    @Test
+    void boundedPlatformThreads() throws Exception {
+        System.setProperty(ProvisioningExecutors.VIRTUAL_THREADS_DISABLE_PROPERTY, "true");
+        try {
+            assertThat(ProvisioningExecutors.isVirtual(), is(false));
+            ExecutorService executor = ProvisioningExecutors.newExecutor("provisioning-test", 2);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    assertThat(Thread.currentThread().isDaemon(), is(true));
+                    return Thread.currentThread().getName();
+                }));
+            }
+            for (Future<String> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS), startsWith("provisioning-test-"));
+            }
+            assertThat(maxRunning.get(), is(equalTo(2)));
+            executor.shutdownNow();
+        } finally {
+            System.clearProperty(ProvisioningExecutors.VIRTUAL_THREADS_DISABLE_PROPERTY);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ProvisioningExecutors.newExecutor("provisioning-test", 0));
+    }
+
+    @Test
+    void manyConcurrentTasks() throws Exception {
+        ExecutorService executor = ProvisioningExecutors.newExecutor("provisioning-test");
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(5);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+
+        Thread thread = ProvisioningExecutors.newThread("provisioning-thread", () -> {
+        });
+        assertThat(thread.getName(), startsWith("provisioning-thread"));
+        assertThat(thread.isAlive(), is(false));
+    }
+}
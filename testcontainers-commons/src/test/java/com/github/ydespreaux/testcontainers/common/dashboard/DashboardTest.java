@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.dashboard;
+
+import com.github.ydespreaux.testcontainers.common.tracing.TraceSpan;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DashboardTest {
+
+    private final Tracing tracing = Tracing.getInstance();
+    private Dashboard dashboard;
+
+    @BeforeEach
+    void startDashboard() throws IOException {
+        dashboard = new Dashboard(tracing, 0);
+        dashboard.start();
+    }
+
+    @AfterEach
+    void stopDashboard() {
+        dashboard.stop();
+    }
+
+    @Test
+    void containerPhaseAndHistory() {
+        DashboardState state = dashboard.getState();
+        try (TraceSpan start = tracing.startSpan("start KafkaContainer")) {
+            try (TraceSpan command = tracing.startSpan("command TopicCreateCommand").withAttribute("container.id", "c1")) {
+                tracing.startSpan("exec kafka-topics").withAttribute("container.id", "c1").close();
+                assertThat(state.getPhase("c1"), is(equalTo("command TopicCreateCommand")));
+                assertThat(state.getProvisioning(System.currentTimeMillis() * 1_000_000L).get(0).get("name"), is(equalTo("start KafkaContainer")));
+            }
+        }
+        assertThat(state.getPhase("c1"), is(nullValue()));
+        assertThat(state.getProvisioning(0), is(empty()));
+        assertThat(state.getHistory("c1", 0).get(0).get("name"), is(equalTo("command TopicCreateCommand")));
+        assertThat(state.getHistorySize("c1"), is(equalTo(2)));
+    }
+
+    @Test
+    void page() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://" + dashboard.getHost() + ":" + dashboard.getPort() + "/").openConnection();
+        assertThat(connection.getResponseCode(), is(equalTo(200)));
+        try (InputStream content = connection.getInputStream()) {
+            assertThat(new String(content.readAllBytes(), StandardCharsets.UTF_8), containsString("api/containers"));
+        }
+        HttpURLConnection notFound = (HttpURLConnection) new URL("http://" + dashboard.getHost() + ":" + dashboard.getPort() + "/unknown").openConnection();
+        assertThat(notFound.getResponseCode(), is(equalTo(404)));
+        assertThat(Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("HTTP-Dispatcher"))
+                .allMatch(Thread::isDaemon), is(true));
+    }
+
+    @Test
+    void json() {
+        Map<String, Object> value = Collections.singletonMap("logs", Arrays.asList("line \"1\"\n", 2, true, null));
+        assertThat(Json.write(value), is(equalTo("{\"logs\":[\"line \\\"1\\\"\\n\",2,true,null]}")));
+    }
+}
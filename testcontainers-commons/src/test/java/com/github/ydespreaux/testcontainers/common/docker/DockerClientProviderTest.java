@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import com.github.dockerjava.api.exception.DockerException;
+import com.github.dockerjava.api.exception.InternalServerErrorException;
+import com.github.dockerjava.api.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DockerClientProviderTest {
+
+    private static DockerClientConfiguration.DockerClientConfigurationBuilder configuration() {
+        return DockerClientConfiguration.builder()
+                .retryBackoff(Duration.ofMillis(1))
+                .circuitFailureThreshold(100);
+    }
+
+    @Test
+    void retryTransientFailures() {
+        DockerClientProvider provider = new DockerClientProvider(configuration().build());
+        AtomicInteger attempts = new AtomicInteger();
+        String result = provider.executeWithRetry(null, client -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new DockerException("daemon busy", 503);
+            }
+            return "ok";
+        });
+        assertThat(result, is(equalTo("ok")));
+        assertThat(provider.getMetrics().getRetries(), is(equalTo(2L)));
+
+        AtomicInteger notFound = new AtomicInteger();
+        assertThrows(NotFoundException.class, () -> provider.executeWithRetry(null, client -> {
+            notFound.incrementAndGet();
+            throw new NotFoundException("no such container");
+        }));
+        assertThat(notFound.get(), is(equalTo(1)));
+
+        AtomicInteger notIdempotent = new AtomicInteger();
+        assertThrows(InternalServerErrorException.class, () -> provider.execute(null, client -> {
+            notIdempotent.incrementAndGet();
+            throw new InternalServerErrorException("daemon error");
+        }));
+        assertThat(notIdempotent.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void retryBudget() {
+        DockerClientProvider provider = new DockerClientProvider(configuration().retryBudget(2).retryRatio(0).build());
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(DockerException.class, () -> provider.executeWithRetry(null, client -> {
+                attempts.incrementAndGet();
+                throw new DockerException("daemon busy", 503);
+            }));
+        }
+        // The first request spends the 2 retries of the budget, the second one is not retried
+        assertThat(attempts.get(), is(equalTo(4)));
+        assertThat(provider.getMetrics().getRetries(), is(equalTo(2L)));
+        assertThat(provider.getMetrics().getExhaustedRetryBudget(), is(equalTo(2L)));
+    }
+
+    @Test
+    void circuitBreaker() {
+        DockerClientProvider provider = new DockerClientProvider(configuration()
+                .circuitFailureThreshold(2)
+                .circuitOpenTime(Duration.ofMillis(200))
+                .build());
+        for (int i = 0; i < 2; i++) {
+            assertThrows(UncheckedIOException.class, () -> provider.execute(null, client -> {
+                throw new UncheckedIOException(new SocketTimeoutException("read timed out"));
+            }));
+        }
+        assertThat(provider.getMetrics().getCircuitOpenings(), is(equalTo(1L)));
+
+        long start = System.nanoTime();
+        assertThat(provider.execute(null, client -> "ok"), is(equalTo("ok")));
+        assertThat(Duration.ofNanos(System.nanoTime() - start), is(greaterThanOrEqualTo(Duration.ofMillis(100))));
+        assertThat(provider.getMetrics().getHeldRequests(), is(equalTo(1L)));
+        assertThat(provider.getMetrics().getOpenCircuitTime(), is(greaterThanOrEqualTo(Duration.ofMillis(100))));
+
+        start = System.nanoTime();
+        provider.execute(null, client -> "ok");
+        assertThat(Duration.ofNanos(System.nanoTime() - start), is(lessThan(Duration.ofMillis(100))));
+    }
+
+    @Test
+    void transientFailures() {
+        assertThat(DockerClientProvider.isTransient(new DockerException("bad gateway", 502)), is(true));
+        assertThat(DockerClientProvider.isTransient(new IllegalStateException(new SocketTimeoutException())), is(true));
+        assertThat(DockerClientProvider.isTransient(new NotFoundException("no such container")), is(false));
+        assertThat(DockerClientProvider.isTransient(new IllegalStateException("no docker connection available")), is(false));
+    }
+}
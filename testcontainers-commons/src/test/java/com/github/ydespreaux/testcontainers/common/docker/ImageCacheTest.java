@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.docker;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImageCacheTest {
+
+    @Test
+    void tarball() {
+        ImageCache cache = new ImageCache(Paths.get("/cache"), true);
+        assertThat(cache.isEnabled(), is(true));
+        assertThat(cache.getTarball("confluentinc/cp-kafka:5.2.1"), is(equalTo(Paths.get("/cache/confluentinc_cp-kafka_5.2.1.tar"))));
+        assertThat(cache.getTarball("localhost:5000/mysql:5.7"), is(equalTo(Paths.get("/cache/localhost_5000_mysql_5.7.tar"))));
+    }
+
+    @Test
+    void repositoryAndTag() {
+        assertThat(ImageCache.getRepository("confluentinc/cp-kafka:5.2.1"), is(equalTo("confluentinc/cp-kafka")));
+        assertThat(ImageCache.getTag("confluentinc/cp-kafka:5.2.1"), is(equalTo("5.2.1")));
+        assertThat(ImageCache.getRepository("localhost:5000/mysql"), is(equalTo("localhost:5000/mysql")));
+        assertThat(ImageCache.getTag("localhost:5000/mysql"), is(equalTo("latest")));
+    }
+
+    @Test
+    void disabledCache() {
+        ImageCache cache = new ImageCache(null, true);
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cache.load("mysql:5.7"), is(false));
+        assertThat(cache.save("mysql:5.7"), is(false));
+        assertThrows(IllegalStateException.class, () -> cache.getTarball("mysql:5.7"));
+    }
+}
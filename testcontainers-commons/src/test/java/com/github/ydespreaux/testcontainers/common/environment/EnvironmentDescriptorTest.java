@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.environment;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EnvironmentDescriptorTest {
+
+    @Test
+    void yamlDescriptor() {
+        EnvironmentDescriptor descriptor = EnvironmentDescriptor.fromClasspath("environment/environment.yml");
+        assertThat(descriptor.getName(), is(equalTo("test-environment")));
+        assertThat(descriptor.getContainers().keySet(), contains("kafka", "mysql", "cassandra", "kafka-connect"));
+
+        ContainerDescriptor mysql = descriptor.getContainers().get("mysql");
+        assertThat(mysql.getType(), is(equalTo("mysql")));
+        assertThat(mysql.getVersion(), is(equalTo("5.7.22")));
+        assertThat(mysql.isRegisterSpringbootProperties(), is(false));
+        assertThat(mysql.getStringList("sqlScriptDirectory"), contains("mysql/schema"));
+
+        ContainerDescriptor kafka = descriptor.getContainers().get("kafka");
+        assertThat(kafka.getVersion(), is(nullValue()));
+        assertThat(kafka.isRegisterSpringbootProperties(), is(true));
+        assertThat(kafka.getBoolean("schemaRegistry", false), is(true));
+        assertThat(kafka.getObjectList("topics").get(0).get("name"), is(equalTo("topic-1")));
+        assertThat(descriptor.getContainers().get("kafka-connect").getDependsOn(), contains("kafka"));
+    }
+
+    @Test
+    void jsonDescriptor() {
+        EnvironmentDescriptor descriptor = EnvironmentDescriptor.fromClasspath("environment/environment.json");
+        assertThat(descriptor.getName(), is(equalTo("environment/environment.json")));
+        ContainerDescriptor elasticsearch = descriptor.getContainers().get("elasticsearch");
+        assertThat(elasticsearch.getVersion(), is(equalTo("6.4.2")));
+        assertThat(elasticsearch.getStringList("fileInitScript"), contains("es/init.txt", "es/data.txt"));
+    }
+
+    @Test
+    void startLevels() {
+        List<List<String>> levels = EnvironmentDescriptor.fromClasspath("environment/environment.yml").getStartLevels().stream()
+                .map(level -> level.stream().map(ContainerDescriptor::getName).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        assertThat(levels, hasSize(3));
+        assertThat(levels.get(0), containsInAnyOrder("mysql", "cassandra"));
+        assertThat(levels.get(1), contains("kafka"));
+        assertThat(levels.get(2), contains("kafka-connect"));
+    }
+
+    @Test
+    void unknownDependency() {
+        assertThrows(IllegalArgumentException.class, () -> parse("containers:\n  a:\n    type: mysql\n    dependsOn: b\n"));
+    }
+
+    @Test
+    void cyclicDependencies() {
+        assertThrows(IllegalArgumentException.class, () -> parse(
+                "containers:\n  a:\n    type: mysql\n    dependsOn: b\n  b:\n    type: cassandra\n    dependsOn: a\n"));
+    }
+
+    @Test
+    void missingType() {
+        assertThrows(IllegalArgumentException.class, () -> parse("containers:\n  a:\n    version: 1.0\n"));
+    }
+
+    private static EnvironmentDescriptor parse(String document) {
+        return EnvironmentDescriptor.parse(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), "test");
+    }
+}
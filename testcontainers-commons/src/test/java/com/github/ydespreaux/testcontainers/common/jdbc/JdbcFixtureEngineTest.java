@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JdbcFixtureEngineTest {
+
+    @Test
+    void parseScript() {
+        List<String> statements = SqlScriptParser.parse("-- comment; ignored\n" +
+                "CREATE TABLE `a;b` (id INT); # trailing comment\n" +
+                "/* block; comment */ INSERT INTO t VALUES ('x;''y', \"z\\\";\");\n" +
+                "/*!40101 SET NAMES utf8 */;\n" +
+                ";\n" +
+                "DELIMITER $$\n" +
+                "CREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END$$\n" +
+                "DELIMITER ;\n" +
+                "SELECT 3");
+        assertThat(statements, contains(
+                "CREATE TABLE `a;b` (id INT)",
+                "INSERT INTO t VALUES ('x;''y', \"z\\\";\")",
+                "/*!40101 SET NAMES utf8 */",
+                "CREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END",
+                "SELECT 3"));
+    }
+
+    @Test
+    void parseInvalidScript() {
+        assertThrows(IllegalArgumentException.class, () -> SqlScriptParser.parse("INSERT INTO t VALUES ('x);"));
+        assertThrows(IllegalArgumentException.class, () -> SqlScriptParser.parse("/* unterminated"));
+    }
+
+    @Test
+    void executeBatches() throws Exception {
+        Path script = script("USE db;\nINSERT INTO t VALUES (1);\nINSERT INTO t VALUES (2);\nINSERT INTO t VALUES (3);\n" +
+                "SELECT COUNT(*) FROM t;\nINSERT INTO t VALUES (4);");
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        int count = new JdbcFixtureEngine(() -> connection(calls))
+                .withBatchSize(2)
+                .withTransactionMode(TransactionMode.BATCH)
+                .execute(Collections.singletonList(SqlScriptGroup.of("fixtures", script)));
+        assertThat(count, is(equalTo(6)));
+        assertThat(calls, contains(
+                "execute USE db",
+                "batch [INSERT INTO t VALUES (1), INSERT INTO t VALUES (2)]", "commit",
+                "batch [INSERT INTO t VALUES (3)]", "commit",
+                "execute SELECT COUNT(*) FROM t",
+                "batch [INSERT INTO t VALUES (4)]", "commit",
+                "close"));
+    }
+
+    @Test
+    void executeGroupsConcurrently() throws Exception {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        List<SqlScriptGroup> groups = Arrays.asList(
+                SqlScriptGroup.of("a", script("INSERT INTO a VALUES (1);"), script("INSERT INTO a VALUES (2);")),
+                SqlScriptGroup.of("b", script("INSERT INTO b VALUES (1);")));
+        int count = new JdbcFixtureEngine(() -> connection(calls)).withParallelism(2).execute(groups);
+        assertThat(count, is(equalTo(3)));
+        assertThat(calls, hasItems("batch [INSERT INTO a VALUES (1)]", "batch [INSERT INTO a VALUES (2)]", "batch [INSERT INTO b VALUES (1)]"));
+        assertThat(calls.indexOf("batch [INSERT INTO a VALUES (1)]"), is(lessThan(calls.indexOf("batch [INSERT INTO a VALUES (2)]"))));
+        assertThat(Collections.frequency(calls, "commit"), is(equalTo(3)));
+        assertThat(Collections.frequency(calls, "close"), is(equalTo(2)));
+    }
+
+    @Test
+    void rollbackFailingScript() throws Exception {
+        Path script = script("INSERT INTO t VALUES (1);\nINSERT INTO t VALUES (FAIL);\nINSERT INTO t VALUES (3);");
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> new JdbcFixtureEngine(() -> connection(calls))
+                .execute(Collections.singletonList(SqlScriptGroup.of("fixtures", script))));
+        assertThat(failure.getMessage(), containsString("INSERT INTO t VALUES (FAIL)"));
+        assertThat(failure.getCause(), is(instanceOf(BatchUpdateException.class)));
+        assertThat(calls, hasItem("rollback"));
+        assertThat(calls, not(hasItem("commit")));
+    }
+
+    @Test
+    void failureAbortsOtherGroups() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch failureThrown = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(2);
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        Consumer<String> listener = call -> {
+            try {
+                if (call.equals("execute SELECT SLOW")) {
+                    // The slow group is blocked in its first statement until the failure is thrown
+                    slowStarted.countDown();
+                    failureThrown.await(10, TimeUnit.SECONDS);
+                } else if (call.contains("FAIL")) {
+                    slowStarted.await(10, TimeUnit.SECONDS);
+                } else if (call.equals("close")) {
+                    closed.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<SqlScriptGroup> groups = Arrays.asList(
+                SqlScriptGroup.of("slow", script(String.join("", Collections.nCopies(20, "SELECT SLOW;\n")))),
+                SqlScriptGroup.of("failing", script("INSERT INTO t VALUES (FAIL);")));
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> new JdbcFixtureEngine(() -> connection(calls, listener))
+                .withParallelism(2)
+                .execute(groups));
+        // The failure is thrown while the slow group is still running its first statement
+        assertThat(slowStarted.getCount(), is(equalTo(0L)));
+        assertThat(failure.getMessage(), containsString("INSERT INTO t VALUES (FAIL)"));
+        failureThrown.countDown();
+
+        assertThat(closed.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(Collections.frequency(calls, "execute SELECT SLOW"), is(equalTo(1)));
+        assertThat(Collections.frequency(calls, "rollback"), is(equalTo(2)));
+    }
+
+    private static void record(List<String> calls, Consumer<String> listener, String call) {
+        calls.add(call);
+        listener.accept(call);
+    }
+
+    private static Path script(String content) throws Exception {
+        Path script = Files.createTempFile("fixture", ".sql");
+        Files.write(script, content.getBytes(StandardCharsets.UTF_8));
+        script.toFile().deleteOnExit();
+        return script;
+    }
+
+    /**
+     * Fake connection recording the calls.
+     */
+    private static Connection connection(List<String> calls) {
+        return connection(calls, call -> {
+        });
+    }
+
+    /**
+     * Fake connection recording the calls, notifying a listener of each call.
+     */
+    private static Connection connection(List<String> calls, Consumer<String> listener) {
+        boolean[] autoCommit = {true};
+        List<String> batch = new ArrayList<>();
+        Statement statement = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "addBatch":
+                    batch.add((String) args[0]);
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "executeBatch":
+                    record(calls, listener, "batch " + batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (batch.get(i).contains("FAIL")) {
+                            throw new BatchUpdateException("failure", new int[i]);
+                        }
+                    }
+                    return new int[batch.size()];
+                case "execute":
+                    record(calls, listener, "execute " + args[0]);
+                    return true;
+                default:
+                    return null;
+            }
+        });
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createStatement":
+                    return statement;
+                case "getAutoCommit":
+                    return autoCommit[0];
+                case "setAutoCommit":
+                    autoCommit[0] = (boolean) args[0];
+                    return null;
+                case "commit":
+                case "rollback":
+                case "close":
+                    record(calls, listener, method.getName());
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+}
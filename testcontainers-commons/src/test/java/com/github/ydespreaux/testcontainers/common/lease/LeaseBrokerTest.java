@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lease;
+
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.lifecycle.Startable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LeaseBrokerTest {
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger stopped = new AtomicInteger();
+
+    private LeaseBroker broker;
+    private int port;
+
+    @BeforeEach
+    void startBroker() throws IOException {
+        broker = new LeaseBroker(resource -> new FakeEnvironment(), Duration.ofMillis(200));
+        port = broker.bind();
+    }
+
+    @AfterEach
+    void stopBroker() {
+        broker.close();
+    }
+
+    @Test
+    void sharedLeases() throws Exception {
+        try (LeaseClient first = new LeaseClient(port); LeaseClient second = new LeaseClient(port)) {
+            Lease firstLease = first.acquire("environment.yml", LeaseMode.SHARED);
+            Lease secondLease = second.acquire("environment.yml", LeaseMode.SHARED);
+            assertThat(started.get(), is(equalTo(1)));
+            assertThat(secondLease.getProperties(), hasEntry("fake.url", "fake url 1"));
+            assertThat(secondLease.getId(), is(not(equalTo(firstLease.getId()))));
+
+            first.release(firstLease);
+            second.release(secondLease);
+            assertThat(broker.awaitIdle(Duration.ofSeconds(5)), is(true));
+            Thread.sleep(1000);
+            assertThat(stopped.get(), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    void shutdownTimeoutCappedByForkExitTimeout() {
+        String forkExitTimeout = System.getProperty(LeaseBroker.FORK_EXIT_TIMEOUT_PROPERTY);
+        System.setProperty(LeaseBroker.FORK_EXIT_TIMEOUT_PROPERTY, "30");
+        try {
+            assertThat(LeaseBroker.getShutdownTimeout(), is(equalTo(Duration.ofSeconds(25))));
+            System.setProperty(LeaseBroker.SHUTDOWN_TIMEOUT_PROPERTY, "10");
+            assertThat(LeaseBroker.getShutdownTimeout(), is(equalTo(Duration.ofSeconds(10))));
+            System.setProperty(LeaseBroker.FORK_EXIT_TIMEOUT_PROPERTY, "660");
+            System.setProperty(LeaseBroker.SHUTDOWN_TIMEOUT_PROPERTY, "600");
+            assertThat(LeaseBroker.getShutdownTimeout(), is(equalTo(Duration.ofSeconds(600))));
+        } finally {
+            if (forkExitTimeout != null) {
+                System.setProperty(LeaseBroker.FORK_EXIT_TIMEOUT_PROPERTY, forkExitTimeout);
+            } else {
+                System.clearProperty(LeaseBroker.FORK_EXIT_TIMEOUT_PROPERTY);
+            }
+            System.clearProperty(LeaseBroker.SHUTDOWN_TIMEOUT_PROPERTY);
+        }
+    }
+
+    @Test
+    void exclusiveLeaseWaitsForSharedLeases() throws Exception {
+        try (LeaseClient shared = new LeaseClient(port); LeaseClient exclusive = new LeaseClient(port)) {
+            Lease sharedLease = shared.acquire("environment.yml", LeaseMode.SHARED);
+            CompletableFuture<Lease> exclusiveLease = CompletableFuture.supplyAsync(() -> exclusive.acquire("environment.yml", LeaseMode.EXCLUSIVE));
+            Thread.sleep(300);
+            assertThat(exclusiveLease.isDone(), is(false));
+
+            shared.release(sharedLease);
+            assertThat(exclusiveLease.get(5, TimeUnit.SECONDS).getMode(), is(LeaseMode.EXCLUSIVE));
+            assertThat(started.get(), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    void closedConnectionReleasesLeases() throws Exception {
+        LeaseClient client = new LeaseClient(port);
+        client.acquire("environment.yml", LeaseMode.EXCLUSIVE);
+        client.close();
+        assertThat(broker.awaitIdle(Duration.ofSeconds(5)), is(true));
+        try (LeaseClient other = new LeaseClient(port)) {
+            assertThat(other.acquire("environment.yml", LeaseMode.EXCLUSIVE).getProperties(), hasEntry("fake.url", "fake url 1"));
+        }
+    }
+
+    private class FakeEnvironment implements Startable {
+
+        @Override
+        public void start() {
+            SpringbootProperties.register(this, "fake.url", "fake url " + started.incrementAndGet());
+        }
+
+        @Override
+        public void stop() {
+            stopped.incrementAndGet();
+        }
+    }
+}
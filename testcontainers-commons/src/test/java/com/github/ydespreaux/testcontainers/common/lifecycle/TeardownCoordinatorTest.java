@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.lifecycle;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TeardownCoordinatorTest {
+
+    private final List<String> stopped = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void stopStagesInOrder() {
+        CountDownLatch latch = new CountDownLatch(2);
+        new TeardownCoordinator()
+                .withStage(concurrent("connect-1", latch), concurrent("connect-2", latch))
+                .withStage(container("kafka"), null)
+                .withStage(container("zookeeper"))
+                .teardown()
+                .join();
+        assertThat(stopped, hasSize(4));
+        assertThat(stopped.subList(0, 2), containsInAnyOrder("connect-1", "connect-2"));
+        assertThat(stopped.subList(2, 4), contains("kafka", "zookeeper"));
+    }
+
+    @Test
+    void failureDoesNotInterruptTeardown() {
+        new TeardownCoordinator()
+                .withStage(failing())
+                .withStage(container("kafka"))
+                .withAsyncRemoval(false)
+                .teardown();
+        assertThat(stopped, contains("kafka"));
+    }
+
+    @Test
+    void startAwaitsPendingRemoval() throws Exception {
+        CountDownLatch removing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        Startable container = new Container(() -> {
+            removing.countDown();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stopped.add("kafka");
+        });
+        new TeardownCoordinator().withStage(container).withKill(true).teardown();
+        assertThat(removing.await(5, TimeUnit.SECONDS), is(true));
+
+        CompletableFuture<Void> restart = CompletableFuture.runAsync(() -> TeardownCoordinator.awaitRemoval(container));
+        Thread.sleep(200);
+        assertThat(restart.isDone(), is(false));
+        released.countDown();
+        restart.get(5, TimeUnit.SECONDS);
+        assertThat(stopped, contains("kafka"));
+        // Nothing to wait for once the removal is completed
+        TeardownCoordinator.awaitRemoval(container);
+    }
+
+    private Startable container(String name) {
+        return new Container(() -> stopped.add(name));
+    }
+
+    /**
+     * A container stopped only if the other containers of its stage are stopped at the same time.
+     */
+    private Startable concurrent(String name, CountDownLatch latch) {
+        return new Container(() -> {
+            latch.countDown();
+            try {
+                if (latch.await(5, TimeUnit.SECONDS)) {
+                    stopped.add(name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private Startable failing() {
+        return new Container(() -> {
+            throw new IllegalStateException("stop failed");
+        });
+    }
+
+    private static class Container implements Startable {
+
+        private final Runnable onStop;
+
+        Container(Runnable onStop) {
+            this.onStop = onStop;
+        }
+
+        @Override
+        public void start() {
+            // Nothing to do
+        }
+
+        @Override
+        public void stop() {
+            onStop.run();
+        }
+    }
+}
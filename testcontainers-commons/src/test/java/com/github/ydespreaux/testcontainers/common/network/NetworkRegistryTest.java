@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.network;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Network;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NetworkRegistryTest {
+
+    private final NetworkRegistry registry = NetworkRegistry.getInstance();
+
+    @Test
+    void sharedNetwork() {
+        Network network1 = registry.acquire("registry-test");
+        Network network2 = registry.acquire("registry-test");
+        assertThat(network2, is(sameInstance(network1)));
+        assertThat(registry.getReferences("registry-test"), is(equalTo(2)));
+        assertThat(registry.acquire("registry-test-other"), is(not(sameInstance(network1))));
+        registry.release("registry-test-other");
+
+        registry.release("registry-test");
+        assertThat(registry.getReferences("registry-test"), is(equalTo(1)));
+        registry.release("registry-test");
+        assertThat(registry.getReferences("registry-test"), is(equalTo(0)));
+        assertThat(registry.acquire("registry-test"), is(not(sameInstance(network1))));
+        registry.release("registry-test");
+    }
+
+    @Test
+    void releaseUnknownNetwork() {
+        assertThrows(IllegalStateException.class, () -> registry.release("registry-test-unknown"));
+    }
+}
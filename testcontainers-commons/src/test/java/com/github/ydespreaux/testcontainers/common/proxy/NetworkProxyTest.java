@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.proxy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NetworkProxyTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private ServerSocket echoServer;
+    private NetworkProxy proxy;
+
+    @BeforeEach
+    void startEchoServer() throws IOException {
+        echoServer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(() -> {
+            while (!echoServer.isClosed()) {
+                try {
+                    Socket socket = echoServer.accept();
+                    executor.execute(() -> echo(socket));
+                } catch (IOException e) {
+                    // Server closed
+                }
+            }
+        });
+        proxy = new NetworkProxy(InetAddress.getLoopbackAddress().getHostAddress(), echoServer.getLocalPort()).start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        proxy.close();
+        echoServer.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void latency() throws IOException {
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            assertThat(roundTrip(socket, "ping"), is(equalTo("ping")));
+            proxy.withLatency(Duration.ofMillis(100));
+            long start = System.nanoTime();
+            assertThat(roundTrip(socket, "pong"), is(equalTo("pong")));
+            assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis(), is(greaterThanOrEqualTo(200L)));
+        }
+    }
+
+    @Test
+    void cutOff() throws IOException {
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            assertThat(roundTrip(socket, "ping"), is(equalTo("ping")));
+            proxy.withCutOff(true);
+            assertThrows(IOException.class, () -> roundTrip(socket, "pong"));
+        }
+        proxy.withCutOff(false);
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            assertThat(roundTrip(socket, "ping"), is(equalTo("ping")));
+        }
+    }
+
+    @Test
+    void flowControl() throws Exception {
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            byte[] lines = new byte[1024 * 1024];
+            Arrays.fill(lines, (byte) '\n');
+            // The responses are not read: the proxy must stop reading the client instead of buffering the data
+            Future<?> write = executor.submit(() -> {
+                for (int i = 0; i < 64; i++) {
+                    socket.getOutputStream().write(lines);
+                }
+                return null;
+            });
+            assertThrows(TimeoutException.class, () -> write.get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void latencyDoesNotLimitThroughput() throws Exception {
+        proxy.withLatency(Duration.ofSeconds(30));
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            byte[] lines = new byte[1024 * 1024];
+            Arrays.fill(lines, (byte) '\n');
+            // The data in flight during the latency is buffered, the client is not blocked until it is delivered
+            Future<?> write = executor.submit(() -> {
+                for (int i = 0; i < 4; i++) {
+                    socket.getOutputStream().write(lines);
+                }
+                return null;
+            });
+            write.get(20, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void proxiedUrl() {
+        String target = proxy.getTargetHost() + ':' + proxy.getTargetPort();
+        assertThat(proxy.getProxiedUrl("http://" + target + "/index"), is(equalTo("http://" + proxy.getAddress() + "/index")));
+        assertThrows(IllegalArgumentException.class, () -> proxy.getProxiedUrl("http://localhost:1/index"));
+    }
+
+    private static String roundTrip(Socket socket, String message) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer.println(message);
+        String line = reader.readLine();
+        if (line == null) {
+            throw new EOFException("Connection closed");
+        }
+        return line;
+    }
+
+    private static void echo(Socket socket) {
+        try (Socket echo = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(echo.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(echo.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.println(line);
+            }
+        } catch (IOException e) {
+            // Connection closed
+        }
+    }
+}
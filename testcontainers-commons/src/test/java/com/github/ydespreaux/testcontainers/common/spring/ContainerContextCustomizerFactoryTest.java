@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.spring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.context.ContextCustomizer;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ContainerContextCustomizerFactoryTest {
+
+    private static final FakeContainer SHARED_CONTAINER = new FakeContainer();
+    private static final FakeContainer OTHER_CONTAINER = new FakeContainer();
+
+    private final ContainerContextCustomizerFactory factory = new ContainerContextCustomizerFactory();
+
+    @Test
+    void sameContainersShareContext() {
+        ContextCustomizer customizer1 = factory.createContextCustomizer(FirstTest.class, Collections.emptyList());
+        ContextCustomizer customizer2 = factory.createContextCustomizer(SecondTest.class, Collections.emptyList());
+        ContextCustomizer customizer3 = factory.createContextCustomizer(OtherTest.class, Collections.emptyList());
+        assertThat(customizer1, is(equalTo(customizer2)));
+        assertThat(customizer1.hashCode(), is(equalTo(customizer2.hashCode())));
+        assertThat(customizer1, is(not(equalTo(customizer3))));
+    }
+
+    @Test
+    void noContainer() {
+        assertThat(factory.createContextCustomizer(NoContainerTest.class, Collections.emptyList()), is(nullValue()));
+    }
+
+    @Test
+    void registerProperties() {
+        SpringbootProperties.register(SHARED_CONTAINER, "spring.test.fake.url", "fake://localhost:1234");
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            factory.createContextCustomizer(GroupTest.class, Collections.emptyList()).customizeContext(context, null);
+            assertThat(context.getEnvironment().getProperty("spring.test.fake.url"), is(equalTo("fake://localhost:1234")));
+        }
+    }
+
+    static class FirstTest {
+        static FakeContainer container = SHARED_CONTAINER;
+    }
+
+    static class SecondTest extends FirstTest {
+    }
+
+    static class OtherTest {
+        static Startable container = OTHER_CONTAINER;
+    }
+
+    static class NoContainerTest {
+        static String name = "no container";
+    }
+
+    static class GroupTest {
+        static ContainerGroup group = () -> Collections.singletonList(SHARED_CONTAINER);
+    }
+
+    static class FakeContainer implements Startable {
+
+        @Override
+        public void start() {
+            // Nothing to do
+        }
+
+        @Override
+        public void stop() {
+            // Nothing to do
+        }
+    }
+}
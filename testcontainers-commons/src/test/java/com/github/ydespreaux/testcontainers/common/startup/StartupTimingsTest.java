@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.startup;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.lifecycle.Startable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StartupTimingsTest {
+
+    @Test
+    void recordMissingBaseline() throws IOException {
+        Path file = Files.createTempDirectory("baselines").resolve("startup.properties");
+        StartupBaselines baselines = new StartupBaselines(file);
+        StartupTimings timings = new StartupTimings(baselines, 1.5, StartupTimings.Mode.FAIL, false);
+
+        StartupTiming timing = timings.record("KafkaContainer", "confluentinc/cp-kafka:5.2.1", "abc", Duration.ofSeconds(10));
+        assertThat(timing.getBaseline(), is(nullValue()));
+        baselines.save();
+
+        StartupBaselines reloaded = new StartupBaselines(file);
+        assertThat(reloaded.get(timing.getKey()), is(equalTo(Duration.ofSeconds(10))));
+    }
+
+    @Test
+    void failOnRegression() throws IOException {
+        StartupBaselines baselines = new StartupBaselines(Files.createTempDirectory("baselines").resolve("startup.properties"));
+        baselines.put(StartupBaselines.key("MySQLContainer", "mysql:5.7", "abc"), Duration.ofSeconds(10));
+        StartupTimings timings = new StartupTimings(baselines, 1.5, StartupTimings.Mode.FAIL, false);
+
+        StartupTiming timing = timings.record("MySQLContainer", "mysql:5.7", "abc", Duration.ofSeconds(14));
+        assertThat(timing.getRatio(), is(closeTo(1.4, 0.001)));
+        assertThrows(StartupRegressionException.class,
+                () -> timings.record("MySQLContainer", "mysql:5.7", "abc", Duration.ofSeconds(16)));
+        assertThat(timings.getTimings(), hasSize(2));
+        assertThat(timings.getSummary(), containsString("REGRESSION"));
+    }
+
+    @Test
+    void stopContainerOnRegression() throws IOException {
+        StartupBaselines baselines = new StartupBaselines(Files.createTempDirectory("baselines").resolve("startup.properties"));
+        baselines.put(StartupBaselines.key("MySQLContainer", "mysql:5.7", "abc"), Duration.ofSeconds(10));
+        StartupTimings timings = new StartupTimings(baselines, 1.5, StartupTimings.Mode.FAIL, false);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Startable container = new Startable() {
+            @Override
+            public void start() {
+                // Nothing to do
+            }
+
+            @Override
+            public void stop() {
+                stopped.set(true);
+            }
+        };
+
+        timings.record(container, "MySQLContainer", "mysql:5.7", "abc", Duration.ofSeconds(12));
+        assertThat(stopped.get(), is(false));
+        assertThrows(StartupRegressionException.class,
+                () -> timings.record(container, "MySQLContainer", "mysql:5.7", "abc", Duration.ofSeconds(20)));
+        assertThat(stopped.get(), is(true));
+    }
+
+    @Test
+    void warnOnRegression() throws IOException {
+        StartupBaselines baselines = new StartupBaselines(Files.createTempDirectory("baselines").resolve("startup.properties"));
+        baselines.put(StartupBaselines.key("MySQLContainer", "mysql:5.7", "abc"), Duration.ofSeconds(10));
+        StartupTimings timings = new StartupTimings(baselines, 1.5, StartupTimings.Mode.WARN, false);
+
+        StartupTiming timing = timings.record("MySQLContainer", "mysql:5.7", "abc", Duration.ofSeconds(30));
+        assertThat(timing.getRatio(), is(closeTo(3.0, 0.001)));
+        assertThat(baselines.get(timing.getKey()), is(equalTo(Duration.ofSeconds(10))));
+    }
+
+    @Test
+    void measureFromTheCreation() {
+        StartupTimings timings = new StartupTimings(null, 1.5, StartupTimings.Mode.FAIL, false);
+        Startable container = new Startable() {
+            @Override
+            public void start() {
+                // Nothing to do
+            }
+
+            @Override
+            public void stop() {
+                // Nothing to do
+            }
+        };
+
+        assertThat(timings.elapsed(container), is(nullValue()));
+        timings.created(container);
+        assertThat(timings.elapsed(container), is(greaterThanOrEqualTo(Duration.ZERO)));
+        assertThat(timings.elapsed(container), is(nullValue()));
+    }
+}
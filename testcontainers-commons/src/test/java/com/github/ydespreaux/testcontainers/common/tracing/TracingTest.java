@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TracingTest {
+
+    @Test
+    void nestedSpans() throws Exception {
+        Path file = Files.createTempDirectory("tracing").resolve("trace.jsonl");
+        Tracing tracing = new Tracing(file);
+        TraceSpan parent = tracing.startSpan("start MySQLContainer");
+        TraceSpan child = tracing.startSpan("exec mysql").withAttribute("exit.code", 0);
+        child.close();
+        TraceSpan async = CompletableFuture.supplyAsync(tracing.wrap(() -> tracing.startSpan("wait attempt"))).get();
+        async.close();
+        parent.close();
+        TraceSpan next = tracing.startSpan("start CassandraContainer");
+        next.close();
+
+        assertThat(child.getParentSpanId(), is(equalTo(parent.getSpanId())));
+        assertThat(async.getParentSpanId(), is(equalTo(parent.getSpanId())));
+        assertThat(next.getParentSpanId(), is(equalTo(parent.getParentSpanId())));
+        assertThat(child.getTraceId(), is(equalTo(parent.getTraceId())));
+        assertThat(child.getEndEpochNanos(), is(greaterThanOrEqualTo(child.getStartEpochNanos())));
+
+        tracing.close();
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines, hasSize(5));
+        assertThat(lines.get(0), allOf(
+                containsString("\"name\":\"exec mysql\""),
+                containsString("\"parentSpanId\":\"" + parent.getSpanId() + "\""),
+                containsString("{\"key\":\"exit.code\",\"value\":{\"intValue\":\"0\"}}")));
+        assertThat(lines.get(4), allOf(containsString("\"name\":\"testcontainers\""), not(containsString("parentSpanId"))));
+    }
+
+    @Test
+    void failedSpan() throws Exception {
+        Path file = Files.createTempDirectory("tracing").resolve("trace.jsonl");
+        Tracing tracing = new Tracing(file);
+        assertThrows(IllegalStateException.class, () -> tracing.trace("start \"kafka\"", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        tracing.close();
+        assertThat(Files.readAllLines(file).get(0), allOf(
+                containsString("\"name\":\"start \\\"kafka\\\"\""),
+                containsString("\"status\":{\"code\":2,\"message\":\"java.lang.IllegalStateException: boom\"}")));
+    }
+
+    @Test
+    void disabledTracing() {
+        Tracing tracing = new Tracing(null);
+        TraceSpan span = tracing.startSpan("start MySQLContainer").withAttribute("exit.code", 1);
+        assertThat(span.isRecording(), is(false));
+        assertThat(span.getAttributes().isEmpty(), is(true));
+        span.close();
+    }
+}
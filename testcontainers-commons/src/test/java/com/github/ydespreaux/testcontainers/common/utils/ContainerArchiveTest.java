@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.common.utils;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ContainerArchiveTest {
+
+    @Test
+    void fingerprint() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        Path script = Files.write(directory.resolve("init.sql"), "CREATE TABLE t (id INT);".getBytes());
+        Path copy = Files.write(directory.resolve("copy.sql"), "CREATE TABLE t (id INT);".getBytes());
+
+        String fingerprint = new ContainerArchive().withFile(script, "/init/1.sql").getFingerprint();
+        assertThat(new ContainerArchive().withFile(copy, "/init/1.sql").getFingerprint(), is(equalTo(fingerprint)));
+        assertThat(new ContainerArchive().withFile(script, "/init/2.sql").getFingerprint(), is(not(equalTo(fingerprint))));
+
+        Files.write(script, "CREATE TABLE t (id BIGINT);".getBytes());
+        assertThat(new ContainerArchive().withFile(script, "/init/1.sql").getFingerprint(), is(not(equalTo(fingerprint))));
+    }
+
+    @Test
+    void compressionAndProgress() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        byte[] content = new byte[200 * 1024];
+        Files.write(directory.resolve("data-1.json"), content);
+        Files.write(directory.resolve("data-2.json"), content);
+        List<Long> progress = new ArrayList<>();
+        ContainerArchive archive = new ContainerArchive()
+                .withDirectory(directory, "/data")
+                .withTransferListener((transferredBytes, totalBytes) -> {
+                    assertThat(totalBytes, is(equalTo(400L * 1024)));
+                    progress.add(transferredBytes);
+                });
+        assertThat(archive.getSize(), is(equalTo(400L * 1024)));
+        assertThat(archive.isCompressed(), is(false));
+
+        System.setProperty(ContainerArchive.COMPRESSION_THRESHOLD_PROPERTY, "1024");
+        try {
+            assertThat(archive.isCompressed(), is(true));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            archive.writeTo(outputStream);
+            byte[] bytes = outputStream.toByteArray();
+            assertThat(bytes[0] & 0xff, is(equalTo(0x1f)));
+            assertThat(bytes[1] & 0xff, is(equalTo(0x8b)));
+            assertThat(bytes.length, is(lessThan(content.length)));
+        } finally {
+            System.clearProperty(ContainerArchive.COMPRESSION_THRESHOLD_PROPERTY);
+        }
+        assertThat(progress.size(), is(greaterThan(1)));
+        assertThat(progress.get(progress.size() - 1), is(equalTo(400L * 1024)));
+        assertThat(archive.withCompression(false).isCompressed(), is(false));
+    }
+
+    @Test
+    void archiveContainsOnlyFiles() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        Files.createDirectories(directory.resolve("conf"));
+        Files.write(directory.resolve("conf/elasticsearch.yml"), "cluster.name: test".getBytes());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ContainerArchive().withDirectory(directory, "/usr/share/elasticsearch/config").writeTo(outputStream);
+
+        List<String> entries = new ArrayList<>();
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                entries.add(entry.getName());
+            }
+        }
+        // The directories of the image keep their owner and mode
+        assertThat(entries, contains("usr/share/elasticsearch/config/conf/elasticsearch.yml"));
+    }
+}
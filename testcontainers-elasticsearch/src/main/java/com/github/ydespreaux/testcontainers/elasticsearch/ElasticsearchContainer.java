@@ -20,26 +20,41 @@
 
 package com.github.ydespreaux.testcontainers.elasticsearch;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.ydespreaux.testcontainers.common.HealthCheckedContainer;
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.ResettableContainer;
+import com.github.ydespreaux.testcontainers.common.ReusableContainer;
+import com.github.ydespreaux.testcontainers.common.checks.FailFastWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.checks.HealthCheck;
+import com.github.ydespreaux.testcontainers.common.checks.HealthStatusWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.cmd.ScriptLedger;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.docker.HealthCheckImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.ContainerReuse;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerArchive;
 import com.github.ydespreaux.testcontainers.elasticsearch.client.ElasticsearchClient;
 import com.github.ydespreaux.testcontainers.elasticsearch.client.ElasticsearchCommand;
 import com.github.ydespreaux.testcontainers.elasticsearch.client.ElasticsearchCommandParser;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.testcontainers.containers.BindMode;
+import org.springframework.lang.Nullable;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.shaded.org.apache.commons.io.FilenameUtils;
 import org.testcontainers.utility.MountableFile;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Stream;
 
 import static com.github.ydespreaux.testcontainers.common.utils.ContainerUtils.containerLogsConsumer;
 import static java.lang.String.format;
@@ -51,7 +66,7 @@ import static java.lang.String.format;
  * @since 1.0.0
  */
 @Slf4j
-public class ElasticsearchContainer extends GenericContainer<ElasticsearchContainer> implements IContainer<ElasticsearchContainer> {
+public class ElasticsearchContainer extends GenericContainer<ElasticsearchContainer> implements IContainer<ElasticsearchContainer>, ResettableContainer<ElasticsearchContainer>, ReusableContainer<ElasticsearchContainer>, HealthCheckedContainer<ElasticsearchContainer> {
 
     private static final int ELASTICSEARCH_DEFAULT_PORT = 9200;
     private static final int ELASTICSEARCH_DEFAULT_TCP_PORT = 9300;
@@ -75,6 +90,32 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
 
     private List<ElasticsearchCommand> commands = new ArrayList<>();
 
+    /**
+     * Configuration files copied in the container before start.
+     */
+    private final ContainerArchive configFiles = new ContainerArchive();
+
+    /**
+     * Ledger of the commands applied in the container.
+     */
+    private final ScriptLedger scriptLedger = new ScriptLedger();
+
+    /**
+     * Reuse of the container across JVM runs.
+     */
+    private final ContainerReuse reuse = new ContainerReuse(this);
+
+    /**
+     * Strategy used to reset the data.
+     */
+    private ResetStrategy<ElasticsearchContainer> resetStrategy = new ElasticsearchResetStrategy();
+
+    /**
+     * Health check run by the docker daemon, null if the startup is checked with HTTP requests.
+     */
+    @Nullable
+    private HealthCheck healthCheck;
+
     /**
      * Default constructor
      * By default, the base url is 'docker.elastic.co/elasticsearch/elasticsearch' and the version '5.6.8'
@@ -99,8 +140,8 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
      * @param version
      */
     public ElasticsearchContainer(String baseUrl, String version) {
-        super(baseUrl + ":" + version);
-        waitingFor(Wait.forHttp("/"));
+        super(new CachedDockerImage(baseUrl + ":" + version));
+        waitingFor(new FailFastWaitStrategy(Wait.forHttp("/")));
     }
 
     /**
@@ -137,6 +178,12 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
      */
     @Override
     protected void configure() {
+        if (this.healthCheck != null) {
+            if (!(this.getImage() instanceof HealthCheckImage)) {
+                this.setImage(new HealthCheckImage(this.getImage(), this.healthCheck));
+            }
+            this.waitingFor(new HealthStatusWaitStrategy());
+        }
         logger().info("Starting an elasticsearch container using [{}]", this.getDockerImageName());
         this.withLogConsumer(containerLogsConsumer(log));
         withEnv("xpack.security.enabled", "false");
@@ -147,19 +194,37 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
         withCreateContainerCmdModifier(createContainerCmd -> createContainerCmd.withName("testcontainsers-elasticsearch-" + UUID.randomUUID()));
     }
 
+    /**
+     * Copy the configuration files in the container.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+        this.configFiles.copyTo(this.dockerClient, containerId);
+    }
+
     /**
      * Start the container
      */
     @Override
     public void start() {
-        super.start();
-        if (!commands.isEmpty()) {
-            ElasticsearchClient client = new ElasticsearchClient(this);
-            commands.forEach(client::execute);
-        }
-        if (registerSpringbootProperties()) {
-            registerElasticsearchEnvironment();
-        }
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            if (!commands.isEmpty()) {
+                ElasticsearchClient client = new ElasticsearchClient(this);
+                scriptLedger.apply(this, this.reuse.getReattachedContainerInfo() != null, commands, this::hashCommand, command ->
+                        Tracing.getInstance().trace("elasticsearch command " + command.getRequestMethod() + " " + command.getPath(),
+                                () -> client.execute(command)));
+            }
+            if (registerSpringbootProperties()) {
+                registerElasticsearchEnvironment();
+            }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
     /**
@@ -167,10 +232,10 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
      */
     protected void registerElasticsearchEnvironment() {
         if (!StringUtils.isEmpty(this.jestUrisSystemProperty)) {
-            System.setProperty(this.jestUrisSystemProperty, getURL());
+            SpringbootProperties.register(this, this.jestUrisSystemProperty, getURL());
         }
         if (!StringUtils.isEmpty(this.restUrisSystemProperty)) {
-            System.setProperty(this.restUrisSystemProperty, getURL());
+            SpringbootProperties.register(this, this.restUrisSystemProperty, getURL());
         }
     }
 
@@ -233,9 +298,10 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
             throw new IllegalArgumentException(format("Resource with path %s could not be found", path.toString()));
         }
         if (file.isFile()) {
-            addMountableFile(path, ELASTICSEARCH_CONFIG_DIRECTORY);
+            this.configFiles.withFile(path, ELASTICSEARCH_CONFIG_DIRECTORY + '/' + path.getFileName());
         } else {
-            scanDirectory(path, path, ELASTICSEARCH_CONFIG_DIRECTORY);
+            this.configFiles.withDirectory(path, ELASTICSEARCH_CONFIG_DIRECTORY,
+                    configFile -> FilenameUtils.getExtension(configFile.toFile().getName()).equals("txt"));
         }
         return self();
     }
@@ -250,31 +316,117 @@ public class ElasticsearchContainer extends GenericContainer<ElasticsearchContai
     }
 
     /**
-     * @param localPath
-     * @param containerPath
+     * Wait for the health status of the container computed by the docker daemon with the cluster health API.
+     *
+     * @param healthCheck
+     * @return
+     */
+    @Override
+    public ElasticsearchContainer withHealthCheck(boolean healthCheck) {
+        return this.withHealthCheck(healthCheck
+                ? new HealthCheck("curl -fs 'http://127.0.0.1:" + ELASTICSEARCH_DEFAULT_PORT + "/_cluster/health?wait_for_status=yellow&timeout=1s' || exit 1")
+                .withInterval(Duration.ofSeconds(1))
+                .withTimeout(Duration.ofSeconds(5))
+                .withStartPeriod(Duration.ofSeconds(60))
+                .withRetries(3)
+                : null);
+    }
+
+    /**
+     * Wait for the health status of the container computed by the docker daemon with a specific check.
+     *
+     * @param healthCheck the check, null to check the startup with HTTP requests
+     * @return
      */
-    private void scanDirectory(Path localRootPath, Path localPath, String containerPath) {
-        try (Stream<Path> paths = Files.list(localPath)) {
-            paths
-                    .filter(path -> path.toFile().isDirectory() || FilenameUtils.getExtension(path.toFile().getName()).equals("txt"))
-                    .sorted()
-                    .forEach(path -> {
-                        if (path.toFile().isFile()) {
-                            String pathFilename = path.toString().substring(localRootPath.toString().length() + 1);
-                            addMountableFile(path, containerPath + '/' + pathFilename);
-                        } else {
-                            scanDirectory(localRootPath, path, containerPath);
-                        }
-                    });
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Error listing scripts", e);
+    @Override
+    public ElasticsearchContainer withHealthCheck(@Nullable HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+        return this.self();
+    }
+
+    /**
+     * Enable the reuse of a running container with the same configuration.
+     * By default, the reuse is enabled by the system property testcontainers.reuse.enable.
+     *
+     * @param reuse
+     * @return
+     */
+    @Override
+    public ElasticsearchContainer withReuse(boolean reuse) {
+        this.reuse.setEnabled(reuse);
+        return this.self();
+    }
+
+    /**
+     * Reattach a running container with the same configuration, or create a new container.
+     */
+    @Override
+    protected void doStart() {
+        String reusedContainerId = this.reuse.find(this::configure, this.configFiles.getFingerprint());
+        if (reusedContainerId == null) {
+            super.doStart();
+            return;
         }
+        this.containerId = reusedContainerId;
+        this.containerName = this.reuse.getReattachedContainerInfo().getName();
+    }
+
+    /**
+     * Get the description of the container, the reattached container if the container is reused.
+     *
+     * @return
+     */
+    @Override
+    public InspectContainerResponse getContainerInfo() {
+        InspectContainerResponse reattachedContainerInfo = this.reuse.getReattachedContainerInfo();
+        return reattachedContainerInfo != null ? reattachedContainerInfo : super.getContainerInfo();
     }
 
-    private void addMountableFile(Path localPath, String containerPath) {
-        MountableFile mountableFile = MountableFile.forHostPath(localPath);
-        // Create the volume that will be need for scripts
-        this.addFileSystemBind(mountableFile.getResolvedPath(), containerPath, BindMode.READ_ONLY);
+    /**
+     * Stop the container. A reused container is left running.
+     */
+    @Override
+    public void stop() {
+        if (this.containerId != null && ContainerReuse.isReused(this)) {
+            log.info("Container {} is reused and left running", this.containerId);
+            this.containerId = null;
+            return;
+        }
+        super.stop();
+    }
+
+    /**
+     * Set the strategy used to reset the data.
+     *
+     * @param resetStrategy
+     * @return
+     */
+    @Override
+    public ElasticsearchContainer withResetStrategy(ResetStrategy<ElasticsearchContainer> resetStrategy) {
+        this.resetStrategy = Objects.requireNonNull(resetStrategy, "resetStrategy must be provided");
+        return self();
+    }
+
+    /**
+     * Delete the documents of all the indices.
+     */
+    @Override
+    public void reset() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Container must be running");
+        }
+        this.resetStrategy.reset(this);
+    }
+
+    /**
+     * Compute the hash of a command.
+     *
+     * @param command
+     * @return
+     */
+    private String hashCommand(ElasticsearchCommand command) {
+        String payload = command.getPayloadFile() != null ? ScriptLedger.hash(command.getPayloadFile()) : command.getJson();
+        return ScriptLedger.hash(command.getRequestMethod() + " " + command.getPath() + "\n" + payload);
     }
 
     @Override
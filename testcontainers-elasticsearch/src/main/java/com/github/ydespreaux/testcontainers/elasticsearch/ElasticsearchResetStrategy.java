@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.elasticsearch;
+
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.elasticsearch.client.ElasticsearchClient;
+import com.github.ydespreaux.testcontainers.elasticsearch.client.ElasticsearchCommand;
+
+/**
+ * Reset the data of an Elasticsearch container.
+ * <p>
+ * The indices are refreshed, so that the recently indexed documents are visible,
+ * then the documents of all the indices are deleted with a single delete by query request.
+ * The indices, their mappings and the system indices are kept.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class ElasticsearchResetStrategy implements ResetStrategy<ElasticsearchContainer> {
+
+    private static final String REFRESH_PATH = "/_refresh";
+    private static final String DELETE_BY_QUERY_PATH = "/*,-.*/_delete_by_query?conflicts=proceed&refresh=true";
+    private static final String MATCH_ALL_QUERY = "{\"query\":{\"match_all\":{}}}";
+
+    @Override
+    public void reset(ElasticsearchContainer container) {
+        ElasticsearchClient client = new ElasticsearchClient(container);
+        client.execute(ElasticsearchCommand.builder()
+                .requestMethod(ElasticsearchCommand.RequestMethod.POST)
+                .path(REFRESH_PATH)
+                .json("")
+                .build());
+        client.execute(ElasticsearchCommand.builder()
+                .requestMethod(ElasticsearchCommand.RequestMethod.POST)
+                .path(DELETE_BY_QUERY_PATH)
+                .json(MATCH_ALL_QUERY)
+                .build());
+    }
+}
@@ -24,9 +24,17 @@ import com.github.ydespreaux.testcontainers.elasticsearch.ElasticsearchContainer
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.ContainerLaunchException;
 import org.testcontainers.shaded.okhttp3.*;
+import org.testcontainers.shaded.okio.BufferedSink;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import static java.lang.String.format;
 
@@ -38,6 +46,7 @@ import static java.lang.String.format;
 public class ElasticsearchClient {
 
     private static final String APPLICATION_JSON = "application/json";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final String baseUrl;
 
     /**
@@ -70,10 +79,14 @@ public class ElasticsearchClient {
         try {
             switch (command.getRequestMethod()) {
                 case PUT:
-                    response = this.put(command.getPath(), command.getJson());
+                    response = command.getPayloadFile() != null
+                            ? this.send("PUT", command.getPath(), command.getPayloadFile())
+                            : this.put(command.getPath(), command.getJson());
                     break;
                 case POST:
-                    response = this.post(command.getPath(), command.getJson());
+                    response = command.getPayloadFile() != null
+                            ? this.send("POST", command.getPath(), command.getPayloadFile())
+                            : this.post(command.getPath(), command.getJson());
                     break;
                 case DELETE:
                     response = this.delete(command.getPath());
@@ -123,7 +136,81 @@ public class ElasticsearchClient {
         return client.newCall(request).execute();
     }
 
+    /**
+     * Send a payload file, gzip compressed while it is read.
+     *
+     * @param method the request method
+     * @param path   the request path
+     * @param file   the payload file
+     * @return
+     * @throws IOException
+     */
+    private Response send(String method, String path, Path file) throws IOException {
+        OkHttpClient client = createHttpClient(5, TimeUnit.MINUTES);
+        Request request = new Request.Builder()
+                .addHeader("Content-Type", APPLICATION_JSON)
+                .addHeader("Content-Encoding", "gzip")
+                .url(this.baseUrl + path)
+                .method(method, new GzipFileRequestBody(file))
+                .build();
+        return client.newCall(request).execute();
+    }
+
     private boolean isValidHttpCode(int httpCode) {
         return httpCode == 200 || httpCode == 201;
     }
+
+    /**
+     * Request body streaming a file with an on the fly gzip compression.
+     */
+    private static class GzipFileRequestBody extends RequestBody {
+
+        private final Path file;
+
+        GzipFileRequestBody(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MediaType.parse(APPLICATION_JSON);
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            long totalBytes = Files.size(file);
+            long transferredBytes = 0;
+            int loggedDecile = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            // The sink is closed by the http client, closing the gzip stream only finishes it and releases its deflater
+            OutputStream sinkStream = new FilterOutputStream(sink.outputStream()) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+            try (InputStream inputStream = Files.newInputStream(file);
+                 GZIPOutputStream outputStream = new GZIPOutputStream(sinkStream, BUFFER_SIZE) {
+                     {
+                         def.setLevel(Deflater.BEST_SPEED);
+                     }
+                 }) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                    transferredBytes += read;
+                    int decile = totalBytes == 0 ? 10 : (int) (transferredBytes * 10 / totalBytes);
+                    if (decile > loggedDecile && log.isDebugEnabled()) {
+                        log.debug("Payload {} sent at {}% ({} / {} bytes)", file.getFileName(), decile * 10, transferredBytes, totalBytes);
+                    }
+                    loggedDecile = Math.max(loggedDecile, decile);
+                }
+            }
+        }
+    }
 }
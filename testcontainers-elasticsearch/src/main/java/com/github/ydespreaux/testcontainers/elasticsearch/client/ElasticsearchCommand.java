@@ -23,6 +23,8 @@ package com.github.ydespreaux.testcontainers.elasticsearch.client;
 import lombok.*;
 import org.springframework.util.Assert;
 
+import java.nio.file.Path;
+
 /**
  * @author Yoann Despréaux
  * @since 1.0.1
@@ -38,6 +40,10 @@ public class ElasticsearchCommand {
     private String path;
     private String json;
     private boolean skip;
+    /**
+     * File of the payload, streamed instead of the json when defined.
+     */
+    private Path payloadFile;
 
     @Override
     public String toString() {
@@ -45,6 +51,7 @@ public class ElasticsearchCommand {
                 "requestMethod=" + requestMethod +
                 ", path='" + path + '\'' +
                 ", json='" + json + '\'' +
+                ", payloadFile=" + payloadFile +
                 ", skip=" + skip +
                 '}';
     }
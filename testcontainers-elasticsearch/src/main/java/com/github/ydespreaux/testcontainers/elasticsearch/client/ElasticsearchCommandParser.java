@@ -137,7 +137,7 @@ public class ElasticsearchCommandParser {
         } else {
             try {
                 if (payload instanceof String) {
-                    esCommand.setJson(formatPayload((String) payload));
+                    setPayload(esCommand, (String) payload);
                 } else {
                     esCommand.setJson(new ObjectMapper().writeValueAsString(payload));
                 }
@@ -167,7 +167,7 @@ public class ElasticsearchCommandParser {
             String methodName = formattedCommand.substring(0, firstSeparatorIndex).trim();
             esCommand.setRequestMethod(ElasticsearchCommand.RequestMethod.valueOf(methodName.toUpperCase()));
             esCommand.setPath(formattedCommand.substring(firstSeparatorIndex + 1, secondSeparatorIndex).trim());
-            esCommand.setJson(formatPayload(formattedCommand.substring(secondSeparatorIndex + 1).trim()));
+            setPayload(esCommand, formattedCommand.substring(secondSeparatorIndex + 1).trim());
         }
 
         return esCommand;
@@ -190,20 +190,22 @@ public class ElasticsearchCommandParser {
     }
 
     /**
+     * Set the payload of the command. The file of a payload '@resource(path)' is streamed when the command is executed.
+     *
+     * @param esCommand
      * @param payload
-     * @return
      */
-    private String formatPayload(String payload) {
+    private void setPayload(ElasticsearchCommand esCommand, String payload) {
         Matcher matcher = PAYLOAD_RESOURCE_FILE.matcher(payload);
         if (matcher.find()) {
             Path resource = Paths.get(MountableFile.forClasspathResource(matcher.group(1)).getResolvedPath());
-            try {
-                return new String(Files.readAllBytes(resource));
-            } catch (IOException e) {
-                throw new ContainerLaunchException(format("Cannot read the init script file '%s'", resource.toString()), e);
+            if (!Files.isReadable(resource)) {
+                throw new ContainerLaunchException(format("Cannot read the init script file '%s'", resource.toString()));
             }
+            esCommand.setPayloadFile(resource);
+            return;
         }
-        return payload;
+        esCommand.setJson(payload);
     }
 
 }
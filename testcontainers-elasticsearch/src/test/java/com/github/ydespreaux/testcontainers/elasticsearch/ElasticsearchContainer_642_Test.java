@@ -20,8 +20,10 @@
 
 package com.github.ydespreaux.testcontainers.elasticsearch;
 
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.Response;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -32,6 +34,7 @@ import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
@@ -108,6 +111,25 @@ public class ElasticsearchContainer_642_Test {
         assertThat(response.code(), is(equalTo(200)));
     }
 
+    @Test
+    void reset() throws IOException {
+        assertThat(put("/reset_index/test_type/1?refresh=true", "{ \"name\" : \"reset\" }").isSuccessful(), is(true));
+
+        elasticContainer.reset();
+
+        assertThat(call("/reset_index/_count").body().string(), containsString("\"count\":0"));
+        assertThat(call("/load_test_index/_count").body().string(), containsString("\"count\":0"));
+        // The indices are kept
+        assertThat(call("/reset_index").code(), is(equalTo(200)));
+        // Restore the document of the init script for the other tests
+        assertThat(put("/load_test_index/test_type/2?refresh=true", "{ \"name\" : \"alex2\" }").isSuccessful(), is(true));
+    }
+
+    private Response put(String path, String json) throws IOException {
+        OkHttpClient client = createHttpClient();
+        Request request = new Request.Builder().put(RequestBody.create(MediaType.parse("application/json"), json)).url(testUrl(path)).build();
+        return client.newCall(request).execute();
+    }
 
     private Response call(String path) throws IOException {
         OkHttpClient client = createHttpClient();
@@ -23,6 +23,7 @@ package com.github.ydespreaux.testcontainers.kafka.cmd;
 import com.github.ydespreaux.testcontainers.common.cmd.AbstractCommand;
 import com.github.ydespreaux.testcontainers.kafka.containers.KafkaContainer;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -33,6 +34,8 @@ import java.util.List;
  */
 public class KafkaReadyCmd extends AbstractCommand<KafkaContainer> {
 
+    private static final Duration READY_TIMEOUT_MARGIN = Duration.ofSeconds(15);
+
     private static final int DEFAULT_TIMOUT = 30;
 
     private int timeoutInSeconds;
@@ -72,5 +75,14 @@ public class KafkaReadyCmd extends AbstractCommand<KafkaContainer> {
             );
         }
     }
-}
 
+    /**
+     * The readiness timeout of cub, with a margin for the startup of the tool.
+     *
+     * @return
+     */
+    @Override
+    protected Duration getDefaultTimeout() {
+        return Duration.ofSeconds(timeoutInSeconds).plus(READY_TIMEOUT_MARGIN);
+    }
+}
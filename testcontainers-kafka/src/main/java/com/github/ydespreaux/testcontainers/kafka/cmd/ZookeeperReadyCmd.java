@@ -26,6 +26,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -39,6 +40,8 @@ import java.util.List;
 @ToString
 public class ZookeeperReadyCmd extends AbstractCommand<ZookeeperContainer> {
 
+    private static final Duration READY_TIMEOUT_MARGIN = Duration.ofSeconds(15);
+
     private long timeoutInSeconds;
 
     public ZookeeperReadyCmd() {
@@ -58,4 +61,14 @@ public class ZookeeperReadyCmd extends AbstractCommand<ZookeeperContainer> {
                 String.valueOf(timeoutInSeconds)
         );
     }
+
+    /**
+     * The readiness timeout of cub, with a margin for the startup of the tool.
+     *
+     * @return
+     */
+    @Override
+    protected Duration getDefaultTimeout() {
+        return Duration.ofSeconds(timeoutInSeconds).plus(READY_TIMEOUT_MARGIN);
+    }
 }
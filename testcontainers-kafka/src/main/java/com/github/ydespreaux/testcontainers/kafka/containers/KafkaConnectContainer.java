@@ -21,6 +21,13 @@
 package com.github.ydespreaux.testcontainers.kafka.containers;
 
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.checks.FailFastWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerArchive;
 import com.github.ydespreaux.testcontainers.kafka.security.Certificates;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.BindMode;
@@ -104,6 +111,10 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
      * Schema registry url
      */
     private String schemaRegistryUrl;
+    /**
+     * Plugins copied in the container before start.
+     */
+    private final ContainerArchive pluginsArchive = new ContainerArchive();
 
     /**
      *
@@ -129,6 +140,7 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
      */
     public KafkaConnectContainer(String version, int restAppMappingPort) {
         super(KAFKA_CONNECT_DEFAULT_BASE_URL + ":" + version);
+        this.setImage(new CachedDockerImage(KAFKA_CONNECT_DEFAULT_BASE_URL + ":" + version));
         this.restAppMappingPort = restAppMappingPort;
         this.initConfiguration();
     }
@@ -151,7 +163,7 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
         this.withEnv(STATUS_STORAGE_REPLICATION_FACTOR_CONFIG, String.valueOf(STATUS_STORAGE_REPLICATION_FACTOR_DEFAULT_VALUE));
         this.withEnv(INTERNAL_KEY_CONVERTER_CONFIG, INTERNAL_KEY_CONVERTER_DEFAULT_VALUE);
         this.withEnv(INTERNAL_VALUE_CONVERTER_CONFIG, INTERNAL_VALUE_CONVERTER_DEFAULT_VALUE);
-        waitingFor(Wait.forHttp("/").withStartupTimeout(Duration.ofSeconds(120L)));
+        waitingFor(new FailFastWaitStrategy(Wait.forHttp("/")).withStartupTimeout(Duration.ofSeconds(120L)));
     }
 
     public KafkaConnectContainer withBrokersServerUrl(String brokersServerUrl) {
@@ -217,15 +229,31 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
         return this;
     }
 
+    /**
+     * Copy the plugins in the container.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+        this.pluginsArchive.copyTo(this.dockerClient, containerId);
+    }
+
     /**
      * Start the container
      */
     @Override
     public void start() {
-        super.start();
-        if (this.registerSpringbootProperties()) {
-            this.registerKafkaConnectEnvironment();
-        }
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            if (this.registerSpringbootProperties()) {
+                this.registerKafkaConnectEnvironment();
+            }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
     /**
@@ -376,14 +404,11 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
         if (!pluginsFile.exists()) {
             throw new IllegalArgumentException(format("Resource with path %s could not be found", pluginsPath.toString()));
         }
-        String containerPath = PLUGIN_PATH_CONTAINER;
         if (pluginsFile.isDirectory()) {
-            containerPath += "/" + pluginsPath.getFileName();
+            this.pluginsArchive.withDirectory(pluginsPath, PLUGIN_PATH_CONTAINER + "/" + pluginsPath.getFileName());
         } else {
-            containerPath += "/" + pluginsPath.getParent().getFileName() + "/" + pluginsPath.getFileName();
+            this.pluginsArchive.withFile(pluginsPath, PLUGIN_PATH_CONTAINER + "/" + pluginsPath.getParent().getFileName() + "/" + pluginsPath.getFileName());
         }
-        // Create the volume that will be need for scripts
-        this.addFileSystemBind(mountableFile.getResolvedPath(), containerPath, BindMode.READ_ONLY);
         return this;
     }
 
@@ -442,7 +467,7 @@ public class KafkaConnectContainer extends FixedHostPortGenericContainer<KafkaCo
      */
     protected void registerKafkaConnectEnvironment() {
         if (this.restAppSystemProperty != null) {
-            System.setProperty(this.restAppSystemProperty, getURL());
+            SpringbootProperties.register(this, this.restAppSystemProperty, getURL());
         }
     }
 
@@ -22,8 +22,15 @@ package com.github.ydespreaux.testcontainers.kafka.containers;
 
 import com.github.dockerjava.api.model.Link;
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.ResettableContainer;
 import com.github.ydespreaux.testcontainers.common.checks.AbstractCommandWaitStrategy;
 import com.github.ydespreaux.testcontainers.common.cmd.Command;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.kafka.cmd.AclsAddCmd;
 import com.github.ydespreaux.testcontainers.kafka.cmd.AclsOperation;
 import com.github.ydespreaux.testcontainers.kafka.cmd.KafkaReadyCmd;
@@ -33,6 +40,7 @@ import com.github.ydespreaux.testcontainers.kafka.security.CertificateUtils;
 import com.github.ydespreaux.testcontainers.kafka.security.Certificates;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
 import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.ContainerLaunchException;
 import org.testcontainers.containers.FixedHostPortGenericContainer;
@@ -54,7 +62,7 @@ import static org.springframework.util.CollectionUtils.isEmpty;
  * @since 1.0.0
  */
 @Slf4j
-public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer> implements IContainer<KafkaContainer> {
+public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer> implements IContainer<KafkaContainer>, ResettableContainer<KafkaContainer> {
 
     private static final String SECRETS_DIRECTORY = "/etc/kafka/secrets";
     private static final Command<KafkaContainer> healthCmd = new KafkaReadyCmd(10);
@@ -95,6 +103,17 @@ public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer
      */
     private final List<TopicCreateCommand> topicCmds = new ArrayList<>();
 
+    /**
+     * Strategy used to reset the data, null for the default strategy.
+     */
+    @Nullable
+    private ResetStrategy<KafkaContainer> resetStrategy;
+
+    /**
+     * Strategy used to reset the data when no strategy is set.
+     */
+    private ResetStrategy<KafkaContainer> defaultResetStrategy = new KafkaResetStrategy();
+
     /**
      *
      */
@@ -128,6 +147,7 @@ public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer
      */
     public KafkaContainer(String version, int brokersMappingPort) {
         super(KAFKA_DEFAULT_BASE_URL + ":" + version);
+        this.setImage(new CachedDockerImage(KAFKA_DEFAULT_BASE_URL + ":" + version));
         this.brokersMappingPort = brokersMappingPort;
         this.withLogConsumer(containerLogsConsumer(log));
         this.waitingFor(new AbstractCommandWaitStrategy(this) {
@@ -204,35 +224,50 @@ public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer
         return format(isSecured() ? SSL_INTERNAL_BROKERS_SERVERS : INTERNAL_BROKERS_SERVERS, this.getNetworkAliases().get(0));
     }
 
+    /**
+     * Start the clock of the startup timings.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+    }
+
     /**
      * start the container.
      */
     @Override
     public void start() {
-        super.start();
-        // Create default topics
-        if (!isEmpty(this.topicCmds)) {
-            if (log.isInfoEnabled()) {
-                log.info("Start of topics creation...");
-            }
-            executeCommands(this.topicCmds);
-            if (log.isInfoEnabled()) {
-                log.info("End of topics creation");
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            // Create default topics
+            if (!isEmpty(this.topicCmds)) {
+                if (log.isInfoEnabled()) {
+                    log.info("Start of topics creation...");
+                }
+                executeCommands(this.topicCmds);
+                if (log.isInfoEnabled()) {
+                    log.info("End of topics creation");
+                }
             }
-        }
-        if (isSecured() && !isEmpty(this.aclsCommands)) {
-            if (log.isInfoEnabled()) {
-                log.info("Start of acls creation...");
+            if (isSecured() && !isEmpty(this.aclsCommands)) {
+                if (log.isInfoEnabled()) {
+                    log.info("Start of acls creation...");
+                }
+                // Create Acls
+                executeCommands(this.aclsCommands);
+                if (log.isInfoEnabled()) {
+                    log.info("End of acls creation");
+                }
             }
-            // Create Acls
-            executeCommands(this.aclsCommands);
-            if (log.isInfoEnabled()) {
-                log.info("End of acls creation");
+            if (registerSpringbootProperties()) {
+                this.registerKafkaEnvironment();
             }
-        }
-        if (registerSpringbootProperties()) {
-            this.registerKafkaEnvironment();
-        }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
 
@@ -359,22 +394,22 @@ public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer
      * Register spring boot properties.
      */
     protected void registerKafkaEnvironment() {
-        System.setProperty(this.systemPropertyMap.get(BROKER_SERVERS_SYSTEM_PROPERTY), getURL());
+        SpringbootProperties.register(this, this.systemPropertyMap.get(BROKER_SERVERS_SYSTEM_PROPERTY), getURL());
         if (isSecured()) {
             if (this.kafkaClientCertificates == null) {
                 if (log.isWarnEnabled()) {
                     log.warn("SSL properties not set in system properties. The client certificates is not defined.");
                 }
             } else {
-                System.setProperty(this.systemPropertyMap.get(SECURITY_PROTOCOL_SYSTEM_PROPERTY), "SSL");
-                System.setProperty(this.systemPropertyMap.get(KEY_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getKeystorePassword());
-                System.setProperty(this.systemPropertyMap.get(KEYSTORE_LOCATION_SYSTEM_PROPERTY), "file:" + this.kafkaClientCertificates.getKeystorePath());
-                System.setProperty(this.systemPropertyMap.get(KEYSTORE_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getKeystorePassword());
+                SpringbootProperties.register(this, this.systemPropertyMap.get(SECURITY_PROTOCOL_SYSTEM_PROPERTY), "SSL");
+                SpringbootProperties.register(this, this.systemPropertyMap.get(KEY_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getKeystorePassword());
+                SpringbootProperties.register(this, this.systemPropertyMap.get(KEYSTORE_LOCATION_SYSTEM_PROPERTY), "file:" + this.kafkaClientCertificates.getKeystorePath());
+                SpringbootProperties.register(this, this.systemPropertyMap.get(KEYSTORE_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getKeystorePassword());
                 if (this.kafkaClientCertificates.getTruststorePath() != null) {
-                    System.setProperty(this.systemPropertyMap.get(TRUSTSTORE_LOCATION_SYSTEM_PROPERTY), "file:" + this.kafkaClientCertificates.getTruststorePath());
-                    System.setProperty(this.systemPropertyMap.get(TRUSTSTORE_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getTruststorePassword());
+                    SpringbootProperties.register(this, this.systemPropertyMap.get(TRUSTSTORE_LOCATION_SYSTEM_PROPERTY), "file:" + this.kafkaClientCertificates.getTruststorePath());
+                    SpringbootProperties.register(this, this.systemPropertyMap.get(TRUSTSTORE_PASSWORD_SYSTEM_PROPERTY), this.kafkaClientCertificates.getTruststorePassword());
                 }
-                System.setProperty(this.systemPropertyMap.get(IDENTIFICATION_ALGORITHM_SYSTEM_PROPERTY), "");
+                SpringbootProperties.register(this, this.systemPropertyMap.get(IDENTIFICATION_ALGORITHM_SYSTEM_PROPERTY), "");
             }
         }
     }
@@ -459,17 +494,53 @@ public class KafkaContainer extends FixedHostPortGenericContainer<KafkaContainer
         return self();
     }
 
+    /**
+     * Set the strategy used to reset the data.
+     *
+     * @param resetStrategy
+     * @return
+     */
+    @Override
+    public KafkaContainer withResetStrategy(ResetStrategy<KafkaContainer> resetStrategy) {
+        this.resetStrategy = Objects.requireNonNull(resetStrategy, "resetStrategy must be provided");
+        return this;
+    }
+
+    /**
+     * Set the strategy used to reset the data when no strategy is set with {@link #withResetStrategy(ResetStrategy)}.
+     *
+     * @param defaultResetStrategy
+     * @return
+     */
+    public KafkaContainer withDefaultResetStrategy(ResetStrategy<KafkaContainer> defaultResetStrategy) {
+        this.defaultResetStrategy = Objects.requireNonNull(defaultResetStrategy, "defaultResetStrategy must be provided");
+        return this;
+    }
+
+    /**
+     * Delete the records of the topics.
+     */
+    @Override
+    public void reset() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Container must be running");
+        }
+        (this.resetStrategy != null ? this.resetStrategy : this.defaultResetStrategy).reset(this);
+    }
+
     /**
      * @param cmds
      */
     private void executeCommands(List<? extends Command> cmds) {
         if (!isEmpty(cmds)) {
-            cmds.forEach(cmd -> {
-                cmd.execute(this);
-                if (log.isInfoEnabled()) {
-                    log.info("Command executed : {}", cmd.toString());
-                }
-            });
+            cmds.forEach(this::executeCommand);
+        }
+    }
+
+    private void executeCommand(Command cmd) {
+        cmd.execute(this);
+        if (log.isInfoEnabled()) {
+            log.info("Command executed : {}", cmd.toString());
         }
     }
 
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.kafka.containers;
+
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerUtils;
+import com.github.ydespreaux.testcontainers.kafka.security.Certificates;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+
+/**
+ * Reset the data of a Kafka container.
+ * <p>
+ * The records of all the topics are deleted with a single kafka-delete-records call, the topics are kept.
+ * The records of the compacted topics cannot be deleted: these topics are deleted and created again with the same
+ * partitions, replication factor and configuration.
+ * The internal topics (prefixed with '_') and the excluded topics are never purged.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class KafkaResetStrategy implements ResetStrategy<KafkaContainer> {
+
+    private static final Pattern TOPIC_PATTERN = Pattern.compile(
+            "Topic:\\s*(\\S+)\\s+PartitionCount:\\s*(\\d+)\\s+ReplicationFactor:\\s*(\\d+)\\s+Configs:[ \\t]*(\\S*)");
+    private static final String CLEANUP_POLICY = "cleanup.policy";
+    private static final int RECREATE_ATTEMPTS = 30;
+    private static final String INTERNAL_TOPIC_PREFIX = "_";
+    private static final String OFFSETS_FILE = "/tmp/testcontainers-reset-offsets.json";
+    private static final String CLIENT_CONFIG_FILE = "/tmp/testcontainers-reset-client.properties";
+    private static final String SECRETS_DIRECTORY = "/etc/kafka/secrets";
+
+    /**
+     * Topics never purged.
+     */
+    private final Set<String> excludedTopics = new HashSet<>();
+
+    /**
+     * Exclude topics from the reset.
+     *
+     * @param topics
+     * @return
+     */
+    public KafkaResetStrategy withExcludedTopics(String... topics) {
+        excludedTopics.addAll(Arrays.asList(topics));
+        return this;
+    }
+
+    @Override
+    public void reset(KafkaContainer container) {
+        long start = System.currentTimeMillis();
+        String zookeeper = container.getEnvMap().get("KAFKA_ZOOKEEPER_CONNECT");
+        List<TopicDescription> topics = parseTopics(exec(container, format("kafka-topics --zookeeper %s --describe", zookeeper))).stream()
+                .filter(topic -> !topic.getName().startsWith(INTERNAL_TOPIC_PREFIX) && !excludedTopics.contains(topic.getName()))
+                .collect(Collectors.toList());
+        List<TopicDescription> purgedTopics = topics.stream().filter(topic -> !topic.isCompacted()).collect(Collectors.toList());
+        if (!purgedTopics.isEmpty()) {
+            List<String> commands = new ArrayList<>();
+            commands.add(format("printf '%%s' %s > %s", quote(toOffsetsJson(purgedTopics)), OFFSETS_FILE));
+            String deleteRecords = format("kafka-delete-records --bootstrap-server %s --offset-json-file %s", container.getInternalURL(), OFFSETS_FILE);
+            if (container.isSecured()) {
+                commands.add(format("printf '%%s\\n' %s > %s", clientConfig(container.getKafkaServerCertificates()), CLIENT_CONFIG_FILE));
+                deleteRecords += " --command-config " + CLIENT_CONFIG_FILE;
+            }
+            commands.add(deleteRecords);
+            String output = exec(container, String.join(" && ", commands));
+            // kafka-delete-records exits with 0 even if the deletion failed for some partitions
+            if (output.contains("error:")) {
+                throw new IllegalStateException(format("Reset of container %s failed: %s", container.getContainerId(), output));
+            }
+        }
+        List<TopicDescription> compactedTopics = topics.stream().filter(TopicDescription::isCompacted).collect(Collectors.toList());
+        if (!compactedTopics.isEmpty()) {
+            exec(container, recreateTopicsCommand(zookeeper, compactedTopics));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} topics purged and {} compacted topics recreated in {} ms", purgedTopics.size(), compactedTopics.size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Parse the description of the topics.
+     *
+     * @param output the output of kafka-topics --describe
+     * @return
+     */
+    static List<TopicDescription> parseTopics(String output) {
+        List<TopicDescription> topics = new ArrayList<>();
+        Matcher matcher = TOPIC_PATTERN.matcher(output);
+        while (matcher.find()) {
+            topics.add(new TopicDescription(matcher.group(1), Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)),
+                    parseConfigs(matcher.group(4))));
+        }
+        return topics;
+    }
+
+    /**
+     * Parse the configuration of a topic, a value may contain commas (cleanup.policy=compact,delete).
+     *
+     * @param configs
+     * @return
+     */
+    private static Map<String, String> parseConfigs(String configs) {
+        Map<String, String> values = new LinkedHashMap<>();
+        String lastKey = null;
+        for (String config : configs.split(",")) {
+            int index = config.indexOf('=');
+            if (index > 0) {
+                lastKey = config.substring(0, index);
+                values.put(lastKey, config.substring(index + 1));
+            } else if (lastKey != null && !config.isEmpty()) {
+                values.put(lastKey, values.get(lastKey) + ',' + config);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Delete the topics, then create them again once the deletion is completed.
+     *
+     * @param zookeeper
+     * @param topics
+     * @return
+     */
+    static String recreateTopicsCommand(String zookeeper, List<TopicDescription> topics) {
+        List<String> commands = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            commands.add(format("kafka-topics --zookeeper %s --delete --topic %s", zookeeper, quote(topic.getName())));
+        }
+        for (TopicDescription topic : topics) {
+            StringBuilder create = new StringBuilder(format("kafka-topics --zookeeper %s --create --topic %s --partitions %d --replication-factor %d",
+                    zookeeper, quote(topic.getName()), topic.getPartitions(), topic.getReplicationFactor()));
+            topic.getConfigs().forEach((key, value) -> create.append(" --config ").append(quote(key + '=' + value)));
+            // The topic exists until the brokers completed its deletion
+            commands.add(format("(n=0; until %s; do n=$((n+1)); [ $n -ge %d ] && exit 1; sleep 1; done)", create, RECREATE_ATTEMPTS));
+        }
+        return String.join(" && ", commands);
+    }
+
+    private static String toOffsetsJson(List<TopicDescription> topics) {
+        return topics.stream()
+                .flatMap(topic -> IntStream.range(0, topic.getPartitions())
+                        .mapToObj(partition -> format("{\"topic\":\"%s\",\"partition\":%d,\"offset\":-1}", topic.getName(), partition)))
+                .collect(Collectors.joining(",", "{\"partitions\":[", "],\"version\":1}"));
+    }
+
+    /**
+     * The configuration of the admin client, authenticated with the server certificates.
+     *
+     * @param certificates
+     * @return
+     */
+    private static String clientConfig(Certificates certificates) {
+        List<String> properties = new ArrayList<>();
+        properties.add("security.protocol=SSL");
+        properties.add("ssl.endpoint.identification.algorithm=");
+        properties.add("ssl.keystore.location=" + SECRETS_DIRECTORY + "/" + certificates.getKeystorePath().getFileName());
+        properties.add("ssl.keystore.password=" + certificates.getKeystorePassword());
+        properties.add("ssl.key.password=" + certificates.getKeystorePassword());
+        if (certificates.getTruststorePath() != null) {
+            properties.add("ssl.truststore.location=" + SECRETS_DIRECTORY + "/" + certificates.getTruststorePath().getFileName());
+            properties.add("ssl.truststore.password=" + certificates.getTruststorePassword());
+        }
+        return properties.stream().map(KafkaResetStrategy::quote).collect(Collectors.joining(" "));
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    private static String exec(KafkaContainer container, String command) {
+        ContainerUtils.ExecCmdResult result = ContainerUtils.execCmd(container.getContainerId(), new String[]{"sh", "-c", command});
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException(format("Reset of container %s failed: %s", container.getContainerId(), result.getOutput()));
+        }
+        return result.getOutput();
+    }
+
+    /**
+     * Description of a topic.
+     */
+    @Value
+    static class TopicDescription {
+        String name;
+        int partitions;
+        int replicationFactor;
+        Map<String, String> configs;
+
+        /**
+         * A compacted topic without the delete policy rejects the deletion of its records.
+         *
+         * @return
+         */
+        boolean isCompacted() {
+            String policy = configs.getOrDefault(CLEANUP_POLICY, "delete");
+            return policy.contains("compact") && !policy.contains("delete");
+        }
+    }
+}
@@ -21,6 +21,12 @@
 package com.github.ydespreaux.testcontainers.kafka.containers;
 
 import com.github.ydespreaux.testcontainers.common.IContainer;
+import com.github.ydespreaux.testcontainers.common.checks.FailFastWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.kafka.security.Certificates;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -84,8 +90,9 @@ public class SchemaRegistryContainer extends FixedHostPortGenericContainer<Schem
      */
     public SchemaRegistryContainer(String version, int mappingPort) {
         super(SCHEMA_REGISTRY_DEFAULT_BASE_URL + ":" + version);
+        this.setImage(new CachedDockerImage(SCHEMA_REGISTRY_DEFAULT_BASE_URL + ":" + version));
         this.mappingPort = mappingPort;
-        waitingFor(Wait.forHttp("/"));
+        waitingFor(new FailFastWaitStrategy(Wait.forHttp("/")));
     }
 
     /**
@@ -169,16 +176,31 @@ public class SchemaRegistryContainer extends FixedHostPortGenericContainer<Schem
         return this;
     }
 
+    /**
+     * Start the clock of the startup timings.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+    }
+
     /**
      * Start the container.
      *
      */
     @Override
     public void start() {
-        super.start();
-        if (registerSpringbootProperties()) {
-            this.registerSchemaRegistryEnvironment();
-        }
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            if (registerSpringbootProperties()) {
+                this.registerSchemaRegistryEnvironment();
+            }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
     /**
@@ -186,7 +208,7 @@ public class SchemaRegistryContainer extends FixedHostPortGenericContainer<Schem
      */
     protected void registerSchemaRegistryEnvironment() {
         if (this.schemaRegistrySystemProperty != null) {
-            System.setProperty(this.schemaRegistrySystemProperty, getURL());
+            SpringbootProperties.register(this, this.schemaRegistrySystemProperty, getURL());
         }
     }
 
@@ -23,6 +23,10 @@ package com.github.ydespreaux.testcontainers.kafka.containers;
 import com.github.ydespreaux.testcontainers.common.IContainer;
 import com.github.ydespreaux.testcontainers.common.checks.AbstractCommandWaitStrategy;
 import com.github.ydespreaux.testcontainers.common.cmd.Command;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.kafka.cmd.ZookeeperReadyCmd;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -68,6 +72,7 @@ public class ZookeeperContainer extends FixedHostPortGenericContainer<ZookeeperC
      */
     public ZookeeperContainer(String version, int zookeeperPort) {
         super(ZOOKEEPER_DEFAULT_BASE_URL + ":" + version);
+        this.setImage(new CachedDockerImage(ZOOKEEPER_DEFAULT_BASE_URL + ":" + version));
         this.mappingPort = zookeeperPort;
         this.waitingFor(new AbstractCommandWaitStrategy(this) {
             /**
@@ -94,6 +99,29 @@ public class ZookeeperContainer extends FixedHostPortGenericContainer<ZookeeperC
                 .withCreateContainerCmdModifier(createContainerCmd -> createContainerCmd.withName("testcontainsers-zookeeper-" + UUID.randomUUID()));
     }
 
+    /**
+     * Start the clock of the startup timings.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+    }
+
+    /**
+     * Start the container.
+     */
+    @Override
+    public void start() {
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            StartupTimings.getInstance().record(this);
+        });
+    }
+
     /**
      * @param registerProperties
      * @return
@@ -21,9 +21,17 @@
 package com.github.ydespreaux.testcontainers.kafka.rule;
 
 
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.kafka.containers.KafkaConnectContainer;
+import com.github.ydespreaux.testcontainers.kafka.containers.KafkaResetStrategy;
 import com.github.ydespreaux.testcontainers.kafka.security.Certificates;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Define the environment for kafka connect container.
  * This class is used to start a zookeeper container, a kafka container, a schema registry container if it is enabled,
@@ -60,27 +68,40 @@ public class ConfluentKafkaConnectContainer extends ConfluentKafkaContainer<Conf
      */
     @Override
     public void start() {
-        super.start();
-        kafkaConnectContainer
-                .withNetwork(getNetwork())
-                .withBrokersServerUrl(this.getKafkaContainer().getInternalURL())
-                .withServerCertificates(this.kafkaConnectCertificates == null ? this.getKafkaServerCertificates() : this.kafkaConnectCertificates);
-        if (this.isSchemaRegistryEnabled()) {
-            kafkaConnectContainer.withSchemaRegistryUrl(this.getSchemaRegistryContainer().getInternalURL());
+        Tracing.getInstance().trace("start " + ConfluentKafkaConnectContainer.class.getSimpleName(), () -> {
+            super.start();
+            kafkaConnectContainer
+                    .withNetwork(getNetwork())
+                    .withBrokersServerUrl(this.getKafkaContainer().getInternalURL())
+                    .withServerCertificates(this.kafkaConnectCertificates == null ? this.getKafkaServerCertificates() : this.kafkaConnectCertificates);
+            if (this.isSchemaRegistryEnabled()) {
+                kafkaConnectContainer.withSchemaRegistryUrl(this.getSchemaRegistryContainer().getInternalURL());
 
-        }
-        kafkaConnectContainer.start();
+            }
+            kafkaConnectContainer.start();
+            // The storage topics of kafka connect must survive a reset, unless a reset strategy is set
+            Map<String, String> env = kafkaConnectContainer.getEnvMap();
+            getKafkaContainer().withDefaultResetStrategy(new KafkaResetStrategy().withExcludedTopics(
+                    env.get(KafkaConnectContainer.CONFIG_STORAGE_TOPIC_CONFIG),
+                    env.get(KafkaConnectContainer.OFFSET_STORAGE_TOPIC_CONFIG),
+                    env.get(KafkaConnectContainer.STATUS_STORAGE_TOPIC_CONFIG)));
+        });
+    }
+
+    @Override
+    public Collection<?> getMembers() {
+        List<Object> members = new ArrayList<>(super.getMembers());
+        members.add(kafkaConnectContainer);
+        return members;
     }
 
     /**
-     * Destroy all containers.
+     * The kafka connect container is stopped before the containers it depends on.
      */
     @Override
-    public void stop() {
-        if (kafkaConnectContainer != null && kafkaConnectContainer.isRunning()) {
-            kafkaConnectContainer.stop();
-        }
-        super.stop();
+    protected void addTeardownStages(TeardownCoordinator teardown) {
+        teardown.withStage(runningOrNull(kafkaConnectContainer));
+        super.addTeardownStages(teardown);
     }
 
 
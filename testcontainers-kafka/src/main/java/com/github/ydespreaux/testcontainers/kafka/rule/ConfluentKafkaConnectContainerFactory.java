@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.kafka.rule;
+
+import com.github.ydespreaux.testcontainers.common.environment.ContainerDescriptor;
+import com.github.ydespreaux.testcontainers.common.environment.ContainerFactory;
+import com.github.ydespreaux.testcontainers.common.environment.Environment;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Create the Confluent containers with a kafka connect container of an environment.
+ * <p>
+ * Properties: the properties of the kafka type, plugins (one or more), groupId, keyConverter, valueConverter.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class ConfluentKafkaConnectContainerFactory implements ContainerFactory {
+
+    public static final String TYPE = "kafka-connect";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Startable create(ContainerDescriptor descriptor, Environment environment) {
+        ConfluentKafkaConnectContainer container = descriptor.getVersion() == null
+                ? new ConfluentKafkaConnectContainer()
+                : new ConfluentKafkaConnectContainer(descriptor.getVersion());
+        ConfluentKafkaContainerFactory.configure(container, descriptor, environment);
+        descriptor.getStringList("plugins").forEach(container::withPlugins);
+        if (descriptor.getString("groupId") != null) {
+            container.withGroupId(descriptor.getString("groupId"));
+        }
+        if (descriptor.getString("keyConverter") != null) {
+            container.withKeyConverter(descriptor.getString("keyConverter"));
+        }
+        if (descriptor.getString("valueConverter") != null) {
+            container.withValueConverter(descriptor.getString("valueConverter"));
+        }
+        return container;
+    }
+}
@@ -20,6 +20,10 @@
 
 package com.github.ydespreaux.testcontainers.kafka.rule;
 
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.network.NetworkRegistry;
+import com.github.ydespreaux.testcontainers.common.spring.ContainerGroup;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
 import com.github.ydespreaux.testcontainers.kafka.cmd.AclsAddCmd;
 import com.github.ydespreaux.testcontainers.kafka.cmd.AclsOperation;
 import com.github.ydespreaux.testcontainers.kafka.config.TopicConfiguration;
@@ -31,12 +35,15 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.rules.ExternalResource;
 import org.springframework.util.StringUtils;
+import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import static com.github.ydespreaux.testcontainers.common.utils.ContainerUtils.getContainerHostname;
 
@@ -50,7 +57,7 @@ import static com.github.ydespreaux.testcontainers.common.utils.ContainerUtils.g
  * @since 1.0.0
  */
 @Slf4j
-public class ConfluentKafkaContainer<S extends ConfluentKafkaContainer<S>> extends ExternalResource implements ConfluentContainer<S> {
+public class ConfluentKafkaContainer<S extends ConfluentKafkaContainer<S>> extends ExternalResource implements ConfluentContainer<S>, ContainerGroup {
 
     static final String CONFLUENT_DEFAULT_VERSION = "5.1.2";
 
@@ -65,6 +72,18 @@ public class ConfluentKafkaContainer<S extends ConfluentKafkaContainer<S>> exten
      */
     @Getter
     private Network network;
+    /**
+     * Name of the shared network used when no network is defined.
+     */
+    private String sharedNetworkName = NetworkRegistry.DEFAULT_NETWORK;
+    /**
+     * True if the network has been acquired from the network registry.
+     */
+    private boolean sharedNetworkAcquired;
+    /**
+     * Kill the containers on stop instead of stopping them gracefully.
+     */
+    private boolean killOnStop;
     /**
      * Define the zookeeper container.
      */
@@ -173,6 +192,30 @@ public class ConfluentKafkaContainer<S extends ConfluentKafkaContainer<S>> exten
         return self();
     }
 
+    /**
+     * Set the name of the shared network used when no network is defined.
+     * The network is acquired from the {@link NetworkRegistry} on start and released on stop.
+     *
+     * @param name
+     * @return
+     */
+    public S withSharedNetwork(String name) {
+        this.sharedNetworkName = name;
+        return self();
+    }
+
+    /**
+     * Kill the containers on stop instead of stopping them gracefully.
+     * Suitable for throwaway containers whose data is not reused.
+     *
+     * @param killOnStop
+     * @return
+     */
+    public S withKillOnStop(boolean killOnStop) {
+        this.killOnStop = killOnStop;
+        return self();
+    }
+
     public S withBrokerServersSystemProperty(String property) {
         this.kafkaContainer.withBrokerServersSystemProperty(property);
         return self();
@@ -383,42 +426,85 @@ public class ConfluentKafkaContainer<S extends ConfluentKafkaContainer<S>> exten
 
     @Override
     public void start() {
-        if (this.network == null) {
-            withNetwork(Network.newNetwork());
-        }
-
-        zookeeperContainer.withNetwork(network);
-        zookeeperContainer.start();
+        Tracing.getInstance().trace("start " + ConfluentKafkaContainer.class.getSimpleName(), () -> {
+            if (this.network == null) {
+                withNetwork(NetworkRegistry.getInstance().acquire(this.sharedNetworkName));
+                this.sharedNetworkAcquired = true;
+            }
 
-        kafkaContainer.withZookeeperHostname(getContainerHostname(zookeeperContainer))
-                .withZookeeperPort(zookeeperContainer.getMappingPort())
-                .withNetwork(network);
-        kafkaContainer.start();
+            zookeeperContainer.withNetwork(network);
+            zookeeperContainer.start();
 
-        if (this.schemaRegistryEnabled) {
-            schemaRegistryContainer = new SchemaRegistryContainer(this.confluentVersion)
-                    .withRegisterSpringbootProperties(kafkaContainer.registerSpringbootProperties())
-                    .withServerCertificates(kafkaContainer.getKafkaServerCertificates())
-                    .withZookeeperInternalURL(zookeeperContainer.getInternalURL())
-                    .withBootstrapServersInternalURL(kafkaContainer.getInternalURL())
+            kafkaContainer.withZookeeperHostname(getContainerHostname(zookeeperContainer))
+                    .withZookeeperPort(zookeeperContainer.getMappingPort())
                     .withNetwork(network);
-            if (StringUtils.hasText(this.schemaRegistrySystemProperty)) {
-                schemaRegistryContainer.withSchemaRegistrySystemProperty(this.schemaRegistrySystemProperty);
+            kafkaContainer.start();
+
+            if (this.schemaRegistryEnabled) {
+                schemaRegistryContainer = new SchemaRegistryContainer(this.confluentVersion)
+                        .withRegisterSpringbootProperties(kafkaContainer.registerSpringbootProperties())
+                        .withServerCertificates(kafkaContainer.getKafkaServerCertificates())
+                        .withZookeeperInternalURL(zookeeperContainer.getInternalURL())
+                        .withBootstrapServersInternalURL(kafkaContainer.getInternalURL())
+                        .withNetwork(network);
+                if (StringUtils.hasText(this.schemaRegistrySystemProperty)) {
+                    schemaRegistryContainer.withSchemaRegistrySystemProperty(this.schemaRegistrySystemProperty);
+                }
+                schemaRegistryContainer.start();
             }
-            schemaRegistryContainer.start();
-        }
+        });
     }
 
+    /**
+     * Get the containers started by this resource.
+     *
+     * @return
+     */
+    @Override
+    public Collection<?> getMembers() {
+        return Arrays.asList(zookeeperContainer, kafkaContainer, schemaRegistryContainer);
+    }
+
+    /**
+     * Delete the records of the topics, without restarting the containers.
+     */
+    public void reset() {
+        this.kafkaContainer.reset();
+    }
+
+    /**
+     * Stop the containers in reverse dependency order. The containers are removed asynchronously,
+     * the shared network is released once all the containers are removed.
+     */
     @Override
     public void stop() {
-        if (schemaRegistryContainer != null && schemaRegistryContainer.isRunning()) {
-            this.schemaRegistryContainer.stop();
-        }
-        if (kafkaContainer != null && kafkaContainer.isRunning()) {
-            kafkaContainer.stop();
-        }
-        if (zookeeperContainer != null && zookeeperContainer.isRunning()) {
-            zookeeperContainer.stop();
+        TeardownCoordinator teardown = new TeardownCoordinator().withKill(this.killOnStop);
+        addTeardownStages(teardown);
+        CompletableFuture<Void> removal = teardown.teardown();
+        if (this.sharedNetworkAcquired) {
+            String networkName = this.sharedNetworkName;
+            removal.whenComplete((removed, failure) -> NetworkRegistry.getInstance().release(networkName));
+            this.sharedNetworkAcquired = false;
+            this.network = null;
         }
     }
+
+    /**
+     * Add the running containers to the teardown, in stop order.
+     *
+     * @param teardown
+     */
+    protected void addTeardownStages(TeardownCoordinator teardown) {
+        teardown.withStage(runningOrNull(schemaRegistryContainer))
+                .withStage(runningOrNull(kafkaContainer))
+                .withStage(runningOrNull(zookeeperContainer));
+    }
+
+    /**
+     * @param container
+     * @return the container if it is running, null otherwise
+     */
+    protected static <T extends GenericContainer<?>> T runningOrNull(T container) {
+        return container != null && container.isRunning() ? container : null;
+    }
 }
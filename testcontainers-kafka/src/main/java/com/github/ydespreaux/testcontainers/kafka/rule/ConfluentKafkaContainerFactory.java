@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.kafka.rule;
+
+import com.github.ydespreaux.testcontainers.common.environment.ContainerDescriptor;
+import com.github.ydespreaux.testcontainers.common.environment.ContainerFactory;
+import com.github.ydespreaux.testcontainers.common.environment.Environment;
+import com.github.ydespreaux.testcontainers.kafka.config.TopicConfiguration;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Create the Confluent containers (zookeeper, kafka and schema registry) of an environment.
+ * <p>
+ * Properties: schemaRegistry, formatMessageVersion, topics (list of name, partitions, compact).
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class ConfluentKafkaContainerFactory implements ContainerFactory {
+
+    public static final String TYPE = "kafka";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Startable create(ContainerDescriptor descriptor, Environment environment) {
+        ConfluentKafkaContainer<?> container = descriptor.getVersion() == null
+                ? new ConfluentKafkaContainer<>()
+                : new ConfluentKafkaContainer<>(descriptor.getVersion());
+        configure(container, descriptor, environment);
+        return container;
+    }
+
+    /**
+     * Configure the confluent containers.
+     *
+     * @param container
+     * @param descriptor
+     * @param environment
+     */
+    static void configure(ConfluentKafkaContainer<?> container, ContainerDescriptor descriptor, Environment environment) {
+        container.withNetwork(environment.getNetwork())
+                .withRegisterSpringbootProperties(descriptor.isRegisterSpringbootProperties())
+                .withSchemaRegistry(descriptor.getBoolean("schemaRegistry", false));
+        if (descriptor.getString("formatMessageVersion") != null) {
+            container.withFormatMessageVersion(descriptor.getString("formatMessageVersion"));
+        }
+        descriptor.getObjectList("topics").forEach(topic -> container.withTopic(toTopic(descriptor, topic)));
+    }
+
+    private static TopicConfiguration toTopic(ContainerDescriptor descriptor, Map<String, Object> topic) {
+        Object name = topic.get("name");
+        if (name == null) {
+            throw new IllegalArgumentException(format("A topic of container %s must define a name", descriptor.getName()));
+        }
+        TopicConfiguration configuration = new TopicConfiguration();
+        configuration.setName(name.toString());
+        if (topic.get("partitions") != null) {
+            configuration.setPartitions(Integer.parseInt(topic.get("partitions").toString()));
+        }
+        if (topic.get("compact") != null) {
+            configuration.setCompact(Boolean.parseBoolean(topic.get("compact").toString()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.kafka.containers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class KafkaResetStrategyTest {
+
+    private static final String DESCRIBE_OUTPUT = "Topic:orders\tPartitionCount:2\tReplicationFactor:1\tConfigs:\n" +
+            "\tTopic: orders\tPartition: 0\tLeader: 1\tReplicas: 1\tIsr: 1\n" +
+            "\tTopic: orders\tPartition: 1\tLeader: 1\tReplicas: 1\tIsr: 1\n" +
+            "Topic:customers\tPartitionCount:1\tReplicationFactor:1\tConfigs:cleanup.policy=compact,min.cleanable.dirty.ratio=0.01\n" +
+            "\tTopic: customers\tPartition: 0\tLeader: 1\tReplicas: 1\tIsr: 1\n" +
+            "Topic:events\tPartitionCount:1\tReplicationFactor:1\tConfigs:cleanup.policy=compact,delete\n" +
+            "\tTopic: events\tPartition: 0\tLeader: 1\tReplicas: 1\tIsr: 1\n";
+
+    @Test
+    void parseTopics() {
+        List<KafkaResetStrategy.TopicDescription> topics = KafkaResetStrategy.parseTopics(DESCRIBE_OUTPUT);
+        assertThat(topics, hasSize(3));
+        assertThat(topics.get(0).getName(), is(equalTo("orders")));
+        assertThat(topics.get(0).getPartitions(), is(equalTo(2)));
+        assertThat(topics.get(0).getConfigs().isEmpty(), is(true));
+        assertThat(topics.get(0).isCompacted(), is(false));
+        assertThat(topics.get(1).getConfigs(), hasEntry("min.cleanable.dirty.ratio", "0.01"));
+        assertThat(topics.get(1).isCompacted(), is(true));
+        assertThat(topics.get(2).getConfigs(), hasEntry("cleanup.policy", "compact,delete"));
+        assertThat(topics.get(2).isCompacted(), is(false));
+    }
+
+    @Test
+    void recreateCompactedTopics() {
+        KafkaResetStrategy.TopicDescription topic = KafkaResetStrategy.parseTopics(DESCRIBE_OUTPUT).get(1);
+        String command = KafkaResetStrategy.recreateTopicsCommand("zookeeper:2181", Collections.singletonList(topic));
+        assertThat(command, startsWith("kafka-topics --zookeeper zookeeper:2181 --delete --topic 'customers' && "));
+        assertThat(command, containsString("--create --topic 'customers' --partitions 1 --replication-factor 1"
+                + " --config 'cleanup.policy=compact' --config 'min.cleanable.dirty.ratio=0.01'"));
+    }
+}
@@ -25,12 +25,27 @@ import com.github.ydespreaux.testcontainers.kafka.config.TopicConfiguration;
 import kafka.admin.AdminUtils;
 import kafka.utils.ZkUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -77,5 +92,42 @@ public class ConfluentKafkaContainerTest {
         assertThat(exists, is(true));
     }
 
+    @Test
+    void reset() throws Exception {
+        Map<String, Object> producerProperties = new HashMap<>();
+        producerProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, container.getBootstrapServers());
+        try (Producer<String, String> producer = new KafkaProducer<>(producerProperties, new StringSerializer(), new StringSerializer())) {
+            for (int i = 0; i < 10; i++) {
+                producer.send(new ProducerRecord<>("topic1", "key" + i, "value" + i)).get();
+                producer.send(new ProducerRecord<>("topic2-compact", "key" + i, "value" + i)).get();
+            }
+        }
+        assertThat(consumeAll("topic1"), is(equalTo(10)));
+
+        container.reset();
+
+        assertThat(consumeAll("topic1"), is(equalTo(0)));
+        assertThat(consumeAll("topic2-compact"), is(equalTo(0)));
+        // The compacted topic is created again
+        ZkUtils zkUtils = ZkUtils.apply(container.getZookeeperServer(), 6000, 6000, false);
+        assertThat(AdminUtils.topicExists(zkUtils, "topic2-compact"), is(true));
+    }
+
+    private int consumeAll(String topic) {
+        Map<String, Object> consumerProperties = new HashMap<>();
+        consumerProperties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, container.getBootstrapServers());
+        consumerProperties.put(ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString());
+        consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        int count = 0;
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(consumerProperties, new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(Collections.singletonList(topic));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (System.currentTimeMillis() < deadline) {
+                count += consumer.poll(500).count();
+            }
+        }
+        return count;
+    }
+
 
 }
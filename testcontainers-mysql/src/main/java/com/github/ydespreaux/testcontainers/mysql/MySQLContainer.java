@@ -20,9 +20,26 @@
 
 package com.github.ydespreaux.testcontainers.mysql;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.ydespreaux.testcontainers.common.HealthCheckedContainer;
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import com.github.ydespreaux.testcontainers.common.ResettableContainer;
+import com.github.ydespreaux.testcontainers.common.ReusableContainer;
+import com.github.ydespreaux.testcontainers.common.checks.HealthCheck;
+import com.github.ydespreaux.testcontainers.common.checks.HealthStatusWaitStrategy;
+import com.github.ydespreaux.testcontainers.common.docker.CachedDockerImage;
+import com.github.ydespreaux.testcontainers.common.docker.HealthCheckImage;
 import com.github.ydespreaux.testcontainers.common.jdbc.AbstractJdbcContainer;
+import com.github.ydespreaux.testcontainers.common.jdbc.JdbcFixtureEngine;
+import com.github.ydespreaux.testcontainers.common.jdbc.SqlScriptGroup;
+import com.github.ydespreaux.testcontainers.common.lifecycle.ContainerReuse;
+import com.github.ydespreaux.testcontainers.common.lifecycle.TeardownCoordinator;
+import com.github.ydespreaux.testcontainers.common.spring.SpringbootProperties;
+import com.github.ydespreaux.testcontainers.common.startup.StartupTimings;
+import com.github.ydespreaux.testcontainers.common.tracing.Tracing;
+import com.github.ydespreaux.testcontainers.common.utils.ContainerArchive;
 import lombok.extern.slf4j.Slf4j;
-import org.testcontainers.containers.BindMode;
+import org.springframework.lang.Nullable;
 import org.testcontainers.shaded.org.apache.commons.io.FilenameUtils;
 import org.testcontainers.utility.MountableFile;
 
@@ -31,10 +48,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -48,7 +71,7 @@ import static java.lang.String.format;
  * @since 1.0.0
  */
 @Slf4j
-public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
+public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> implements ResettableContainer<MySQLContainer>, ReusableContainer<MySQLContainer>, HealthCheckedContainer<MySQLContainer> {
 
     private static final String DRIVER_CLASS_NAME = "com.mysql.jdbc.Driver";
     private static final String DRIVER_V8_CLASS_NAME = "com.mysql.cj.jdbc.Driver";
@@ -67,6 +90,8 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
     private static final Integer MYSQL_PORT = 3306;
 
     private static final String MYSQL_INIT_DIRECTORY = "/docker-entrypoint-initdb.d";
+    private static final String JDBC_INITIALIZATION_QUERY_STRING = "?rewriteBatchedStatements=true";
+    private static final int DEFAULT_STARTUP_TIMEOUT_SECONDS = 120;
 
     private String rootPassword = UUID.randomUUID().toString();
 
@@ -77,11 +102,57 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
 
     private String driverClassName;
 
+    /**
+     * Version of MySQL.
+     */
+    private final String version;
+
+    /**
+     * Performance profile of the server.
+     */
+    private MySQLPerformanceProfile performanceProfile = MySQLPerformanceProfile.fromSystemProperty();
+
     /**
      *
      */
     private AtomicInteger counterFile = new AtomicInteger(0);
 
+    /**
+     * Init scripts copied in the container before start.
+     */
+    private final ContainerArchive initScripts = new ContainerArchive();
+
+    /**
+     * Plan of the init scripts executed from the host.
+     */
+    private final MySQLJdbcInitPlan jdbcInitPlan = new MySQLJdbcInitPlan();
+
+    /**
+     * Execute the init scripts from the host through JDBC instead of the docker entrypoint.
+     */
+    private boolean jdbcInitialization = false;
+
+    /**
+     * Reuse of the container across JVM runs.
+     */
+    private final ContainerReuse reuse = new ContainerReuse(this, "MYSQL_PASSWORD", "MYSQL_ROOT_PASSWORD");
+
+    /**
+     * Strategy used to reset the data.
+     */
+    private ResetStrategy<MySQLContainer> resetStrategy = new MySQLResetStrategy();
+
+    /**
+     * Health check run by the docker daemon, null if the startup is only checked with a JDBC connection.
+     */
+    @Nullable
+    private HealthCheck healthCheck;
+
+    /**
+     * Timeout of the startup, also the start period of the health check.
+     */
+    private int startupTimeoutSeconds = DEFAULT_STARTUP_TIMEOUT_SECONDS;
+
     /**
      *
      */
@@ -100,7 +171,8 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
      * @param version
      */
     public MySQLContainer(String baseUrl, String version) {
-        super(baseUrl + ":" + version);
+        super(new CachedDockerImage(baseUrl + ":" + version));
+        this.version = version;
         this.withUsername("db_user_test");
         this.withPassword(UUID.randomUUID().toString());
         this.withDatabaseName("db_test");
@@ -143,6 +215,24 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
                 .withCreateContainerCmdModifier(createContainerCmd -> createContainerCmd.withName("testcontainsers-mysql-" + UUID.randomUUID()));
         this.optionallyMapResourceParameterAsVolume(MY_CNF_CONFIG_OVERRIDE_PARAM_NAME, "/etc/mysql/conf.d", "mysql-default-conf");
         this.setStartupAttempts(1);
+        this.setCommandParts(this.performanceProfile.applyTo(this.getCommandParts(), this.version));
+        if (this.healthCheck != null) {
+            if (!(this.getImage() instanceof HealthCheckImage)) {
+                this.setImage(new HealthCheckImage(this.getImage(), this.healthCheck));
+            }
+            this.waitingFor(new HealthStatusWaitStrategy().withStartupTimeout(Duration.ofSeconds(this.startupTimeoutSeconds)));
+        }
+    }
+
+    /**
+     * Wait for the health status of the container before checking the JDBC connection.
+     */
+    @Override
+    protected void waitUntilContainerStarted() {
+        if (this.healthCheck != null) {
+            this.getWaitStrategy().waitUntilReady(this);
+        }
+        super.waitUntilContainerStarted();
     }
 
     /**
@@ -197,15 +287,75 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         return "SELECT 1";
     }
 
+    /**
+     * Copy the init scripts in the container.
+     *
+     * @param containerId
+     */
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        StartupTimings.getInstance().created(this);
+        if (!this.jdbcInitialization) {
+            this.initScripts.copyTo(this.dockerClient, containerId);
+        }
+    }
+
+    /**
+     * Execute the init scripts from the host if the JDBC initialization is enabled.
+     *
+     * @param containerInfo
+     */
+    @Override
+    protected void containerIsStarted(InspectContainerResponse containerInfo) {
+        super.containerIsStarted(containerInfo);
+        if (this.jdbcInitialization) {
+            executeJdbcInitScripts();
+        }
+    }
+
+    /**
+     * Execute the phases of the init scripts in order, the groups of a phase concurrently.
+     */
+    private void executeJdbcInitScripts() {
+        long startNanos = System.nanoTime();
+        JdbcFixtureEngine engine = new JdbcFixtureEngine(this::createRootConnection);
+        int count = 0;
+        for (List<SqlScriptGroup> phase : this.jdbcInitPlan.getPhases()) {
+            count += engine.execute(phase);
+        }
+        log.info("{} init statements executed from the host in {} ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Open a connection with the root user, as the docker entrypoint executing the init scripts.
+     *
+     * @return
+     * @throws SQLException
+     */
+    private Connection createRootConnection() throws SQLException {
+        Properties info = new Properties();
+        info.put("user", "root");
+        info.put("password", this.getRootPassword());
+        String queryString = DRIVER_V8_CLASS_NAME.equals(this.driverClassName)
+                ? JDBC_INITIALIZATION_QUERY_STRING + "&allowPublicKeyRetrieval=true"
+                : JDBC_INITIALIZATION_QUERY_STRING;
+        return this.getJdbcDriverInstance().connect(this.constructUrlForConnection(queryString), info);
+    }
+
     /**
      * Start the container.
      */
     @Override
     public void start() {
-        super.start();
-        if (registerSpringbootProperties()) {
-            registerMySqlEnvironment();
-        }
+        TeardownCoordinator.awaitRemoval(this);
+        Tracing.getInstance().trace("start " + getClass().getSimpleName(), () -> {
+            super.start();
+            if (registerSpringbootProperties()) {
+                registerMySqlEnvironment();
+            }
+            StartupTimings.getInstance().record(this);
+        });
     }
 
     public MySQLContainer withConfigurationOverride(String s) {
@@ -213,6 +363,33 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         return this.self();
     }
 
+    /**
+     * Execute the init scripts from the host through JDBC instead of the docker entrypoint: the server is started
+     * without scripts, then the scripts are executed with batches of statements. The files and the directories are
+     * executed in the order they are added. The scripts at the root of a directory are executed first, in order, then
+     * its sub directories are executed concurrently, each on its own connection.
+     *
+     * @param jdbcInitialization
+     * @return
+     */
+    public MySQLContainer withJdbcInitialization(boolean jdbcInitialization) {
+        this.jdbcInitialization = jdbcInitialization;
+        return this.self();
+    }
+
+    /**
+     * Set the performance profile of the server. The options of the profile are appended to the command of the container,
+     * the options already set by the command are kept.
+     * By default, the profile is defined by the system property testcontainers.mysql.performance-profile.
+     *
+     * @param performanceProfile
+     * @return
+     */
+    public MySQLContainer withPerformanceProfile(MySQLPerformanceProfile performanceProfile) {
+        this.performanceProfile = Objects.requireNonNull(performanceProfile, "performanceProfile must be provided");
+        return this.self();
+    }
+
     /**
      * Set the root password.
      *
@@ -224,6 +401,18 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         return this.self();
     }
 
+    /**
+     * Set the timeout of the startup.
+     *
+     * @param startupTimeoutSeconds
+     * @return
+     */
+    @Override
+    public MySQLContainer withStartupTimeoutSeconds(int startupTimeoutSeconds) {
+        this.startupTimeoutSeconds = startupTimeoutSeconds;
+        return super.withStartupTimeoutSeconds(startupTimeoutSeconds);
+    }
+
     /**
      * Add the sql file script
      *
@@ -243,8 +432,8 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         if (toFile.isDirectory()) {
             throw new IllegalArgumentException(format("Resource with path %s must be a file", scriptsDir.toString()));
         }
-        // Create the volume that will be need for scripts
-        this.addFileSystemBind(mountableFile.getResolvedPath(), MYSQL_INIT_DIRECTORY + "/" + generateFile(scriptsDir), BindMode.READ_ONLY);
+        this.initScripts.withFile(scriptsDir, MYSQL_INIT_DIRECTORY + "/" + generateFile(scriptsDir));
+        this.jdbcInitPlan.addFile(scriptsDir);
         return this.self();
     }
 
@@ -269,6 +458,7 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         }
         // Add all scripts in cqlScripts attribute
         scanScripts(scriptsDir);
+        this.jdbcInitPlan.addDirectory(scriptsDir);
         return this.self();
     }
 
@@ -284,9 +474,7 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
                     .sorted()
                     .forEach(path -> {
                         if (path.toFile().isFile()) {
-                            MountableFile mountableFile = MountableFile.forHostPath(path);
-                            // Create the volume that will be need for scripts
-                            this.addFileSystemBind(mountableFile.getResolvedPath(), MYSQL_INIT_DIRECTORY + '/' + generateFile(path), BindMode.READ_ONLY);
+                            this.initScripts.withFile(path, MYSQL_INIT_DIRECTORY + '/' + generateFile(path));
                         } else {
                             scanScripts(path);
                         }
@@ -306,15 +494,122 @@ public class MySQLContainer extends AbstractJdbcContainer<MySQLContainer> {
         return counterFile.incrementAndGet() + "_" + path.getFileName();
     }
 
+    /**
+     * Enable the reuse of a running container with the same configuration.
+     * By default, the reuse is enabled by the system property testcontainers.reuse.enable.
+     *
+     * @param reuse
+     * @return
+     */
+    @Override
+    public MySQLContainer withReuse(boolean reuse) {
+        this.reuse.setEnabled(reuse);
+        return this.self();
+    }
+
+    /**
+     * Wait for the health status of the container computed by the docker daemon with mysqladmin ping.
+     * The TCP connection is refused until the server started by the entrypoint after the initialization scripts is up.
+     *
+     * @param healthCheck
+     * @return
+     */
+    @Override
+    public MySQLContainer withHealthCheck(boolean healthCheck) {
+        return this.withHealthCheck(healthCheck
+                ? new HealthCheck("mysqladmin ping -h 127.0.0.1 -uroot -p\"$MYSQL_ROOT_PASSWORD\" --silent")
+                .withInterval(Duration.ofSeconds(1))
+                .withTimeout(Duration.ofSeconds(5))
+                .withStartPeriod(Duration.ofSeconds(this.startupTimeoutSeconds))
+                .withRetries(3)
+                : null);
+    }
+
+    /**
+     * Wait for the health status of the container computed by the docker daemon with a specific check.
+     *
+     * @param healthCheck the check, null to check the startup with a JDBC connection only
+     * @return
+     */
+    @Override
+    public MySQLContainer withHealthCheck(@Nullable HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+        return this.self();
+    }
+
+    /**
+     * Reattach a running container with the same configuration, or create a new container.
+     */
+    @Override
+    protected void doStart() {
+        String reusedContainerId = this.reuse.find(this::configure, this.initScripts.getFingerprint(), "jdbcInitialization=" + this.jdbcInitialization);
+        if (reusedContainerId == null) {
+            super.doStart();
+            return;
+        }
+        this.containerId = reusedContainerId;
+        this.containerName = this.reuse.getReattachedContainerInfo().getName();
+        // The generated passwords are those of the reattached container
+        this.withPassword(this.reuse.getReattachedEnv("MYSQL_PASSWORD"));
+        this.rootPassword = this.reuse.getReattachedEnv("MYSQL_ROOT_PASSWORD");
+    }
+
+    /**
+     * Get the description of the container, the reattached container if the container is reused.
+     *
+     * @return
+     */
+    @Override
+    public InspectContainerResponse getContainerInfo() {
+        InspectContainerResponse reattachedContainerInfo = this.reuse.getReattachedContainerInfo();
+        return reattachedContainerInfo != null ? reattachedContainerInfo : super.getContainerInfo();
+    }
+
+    /**
+     * Stop the container. A reused container is left running.
+     */
+    @Override
+    public void stop() {
+        if (this.containerId != null && ContainerReuse.isReused(this)) {
+            log.info("Container {} is reused and left running", this.containerId);
+            this.containerId = null;
+            return;
+        }
+        super.stop();
+    }
+
+    /**
+     * Set the strategy used to reset the data.
+     *
+     * @param resetStrategy
+     * @return
+     */
+    @Override
+    public MySQLContainer withResetStrategy(ResetStrategy<MySQLContainer> resetStrategy) {
+        this.resetStrategy = Objects.requireNonNull(resetStrategy, "resetStrategy must be provided");
+        return this.self();
+    }
+
+    /**
+     * Truncate the tables of the database.
+     */
+    @Override
+    public void reset() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Container must be running");
+        }
+        this.resetStrategy.reset(this);
+    }
+
     /**
      * Register all properties
      */
     protected void registerMySqlEnvironment() {
-        System.setProperty(this.getDriverClassSystemProperty(), getDriverClassName());
-        System.setProperty(this.getUrlSystemProperty(), constructUrlForConnection(""));
-        System.setProperty(this.getUsernameSystemProperty(), this.getUsername());
-        System.setProperty(this.getPasswordSystemProperty(), this.getPassword());
-        System.setProperty(this.getPlatformSystemProperty(), "mysql");
+        SpringbootProperties.register(this, this.getDriverClassSystemProperty(), getDriverClassName());
+        SpringbootProperties.register(this, this.getUrlSystemProperty(), constructUrlForConnection(""));
+        SpringbootProperties.register(this, this.getUsernameSystemProperty(), this.getUsername());
+        SpringbootProperties.register(this, this.getPasswordSystemProperty(), this.getPassword());
+        SpringbootProperties.register(this, this.getPlatformSystemProperty(), "mysql");
     }
 
     /**
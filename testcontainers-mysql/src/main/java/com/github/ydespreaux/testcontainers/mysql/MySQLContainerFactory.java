@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import com.github.ydespreaux.testcontainers.common.environment.ContainerDescriptor;
+import com.github.ydespreaux.testcontainers.common.environment.ContainerFactory;
+import com.github.ydespreaux.testcontainers.common.environment.Environment;
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.Locale;
+
+/**
+ * Create the MySQL containers of an environment.
+ * <p>
+ * Properties: databaseName, username, password, rootPassword, configurationOverride,
+ * sqlScriptFile (one or more), sqlScriptDirectory (one or more).
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public class MySQLContainerFactory implements ContainerFactory {
+
+    public static final String TYPE = "mysql";
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Startable create(ContainerDescriptor descriptor, Environment environment) {
+        MySQLContainer container = descriptor.getVersion() == null ? new MySQLContainer() : new MySQLContainer(descriptor.getVersion());
+        container.withRegisterSpringbootProperties(descriptor.isRegisterSpringbootProperties());
+        if (descriptor.getString("databaseName") != null) {
+            container.withDatabaseName(descriptor.getString("databaseName"));
+        }
+        if (descriptor.getString("username") != null) {
+            container.withUsername(descriptor.getString("username"));
+        }
+        if (descriptor.getString("password") != null) {
+            container.withPassword(descriptor.getString("password"));
+        }
+        if (descriptor.getString("rootPassword") != null) {
+            container.withRootPassword(descriptor.getString("rootPassword"));
+        }
+        if (descriptor.getString("configurationOverride") != null) {
+            container.withConfigurationOverride(descriptor.getString("configurationOverride"));
+        }
+        if (descriptor.getString("performanceProfile") != null) {
+            container.withPerformanceProfile(MySQLPerformanceProfile.valueOf(descriptor.getString("performanceProfile").toUpperCase(Locale.ROOT)));
+        }
+        container.withJdbcInitialization(descriptor.getBoolean("jdbcInitialization", false));
+        descriptor.getStringList("sqlScriptFile").forEach(container::withSqlScriptFile);
+        descriptor.getStringList("sqlScriptDirectory").forEach(container::withSqlScriptDirectory);
+        return container;
+    }
+}
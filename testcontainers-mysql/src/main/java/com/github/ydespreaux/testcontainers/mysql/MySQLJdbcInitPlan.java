@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import com.github.ydespreaux.testcontainers.common.jdbc.SqlScriptGroup;
+import org.testcontainers.shaded.org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plan of the init scripts executed from the host through JDBC.
+ * <p>
+ * The plan is a list of phases executed in order, the groups of a phase being executed concurrently.
+ * Each script file or directory added keeps its order: a file is a phase of its own, a directory adds a phase executing
+ * the scripts at its root in order, then a phase executing its sub directories concurrently. The group of a
+ * sub directory executes all its scripts in order, those of the nested directories included.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+class MySQLJdbcInitPlan {
+
+    /**
+     * Phases executed in order.
+     */
+    private final List<List<SqlScriptGroup>> phases = new ArrayList<>();
+
+    /**
+     * Add a script file.
+     *
+     * @param file
+     */
+    void addFile(Path file) {
+        this.phases.add(Collections.singletonList(SqlScriptGroup.of(file.getFileName().toString(), file)));
+    }
+
+    /**
+     * Add a scripts directory.
+     *
+     * @param directory
+     */
+    void addDirectory(Path directory) {
+        List<Path> rootScripts = new ArrayList<>();
+        List<SqlScriptGroup> subDirectories = new ArrayList<>();
+        for (Path path : list(directory)) {
+            if (Files.isDirectory(path)) {
+                List<Path> scripts = new ArrayList<>();
+                collectScripts(path, scripts);
+                if (!scripts.isEmpty()) {
+                    subDirectories.add(new SqlScriptGroup(path.getFileName().toString(), scripts));
+                }
+            } else {
+                rootScripts.add(path);
+            }
+        }
+        if (!rootScripts.isEmpty()) {
+            this.phases.add(Collections.singletonList(new SqlScriptGroup(directory.getFileName().toString(), rootScripts)));
+        }
+        if (!subDirectories.isEmpty()) {
+            this.phases.add(subDirectories);
+        }
+    }
+
+    /**
+     * Get the phases executed in order.
+     *
+     * @return
+     */
+    List<List<SqlScriptGroup>> getPhases() {
+        return Collections.unmodifiableList(this.phases);
+    }
+
+    /**
+     * Collect the scripts of a directory and of its sub directories, in order.
+     *
+     * @param directory
+     * @param scripts
+     */
+    private static void collectScripts(Path directory, List<Path> scripts) {
+        for (Path path : list(directory)) {
+            if (Files.isDirectory(path)) {
+                collectScripts(path, scripts);
+            } else {
+                scripts.add(path);
+            }
+        }
+    }
+
+    /**
+     * List the sql scripts and the sub directories of a directory, sorted by name.
+     *
+     * @param directory
+     * @return
+     */
+    private static List<Path> list(Path directory) {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> Files.isDirectory(path) || FilenameUtils.getExtension(path.getFileName().toString()).equals("sql"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error listing scripts", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Performance profiles of the MySQL server.
+ * <p>
+ * The settings are passed as options of mysqld, so they apply to the server initializing the database and to the
+ * final server, and they override the configuration files.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+public enum MySQLPerformanceProfile {
+
+    /**
+     * Settings of the image, durable.
+     */
+    DEFAULT,
+    /**
+     * Settings for the tests, trading the durability for the write throughput: no flush of the redo log and the binary
+     * log on commit, no doublewrite buffer, no binary log, no performance schema, larger buffer pool and redo log.
+     * The data of a crashed server may be lost.
+     */
+    FAST;
+
+    /**
+     * Name of the system property defining the profile of the MySQL containers without explicit profile.
+     */
+    public static final String PROFILE_PROPERTY = "testcontainers.mysql.performance-profile";
+
+    /**
+     * Get the profile defined by the system property testcontainers.mysql.performance-profile, DEFAULT if undefined.
+     *
+     * @return the profile
+     */
+    public static MySQLPerformanceProfile fromSystemProperty() {
+        String profile = System.getProperty(PROFILE_PROPERTY);
+        return profile == null || profile.trim().isEmpty() ? DEFAULT : valueOf(profile.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the options of mysqld for a version of MySQL.
+     *
+     * @param version the version of the image, such as 5.7.22 or 8.0.15
+     * @return the options
+     */
+    public List<String> getArguments(String version) {
+        if (this == DEFAULT) {
+            return Collections.emptyList();
+        }
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--innodb-flush-log-at-trx-commit=0");
+        arguments.add("--sync-binlog=0");
+        arguments.add("--innodb-doublewrite=0");
+        arguments.add("--innodb-buffer-pool-size=256M");
+        arguments.add("--innodb-log-file-size=128M");
+        arguments.add("--innodb-log-buffer-size=16M");
+        arguments.add("--performance-schema=0");
+        // The binary log is disabled by default before MySQL 8.0
+        if (!isMySQL5(version)) {
+            arguments.add("--skip-log-bin");
+        }
+        return arguments;
+    }
+
+    /**
+     * Append the options of the profile to the command of the container.
+     * The options already set by the command are kept, the profile only adds the missing ones.
+     *
+     * @param commandParts the command of the container, empty for the default command of the image
+     * @param version      the version of the image
+     * @return the command with the options of the profile
+     */
+    public String[] applyTo(String[] commandParts, String version) {
+        Set<String> options = Arrays.stream(commandParts)
+                .map(MySQLPerformanceProfile::optionName)
+                .collect(Collectors.toSet());
+        List<String> command = new ArrayList<>(Arrays.asList(commandParts));
+        for (String argument : getArguments(version)) {
+            if (!options.contains(optionName(argument))) {
+                command.add(argument);
+            }
+        }
+        return command.toArray(new String[0]);
+    }
+
+    /**
+     * Name of an option of mysqld, the dashes and underscores being equivalent and skip-x being the option x.
+     */
+    private static String optionName(String argument) {
+        String name = argument.startsWith("--") ? argument.substring(2) : argument;
+        int value = name.indexOf('=');
+        if (value >= 0) {
+            name = name.substring(0, value);
+        }
+        name = name.replace('_', '-').toLowerCase(Locale.ROOT);
+        return name.startsWith("skip-") ? name.substring("skip-".length()) : name;
+    }
+
+    private static boolean isMySQL5(String version) {
+        return version.startsWith("5.");
+    }
+}
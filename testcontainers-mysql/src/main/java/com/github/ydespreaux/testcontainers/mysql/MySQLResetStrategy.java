@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import com.github.ydespreaux.testcontainers.common.ResetStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static java.lang.String.format;
+
+/**
+ * Reset the data of a MySQL container.
+ * <p>
+ * All the tables are truncated with the foreign key checks disabled, including the empty ones so that their
+ * AUTO_INCREMENT counters are reset.
+ * The excluded tables (for instance the schema history of a migration tool) are never truncated.
+ *
+ * @author Yoann Despréaux
+ * @since 1.2.3
+ */
+@Slf4j
+public class MySQLResetStrategy implements ResetStrategy<MySQLContainer> {
+
+    private static final String TABLES_QUERY = "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() AND table_type = 'BASE TABLE'";
+
+    /**
+     * Tables never truncated.
+     */
+    private final Set<String> excludedTables = new HashSet<>();
+
+    /**
+     * Exclude tables from the reset.
+     *
+     * @param tables
+     * @return
+     */
+    public MySQLResetStrategy withExcludedTables(String... tables) {
+        Arrays.stream(tables).map(table -> table.toLowerCase(Locale.ROOT)).forEach(excludedTables::add);
+        return this;
+    }
+
+    @Override
+    public void reset(MySQLContainer container) {
+        long start = System.currentTimeMillis();
+        try (Connection connection = container.createConnection("");
+             Statement statement = connection.createStatement()) {
+            List<String> tables = findTables(statement);
+            if (!tables.isEmpty()) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                try {
+                    for (String table : tables) {
+                        statement.addBatch(format("TRUNCATE TABLE `%s`", table));
+                    }
+                    statement.executeBatch();
+                } finally {
+                    statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("{} tables truncated in {} ms", tables.size(), System.currentTimeMillis() - start);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(format("Reset of database %s failed", container.getDatabaseName()), e);
+        }
+    }
+
+    /**
+     * Find the tables not excluded.
+     *
+     * @param statement
+     * @return
+     * @throws SQLException
+     */
+    private List<String> findTables(Statement statement) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(TABLES_QUERY)) {
+            while (resultSet.next()) {
+                String table = resultSet.getString(1);
+                if (!excludedTables.contains(table.toLowerCase(Locale.ROOT))) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+}
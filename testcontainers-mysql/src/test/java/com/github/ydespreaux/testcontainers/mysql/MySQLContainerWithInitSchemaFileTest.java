@@ -84,6 +84,42 @@ public class MySQLContainerWithInitSchemaFileTest {
         assertThat(resultSet.getString("serial_number"), is(equalTo("WS-1234-5678")));
     }
 
+    @Test
+    void reset() throws SQLException {
+        statement = connection.createStatement();
+        statement.execute("CREATE TABLE tb_reset (id INT NOT NULL PRIMARY KEY AUTO_INCREMENT, name VARCHAR(255) NOT NULL)");
+        statement.execute("INSERT INTO tb_reset (name) VALUES ('first'), ('second')");
+        statement.execute("CREATE TABLE tb_reset_empty (id INT NOT NULL PRIMARY KEY AUTO_INCREMENT, name VARCHAR(255) NOT NULL)");
+        statement.execute("INSERT INTO tb_reset_empty (name) VALUES ('deleted')");
+        statement.execute("DELETE FROM tb_reset_empty");
+
+        // The tables of the other tests are kept
+        mySqlContainer.withResetStrategy(new MySQLResetStrategy().withExcludedTables("tb_user", "tb_workstation")).reset();
+
+        assertThat(count("tb_reset"), is(equalTo(0)));
+        assertThat(count("tb_user"), is(greaterThan(0)));
+        assertThat(count("tb_workstation"), is(greaterThan(0)));
+        // The AUTO_INCREMENT counters are reset, including those of the empty tables
+        statement.execute("INSERT INTO tb_reset (name) VALUES ('third')");
+        statement.execute("INSERT INTO tb_reset_empty (name) VALUES ('first')");
+        assertThat(maxId("tb_reset"), is(equalTo(1)));
+        assertThat(maxId("tb_reset_empty"), is(equalTo(1)));
+    }
+
+    private int count(String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private int maxId(String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MAX(id) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
 
     /**
      * @return
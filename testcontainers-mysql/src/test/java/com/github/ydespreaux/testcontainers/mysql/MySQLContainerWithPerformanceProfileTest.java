@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Tag("integration")
+@Testcontainers
+public class MySQLContainerWithPerformanceProfileTest {
+
+    @Container
+    public static MySQLContainer mySqlContainer = new MySQLContainer()
+            .withPerformanceProfile(MySQLPerformanceProfile.FAST)
+            .withSqlScriptFile("mysql-init/user-schema-init.sql")
+            .withStartupTimeoutSeconds(180);
+
+    @Test
+    void checkServerVariables() throws SQLException {
+        try (Connection connection = mySqlContainer.createConnection("");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@innodb_flush_log_at_trx_commit, @@sync_binlog, @@innodb_doublewrite, @@performance_schema, @@log_bin")) {
+            assertThat(resultSet.next(), is(true));
+            assertThat(resultSet.getInt(1), is(equalTo(0)));
+            assertThat(resultSet.getInt(2), is(equalTo(0)));
+            assertThat(resultSet.getBoolean(3), is(false));
+            assertThat(resultSet.getBoolean(4), is(false));
+            assertThat(resultSet.getBoolean(5), is(false));
+        }
+    }
+
+    @Test
+    void checkInitScripts() throws SQLException {
+        try (Connection connection = mySqlContainer.createConnection("");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM tb_user")) {
+            assertThat(resultSet.next(), is(true));
+            assertThat(resultSet.getInt(1), is(greaterThan(0)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import com.github.ydespreaux.testcontainers.common.jdbc.SqlScriptGroup;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MySQLJdbcInitPlanTest {
+
+    @Test
+    void keepTheOrderOfTheScripts() throws IOException {
+        Path root = Files.createTempDirectory("jdbc-init");
+        Path schema = script(root.resolve("schema.sql"));
+        Path directory = root.resolve("data");
+        Path first = script(directory.resolve("01_data.sql"));
+        Path second = script(directory.resolve("02_data.sql"));
+        script(directory.resolve("readme.txt"));
+        Path users = script(directory.resolve("users/01_users.sql"));
+        Path roles = script(directory.resolve("users/roles/01_roles.sql"));
+        Path grants = script(directory.resolve("users/02_grants.sql"));
+        Path orders = script(directory.resolve("orders/01_orders.sql"));
+        Files.createDirectories(directory.resolve("empty"));
+        Path last = script(root.resolve("last.sql"));
+
+        MySQLJdbcInitPlan plan = new MySQLJdbcInitPlan();
+        plan.addFile(schema);
+        plan.addDirectory(directory);
+        plan.addFile(last);
+
+        List<List<SqlScriptGroup>> phases = plan.getPhases();
+        assertThat(phases, hasSize(4));
+        assertThat(phases.get(0), contains(SqlScriptGroup.of("schema.sql", schema)));
+        assertThat(phases.get(1), contains(SqlScriptGroup.of("data", first, second)));
+        assertThat(phases.get(2), contains(SqlScriptGroup.of("orders", orders), SqlScriptGroup.of("users", users, grants, roles)));
+        assertThat(phases.get(3), contains(SqlScriptGroup.of("last.sql", last)));
+    }
+
+    @Test
+    void directoryWithoutRootScripts() throws IOException {
+        Path directory = Files.createTempDirectory("jdbc-init");
+        Path schema = script(directory.resolve("schema/01_schema.sql"));
+        Path data = script(directory.resolve("data/01_data.sql"));
+
+        MySQLJdbcInitPlan plan = new MySQLJdbcInitPlan();
+        plan.addDirectory(directory);
+
+        assertThat(plan.getPhases(), contains(contains(SqlScriptGroup.of("data", data), SqlScriptGroup.of("schema", schema))));
+    }
+
+    @Test
+    void eachDirectoryIsAPhase() throws IOException {
+        Path root = Files.createTempDirectory("jdbc-init");
+        Path schema = script(root.resolve("schema/tables/01_tables.sql"));
+        Path data = script(root.resolve("data/users/01_users.sql"));
+
+        MySQLJdbcInitPlan plan = new MySQLJdbcInitPlan();
+        plan.addDirectory(root.resolve("schema"));
+        plan.addDirectory(root.resolve("data"));
+
+        assertThat(plan.getPhases(), contains(
+                contains(SqlScriptGroup.of("tables", schema)),
+                contains(SqlScriptGroup.of("users", data))));
+    }
+
+    private static Path script(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, "SELECT 1;".getBytes());
+    }
+}
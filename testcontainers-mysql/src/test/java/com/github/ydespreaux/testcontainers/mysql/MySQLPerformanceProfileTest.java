@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 Yoann Despréaux
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; see the file COPYING . If not, write to the
+ * Free Software Foundation, Inc., 675 Mass Ave, Cambridge, MA 02139, USA.
+ *
+ * Please send bugreports with examples or suggestions to yoann.despreaux@believeit.fr
+ */
+
+package com.github.ydespreaux.testcontainers.mysql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MySQLPerformanceProfileTest {
+
+    @Test
+    void profileArguments() {
+        assertThat(MySQLPerformanceProfile.DEFAULT.getArguments("8.0.15"), is(empty()));
+        assertThat(MySQLPerformanceProfile.FAST.getArguments("5.7.22"), allOf(
+                hasItem("--innodb-flush-log-at-trx-commit=0"),
+                hasItem("--innodb-doublewrite=0"),
+                not(hasItem("--skip-log-bin"))));
+        assertThat(MySQLPerformanceProfile.FAST.getArguments("8.0.15"), hasItem("--skip-log-bin"));
+    }
+
+    @Test
+    void appendArgumentsToCommand() {
+        assertThat(MySQLPerformanceProfile.DEFAULT.applyTo(new String[]{"--character-set-server=utf8mb4"}, "8.0.15"),
+                is(arrayContaining("--character-set-server=utf8mb4")));
+        String[] command = MySQLPerformanceProfile.FAST.applyTo(new String[]{"--character-set-server=utf8mb4", "--innodb_buffer_pool_size=1G", "--log-bin=mysql-bin"}, "8.0.15");
+        assertThat(command[0], is(equalTo("--character-set-server=utf8mb4")));
+        assertThat(command, allOf(
+                hasItemInArray("--innodb_buffer_pool_size=1G"),
+                hasItemInArray("--innodb-flush-log-at-trx-commit=0"),
+                not(hasItemInArray("--innodb-buffer-pool-size=256M")),
+                not(hasItemInArray("--skip-log-bin"))));
+        assertThat(MySQLPerformanceProfile.FAST.applyTo(command, "8.0.15"), is(equalTo(command)));
+        assertThat(MySQLPerformanceProfile.FAST.applyTo(new String[0], "8.0.15"),
+                is(equalTo(MySQLPerformanceProfile.FAST.getArguments("8.0.15").toArray(new String[0]))));
+    }
+}